@@ -0,0 +1,115 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures decoding the generated data with {@link TimeZoneProviderToolDecoder}, reading every zone as the emulated
+ * {@code TimeZoneProvider} does at startup, or only the header and a single zone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TimeZoneProviderToolDecodeBenchmark {
+
+    /**
+     * A locale filter and timezone filter separated by a pipe.
+     */
+    @Param({
+            "EN-AU|*",
+            "EN*|*",
+            "*|Australia*",
+            "*|*"
+    })
+    public String selection;
+
+    /**
+     * A csv of features, empty for the original data format.
+     */
+    @Param({
+            "",
+            "ZONE_INDEX",
+            "GLOBAL_CALENDAR,STRING_TABLE,LOCALE_TABLE,RULES_POOL,ZONE_ALIASES,ZONE_INDEX,COMPACT_RULES,LOCALE_FALLBACK"
+    })
+    public String features;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        final String[] filters = this.selection.split("\\|");
+        final Set<String> zoneIds = TimeZoneProviderTool.timezoneIds(filters[1]);
+
+        this.data = TimeZoneProviderToolVerifier.generate(
+                WalkingkookaLanguageTag.locales(filters[0]),
+                zoneIds,
+                TimeZoneProviderToolFeature.parse(this.features),
+                TimeZoneProviderToolRulesWindow.ALL
+        );
+        this.lastZoneId = zoneIds.stream()
+                .reduce((first, second) -> second)
+                .get();
+    }
+
+    private String data;
+
+    /**
+     * The last zone, without an index every record must be decoded to find it.
+     */
+    private String lastZoneId;
+
+    @Benchmark
+    public void decodeAll(final Blackhole blackhole) throws IOException {
+        final TimeZoneProviderToolDecoder decoder = this.decoder();
+
+        for (final String zoneId : decoder.zoneIds()) {
+            blackhole.consume(decoder.zone(zoneId));
+        }
+    }
+
+    @Benchmark
+    public void decodeOne(final Blackhole blackhole) throws IOException {
+        blackhole.consume(
+                this.decoder()
+                        .zone(this.lastZoneId)
+        );
+    }
+
+    private TimeZoneProviderToolDecoder decoder() throws IOException {
+        return TimeZoneProviderToolDecoder.read(this.data);
+    }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
+import walkingkooka.j2cl.locale.annotationprocessor.LocaleAwareAnnotationProcessor;
+import walkingkooka.text.LineEnding;
+import walkingkooka.text.printer.Printers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Measures {@link TimeZoneProviderTool#generate} for representative selections, harvesting every zone for each
+ * invocation. The data and gzip sizes of each selection are printed after each trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class TimeZoneProviderToolGenerateBenchmark {
+
+    /**
+     * A locale filter and timezone filter separated by a pipe.
+     */
+    @Param({
+            "EN-AU|*",
+            "EN*|*",
+            "*|Australia*",
+            "*|*"
+    })
+    public String selection;
+
+    /**
+     * A csv of {@link TimeZoneProviderToolFeature} or empty for the original format.
+     */
+    @Param({
+            "",
+            "GLOBAL_CALENDAR,STRING_TABLE,LOCALE_TABLE,RULES_POOL,ZONE_ALIASES"
+    })
+    public String features;
+
+    @Param({
+            "true",
+            "false"
+    })
+    public boolean comments;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        final String[] filters = this.selection.split("\\|");
+        this.locales = WalkingkookaLanguageTag.locales(filters[0]);
+        this.timezoneIds = TimeZoneProviderTool.timezoneIds(filters[1]);
+        this.featuresSet = TimeZoneProviderToolFeature.parse(this.features);
+    }
+
+    @Setup(Level.Invocation)
+    public void clearMemo() {
+        TimeZoneProviderTool.clearMemo();
+    }
+
+    @Benchmark
+    public String generate() throws Exception {
+        final StringBuilder data = new StringBuilder();
+        final StringBuilder comments = new StringBuilder();
+
+        TimeZoneProviderTool.generate(
+                this.locales,
+                this.timezoneIds,
+                this.featuresSet,
+                true,
+                StringDataInputDataOutput.output(data::append),
+                this.comments ?
+                        LocaleAwareAnnotationProcessor.comments(Printers.stringBuilder(comments, LineEnding.NL)) :
+                        TimeZoneProviderTool.NO_COMMENTS
+        );
+
+        this.data = data.toString();
+        return this.data;
+    }
+
+    @TearDown(Level.Trial)
+    public void printSizes() throws IOException {
+        final String data = this.data;
+        if (null != data) {
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (final GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+                gzip.write(data.getBytes(StandardCharsets.UTF_8));
+            }
+
+            System.out.println();
+            System.out.println("selection: " + this.selection + " features: " + this.featuresSet + " data size: " + data.length() + " gzip size: " + bytes.size());
+        }
+    }
+
+    private Set<Locale> locales;
+    private Set<String> timezoneIds;
+    private Set<TimeZoneProviderToolFeature> featuresSet;
+    private String data;
+}
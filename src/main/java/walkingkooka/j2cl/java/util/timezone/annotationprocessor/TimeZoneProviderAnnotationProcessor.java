@@ -17,32 +17,148 @@
 
 package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
 
+import walkingkooka.collect.list.Lists;
 import walkingkooka.collect.set.Sets;
+import walkingkooka.collect.set.SortedSets;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
 import walkingkooka.j2cl.locale.annotationprocessor.LocaleAwareAnnotationProcessor;
 import walkingkooka.j2cl.locale.annotationprocessor.LocaleAwareAnnotationProcessorTool;
 import walkingkooka.text.CharSequences;
+import walkingkooka.text.Indentation;
 import walkingkooka.text.printer.IndentingPrinter;
+import walkingkooka.text.printer.Printers;
 
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.tools.Diagnostic;
+import javax.tools.StandardLocation;
 import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 
 public final class TimeZoneProviderAnnotationProcessor extends LocaleAwareAnnotationProcessor {
+
+    /**
+     * The {@link javax.annotation.processing.Filer} is wrapped so the {@link TimeZoneProviderToolTemplateFiler#PLACEHOLDER}
+     * in the template may be replaced.
+     */
+    @Override
+    public synchronized void init(final ProcessingEnvironment environment) {
+        super.init(
+                TimeZoneProviderToolTemplateFiler.environment(
+                        environment,
+                        () -> this.appendData
+                )
+        );
+    }
+
+    /**
+     * Replaces the {@link TimeZoneProviderToolTemplateFiler#PLACEHOLDER} in the template, empty unless the data is
+     * written to the generated data class.
+     */
+    private String appendData = "";
+
+    /**
+     * Appends the data of the generated data class to the template DATA.
+     */
+    private final static String APPEND_DATA = " + " + TimeZoneProviderToolChunkWriter.CLASS_NAME + ".DATA";
+
+    /**
+     * Documents in the template that DATA is empty when sharded, the runtime must read a region from the registry.
+     */
+    private final static String SHARDED_DATA = " /* sharded, DATA is empty, each method of " +
+            TimeZoneProviderToolChunkWriter.PACKAGE + "." + TimeZoneProviderToolRegions.CLASS_NAME +
+            " returns the complete data of one region, with its own header and tables */";
+
     @Override
     protected Set<String> additionalArguments() {
         return Sets.of(
                 SELECTED_ZONEIDS,
-                DEFAULT_TIMEZONE
+                DEFAULT_TIMEZONE,
+                FEATURES,
+                PARALLEL,
+                CHUNKED,
+                SHARDED,
+                CACHE,
+                STREAMING,
+                COMMENTS,
+                BUDGET,
+                GZIP_BUDGET,
+                MIN_INSTANT,
+                MAX_INSTANT,
+                LOCALE_COUNTRIES,
+                EXCLUDE,
+                REPORT
         );
     }
 
+    /**
+     * Returns the optional annotation processor option or the default if absent.
+     */
+    private String optionalArgument(final String key,
+                                    final String defaultValue) {
+        final String value = this.processingEnv.getOptions()
+                .get(key);
+        return null != value ?
+                value :
+                defaultValue;
+    }
+
     // timeZoneFilter .................................................................................................
 
     private String timeZoneFilter(final Function<String, String> arguments) {
         return arguments.apply(SELECTED_ZONEIDS);
     }
 
+    /**
+     * Returns the zones matching the filter, with the zones of the countries of the selected locales when
+     * {@link #LOCALE_COUNTRIES} is true, less any {@link #EXCLUDE excluded} zones.
+     */
+    private Set<String> timeZones(final String timeZoneFilter,
+                                  final Set<String> languageTags) {
+        final Set<String> timeZones = SortedSets.tree();
+        timeZones.addAll(timeZones(timeZoneFilter));
+
+        if (this.localeCountries()) {
+            timeZones.addAll(
+                    TimeZoneProviderToolCountries.zoneIds(
+                            LocaleAwareAnnotationProcessorTool.toLocales(languageTags)
+                    )
+            );
+        }
+
+        final String exclude = this.exclude();
+        if (false == exclude.isEmpty()) {
+            timeZones.removeAll(timeZones(exclude));
+        }
+
+        return Collections.unmodifiableSet(timeZones);
+    }
+
+    /**
+     * Describes how zones are selected, used by messages and the summary.
+     */
+    private String timeZoneSelection(final String timeZoneFilter) {
+        final String exclude = this.exclude();
+
+        return timeZoneFilter +
+                (this.localeCountries() ? " + locale countries" : "") +
+                (exclude.isEmpty() ? "" : " - " + exclude);
+    }
+
     private static Set<String> timeZones(final String timeZoneFilter) {
         try {
             return TimeZoneProviderTool.timezoneIds(timeZoneFilter);
@@ -58,6 +174,32 @@ public final class TimeZoneProviderAnnotationProcessor extends LocaleAwareAnnota
 
     private final static String URL = "(https://github.com/mP1/j2cl-java-util-TimeZone-annotation-processor)";
 
+    // localeCountries..................................................................................................
+
+    private boolean localeCountries() {
+        return Boolean.parseBoolean(
+                this.optionalArgument(LOCALE_COUNTRIES, "false")
+        );
+    }
+
+    /**
+     * Optional annotation processor option, when true the zones of the countries of the selected locales are added
+     * to the zones matching {@link #SELECTED_ZONEIDS}.
+     */
+    private final static String LOCALE_COUNTRIES = "walkingkooka.j2cl.java.util.TimeZone.LOCALE_COUNTRIES";
+
+    // exclude..........................................................................................................
+
+    private String exclude() {
+        return this.optionalArgument(EXCLUDE, "");
+    }
+
+    /**
+     * Optional annotation processor option with a csv list of time zone id selectors that are removed from the
+     * selected zones.
+     */
+    private final static String EXCLUDE = "walkingkooka.j2cl.java.util.TimeZone.EXCLUDE";
+
     // default..........................................................................................................
 
     @Override
@@ -66,12 +208,12 @@ public final class TimeZoneProviderAnnotationProcessor extends LocaleAwareAnnota
         final String defaultTimeZone = arguments.apply(DEFAULT_TIMEZONE);
         final String timeZoneFilter = this.timeZoneFilter(arguments);
 
-        if (false == timeZones(timeZoneFilter).contains(defaultTimeZone)) {
+        if (false == this.timeZones(timeZoneFilter, selectedLocales).contains(defaultTimeZone)) {
             throw new IllegalArgumentException(
                     "Default timezone " +
                             CharSequences.quoteAndEscape(defaultTimeZone) +
                             " not in selected timeZone " +
-                            CharSequences.quoteAndEscape(timeZoneFilter)
+                            CharSequences.quoteAndEscape(this.timeZoneSelection(timeZoneFilter))
             );
         }
         return Optional.of(defaultTimeZone);
@@ -79,6 +221,486 @@ public final class TimeZoneProviderAnnotationProcessor extends LocaleAwareAnnota
 
     private final static String DEFAULT_TIMEZONE = "walkingkooka.j2cl.java.util.TimeZone.DEFAULT";
 
+    // features.........................................................................................................
+
+    private Set<TimeZoneProviderToolFeature> features() {
+        try {
+            return TimeZoneProviderToolFeature.parse(
+                    this.optionalArgument(FEATURES, "")
+            );
+        } catch (final IllegalArgumentException cause) {
+            throw new IllegalArgumentException(cause.getMessage() + " " + URL);
+        }
+    }
+
+    /**
+     * Optional annotation processor option with a csv of {@link TimeZoneProviderToolFeature} names, when absent the
+     * original data format is generated.
+     */
+    private final static String FEATURES = "walkingkooka.j2cl.java.util.TimeZone.FEATURES";
+
+    // parallel.........................................................................................................
+
+    private boolean parallel() {
+        return Boolean.parseBoolean(
+                this.optionalArgument(PARALLEL, "true")
+        );
+    }
+
+    /**
+     * Optional annotation processor option, when true (the default) zones are harvested in parallel.
+     */
+    private final static String PARALLEL = "walkingkooka.j2cl.java.util.TimeZone.PARALLEL";
+
+    // chunked..........................................................................................................
+
+    private boolean chunked() {
+        return Boolean.parseBoolean(
+                this.optionalArgument(CHUNKED, "false")
+        );
+    }
+
+    /**
+     * Optional annotation processor option, when true the data is written as several string literals in a separate
+     * generated class, rather than a single string literal which is limited to 65535 bytes.
+     */
+    private final static String CHUNKED = "walkingkooka.j2cl.java.util.TimeZone.CHUNKED";
+
+    /**
+     * Creates the source file for a generated class that holds chunked data.
+     */
+    private TimeZoneProviderToolChunkWriter chunkWriter(final String className) throws IOException {
+        return TimeZoneProviderToolChunkWriter.with(
+                this.sourceWriter(className),
+                className,
+                TimeZoneProviderToolChunkWriter.MAX_CHUNK_BYTES
+        );
+    }
+
+    private Writer sourceWriter(final String className) throws IOException {
+        return this.processingEnv.getFiler()
+                .createSourceFile(TimeZoneProviderToolChunkWriter.PACKAGE + "." + className)
+                .openWriter();
+    }
+
+    // sharded..........................................................................................................
+
+    private boolean sharded() {
+        return Boolean.parseBoolean(
+                this.optionalArgument(SHARDED, "false")
+        );
+    }
+
+    /**
+     * Optional annotation processor option, when true the data for each region is generated in its own class, and
+     * the template DATA is empty. Each region is a complete payload that may be decoded alone, repeating the header
+     * and tables, the runtime must read the region of a zone from the registry rather than DATA.
+     */
+    private final static String SHARDED = "walkingkooka.j2cl.java.util.TimeZone.SHARDED";
+
+    /**
+     * Generates a class with the complete data for the zones of each region, followed by the registry class.
+     */
+    private void generateRegions(final Set<Locale> locales,
+                                 final Set<String> timeZones,
+                                 final Set<TimeZoneProviderToolFeature> features,
+                                 final boolean parallel,
+                                 final String defaultTimeZone,
+                                 final IndentingPrinter comments,
+                                 final TimeZoneProviderToolReport report,
+                                 final TimeZoneProviderToolPayloadSize size) throws Exception {
+        final Map<String, Set<String>> regions = TimeZoneProviderToolRegions.regions(timeZones);
+
+        for (final Entry<String, Set<String>> regionAndZoneIds : regions.entrySet()) {
+            final String region = regionAndZoneIds.getKey();
+
+            if (TimeZoneProviderTool.isCommenting(comments)) {
+                comments.lineStart();
+                comments.print("Region: " + region);
+            }
+
+            try (final TimeZoneProviderToolChunkWriter chunks = this.chunkWriter(TimeZoneProviderToolRegions.className(region))) {
+                this.generateChunks(
+                        locales,
+                        regionAndZoneIds.getValue(),
+                        features,
+                        parallel,
+                        defaultTimeZone,
+                        chunks,
+                        comments,
+                        report,
+                        size
+                );
+            }
+        }
+
+        try (final Writer registry = this.sourceWriter(TimeZoneProviderToolRegions.CLASS_NAME)) {
+            TimeZoneProviderToolRegions.writeRegistry(
+                    regions,
+                    registry
+            );
+        }
+    }
+
+    // streaming........................................................................................................
+
+    private boolean streaming() {
+        return Boolean.parseBoolean(
+                this.optionalArgument(STREAMING, "false")
+        );
+    }
+
+    /**
+     * Optional annotation processor option, when true the data is written to the generated data class as it is
+     * generated, never holding the complete data in memory. Comments are always off when streaming, the template
+     * printer would otherwise hold all the comments in memory.
+     */
+    private final static String STREAMING = "walkingkooka.j2cl.java.util.TimeZone.STREAMING";
+
+    // cache............................................................................................................
+
+    /**
+     * Returns the cache when the option is present, otherwise null.
+     */
+    private TimeZoneProviderToolCache cache() {
+        final String directory = this.optionalArgument(CACHE, "");
+        return directory.isEmpty() ?
+                null :
+                TimeZoneProviderToolCache.with(Paths.get(directory));
+    }
+
+    /**
+     * Optional annotation processor option with a directory where generated data is cached, when present the data is
+     * written to the generated data class.
+     */
+    private final static String CACHE = "walkingkooka.j2cl.java.util.TimeZone.CACHE";
+
+    /**
+     * Generates or loads from the memo or cache the data for the given zones, writing the data to the chunks. When
+     * streaming the data is written to the chunks as it is generated, bypassing the memo and cache.
+     */
+    private void generateChunks(final Set<Locale> locales,
+                                final Set<String> timeZones,
+                                final Set<TimeZoneProviderToolFeature> features,
+                                final boolean parallel,
+                                final String defaultTimeZone,
+                                final TimeZoneProviderToolChunkWriter chunks,
+                                final IndentingPrinter comments,
+                                final TimeZoneProviderToolReport report,
+                                final TimeZoneProviderToolPayloadSize size) throws Exception {
+        if (this.streaming()) {
+            report.property("source", "streamed");
+            TimeZoneProviderTool.generate(
+                    locales,
+                    timeZones,
+                    features,
+                    this.rulesWindow(),
+                    parallel,
+                    StringDataInputDataOutput.output(text -> {
+                        chunks.append(text);
+                        size.append(text);
+                    }),
+                    comments,
+                    report
+            );
+            return;
+        }
+
+        final List<Object> key = this.payloadKey(
+                locales,
+                timeZones,
+                features,
+                defaultTimeZone,
+                comments
+        );
+
+        final String source;
+        List<String> commentsAndData = PAYLOADS.get(key);
+        if (null == commentsAndData) {
+            final AtomicBoolean generated = new AtomicBoolean();
+            final Callable<List<String>> generator = () -> {
+                generated.set(true);
+                return generateCommentsAndData(locales, timeZones, features, this.rulesWindow(), parallel, comments, report);
+            };
+
+            final TimeZoneProviderToolCache cache = this.cache();
+            commentsAndData = null != cache ?
+                    cache.computeIfAbsent(
+                            TimeZoneProviderToolCache.key(
+                                    locales,
+                                    timeZones,
+                                    features,
+                                    this.rulesWindow(),
+                                    defaultTimeZone,
+                                    TimeZoneProviderTool.isCommenting(comments) ?
+                                            comments.lineEnding().toString() :
+                                            "no comments"
+                            ),
+                            generator
+                    ) :
+                    generator.call();
+            PAYLOADS.put(key, commentsAndData);
+
+            source = generated.get() ?
+                    "generated" :
+                    "cache";
+        } else {
+            source = "memo";
+        }
+        report.property("source", source);
+
+        report.payloadChars("comments", commentsAndData.get(0).length());
+
+        final String data = commentsAndData.get(1);
+        if (TimeZoneProviderTool.isCommenting(comments)) {
+            comments.lineStart();
+            comments.print(commentsAndData.get(0));
+        }
+        chunks.append(data);
+        size.append(data);
+    }
+
+    /**
+     * The in JVM key of the comments and data for the given inputs. Unlike the cache key nothing outside the inputs is
+     * read, the JDK, tzdb and code never change within a JVM.
+     */
+    private List<Object> payloadKey(final Set<Locale> locales,
+                                    final Set<String> timeZones,
+                                    final Set<TimeZoneProviderToolFeature> features,
+                                    final String defaultTimeZone,
+                                    final IndentingPrinter comments) {
+        final TimeZoneProviderToolRulesWindow rulesWindow = this.rulesWindow();
+
+        return Arrays.asList(
+                locales,
+                timeZones,
+                features,
+                rulesWindow.minEpochSecond(),
+                rulesWindow.maxEpochSecond(),
+                defaultTimeZone,
+                TimeZoneProviderTool.isCommenting(comments) ?
+                        comments.lineEnding().toString() :
+                        null
+        );
+    }
+
+    /**
+     * Comments and data text recently generated by any processor in the JVM, bounded by their total characters, at most
+     * 64M characters or about 128MB. Only the chunked data is remembered, the default
+     * template receives the data as {@link DataOutput} writes which would have to be remembered one object per write.
+     */
+    private final static TimeZoneProviderToolMemo<List<Object>, List<String>> PAYLOADS = TimeZoneProviderToolMemo.with(
+            64 * 1024 * 1024,
+            commentsAndData -> commentsAndData.get(0).length() + commentsAndData.get(1).length()
+    );
+
+    /**
+     * Forgets all remembered comments and data, so the next generate generates everything again.
+     */
+    static void clearPayloads() {
+        PAYLOADS.clear();
+    }
+
+    /**
+     * Generates the comments, without any comment prefix and using the line ending of the given comments, and the data
+     * as text.
+     */
+    private static List<String> generateCommentsAndData(final Set<Locale> locales,
+                                                        final Set<String> timeZones,
+                                                        final Set<TimeZoneProviderToolFeature> features,
+                                                        final TimeZoneProviderToolRulesWindow rulesWindow,
+                                                        final boolean parallel,
+                                                        final IndentingPrinter comments,
+                                                        final TimeZoneProviderToolReport report) throws Exception {
+        final StringBuilder commentsText = new StringBuilder();
+        final StringBuilder data = new StringBuilder();
+
+        TimeZoneProviderTool.generate(
+                locales,
+                timeZones,
+                features,
+                rulesWindow,
+                parallel,
+                StringDataInputDataOutput.output(data::append),
+                commentsPrinter(commentsText, comments),
+                report
+        );
+
+        return Lists.of(
+                commentsText.toString(),
+                data.toString()
+        );
+    }
+
+    /**
+     * Returns a printer that writes comments to the text using the line ending of the given comments, or
+     * {@link TimeZoneProviderTool#NO_COMMENTS} when not commenting.
+     */
+    private static IndentingPrinter commentsPrinter(final StringBuilder text,
+                                                    final IndentingPrinter comments) {
+        return TimeZoneProviderTool.isCommenting(comments) ?
+                Printers.stringBuilder(text, comments.lineEnding())
+                        .indenting(Indentation.SPACES2) :
+                TimeZoneProviderTool.NO_COMMENTS;
+    }
+
+    // comments.........................................................................................................
+
+    private boolean commenting() {
+        return Boolean.parseBoolean(
+                this.optionalArgument(COMMENTS, "true")
+        );
+    }
+
+    /**
+     * Optional annotation processor option, when false no comments describing the data are built or generated.
+     */
+    private final static String COMMENTS = "walkingkooka.j2cl.java.util.TimeZone.COMMENTS";
+
+    // rules window.....................................................................................................
+
+    private TimeZoneProviderToolRulesWindow rulesWindow() {
+        try {
+            return TimeZoneProviderToolRulesWindow.with(
+                    epochSecond(MIN_INSTANT, Long.MIN_VALUE),
+                    epochSecond(MAX_INSTANT, Long.MAX_VALUE)
+            );
+        } catch (final IllegalArgumentException cause) {
+            throw new IllegalArgumentException(cause.getMessage() + " " + URL);
+        }
+    }
+
+    private long epochSecond(final String key,
+                             final long defaultValue) {
+        final String value = this.optionalArgument(key, "");
+        try {
+            return value.isEmpty() ?
+                    defaultValue :
+                    Instant.parse(value).getEpochSecond();
+        } catch (final DateTimeParseException cause) {
+            throw new IllegalArgumentException("Invalid " + key + " " + CharSequences.quoteAndEscape(value));
+        }
+    }
+
+    /**
+     * Optional annotation processor option with an ISO-8601 instant, rules transitions before are dropped.
+     */
+    private final static String MIN_INSTANT = "walkingkooka.j2cl.java.util.TimeZone.MIN_INSTANT";
+
+    /**
+     * Optional annotation processor option with an ISO-8601 instant, rules transitions after are dropped unless the
+     * zone has last rules.
+     */
+    private final static String MAX_INSTANT = "walkingkooka.j2cl.java.util.TimeZone.MAX_INSTANT";
+
+    // budget...........................................................................................................
+
+    /**
+     * Returns the budget for the given option or {@link Long#MAX_VALUE} when absent.
+     */
+    private long budget(final String key) {
+        final String value = this.optionalArgument(key, "");
+        try {
+            return value.isEmpty() ?
+                    Long.MAX_VALUE :
+                    Long.parseLong(value);
+        } catch (final NumberFormatException cause) {
+            throw new IllegalArgumentException("Invalid " + key + " " + CharSequences.quoteAndEscape(value) + " " + URL);
+        }
+    }
+
+    /**
+     * Optional annotation processor option with the maximum characters of generated data.
+     */
+    private final static String BUDGET = "walkingkooka.j2cl.java.util.TimeZone.BUDGET";
+
+    /**
+     * Optional annotation processor option with the maximum bytes of the generated data when gzipped.
+     */
+    private final static String GZIP_BUDGET = "walkingkooka.j2cl.java.util.TimeZone.GZIP_BUDGET";
+
+    /**
+     * The number of heaviest zones and locale groups listed when a budget is exceeded.
+     */
+    private final static int HEAVIEST = 10;
+
+    /**
+     * Fails listing the heaviest zones and locale groups if the data exceeds either budget. Zones and locale groups are
+     * ranked by the characters they emitted, when the report is disabled or the data came from the memo or cache, the
+     * data is generated again without comments to count them.
+     */
+    private void checkBudgets(final long budget,
+                              final long gzipBudget,
+                              final Set<Locale> locales,
+                              final Set<String> timeZones,
+                              final Set<TimeZoneProviderToolFeature> features,
+                              final boolean parallel,
+                              final TimeZoneProviderToolReport report,
+                              final TimeZoneProviderToolPayloadSize size) throws Exception {
+        final long chars = size.chars();
+        final long gzipBytes = size.gzipBytes();
+
+        final String exceeded;
+        if (chars > budget) {
+            exceeded = "Data " + chars + " chars exceeds " + BUDGET + " " + budget;
+        } else if (gzipBytes > gzipBudget) {
+            exceeded = "Gzipped data " + gzipBytes + " bytes exceeds " + GZIP_BUDGET + " " + gzipBudget;
+        } else {
+            exceeded = null;
+        }
+
+        if (null != exceeded) {
+            TimeZoneProviderToolReport breakdown = report;
+            if (breakdown.zoneChars().isEmpty()) {
+                breakdown = TimeZoneProviderToolReport.empty();
+                TimeZoneProviderTool.generate(
+                        locales,
+                        timeZones,
+                        features,
+                        this.rulesWindow(),
+                        parallel,
+                        StringDataInputDataOutput.output(text -> {
+                        }),
+                        TimeZoneProviderTool.NO_COMMENTS,
+                        breakdown
+                );
+            }
+
+            throw new IllegalArgumentException(exceeded + " " + URL + "\n" + breakdown.heaviest(HEAVIEST));
+        }
+    }
+
+    // report...........................................................................................................
+
+    private boolean reporting() {
+        return Boolean.parseBoolean(
+                this.optionalArgument(REPORT, "false")
+        );
+    }
+
+    /**
+     * Optional annotation processor option, when true the time of each phase and the characters of each section and
+     * zone are measured and written as {@link TimeZoneProviderToolReport#FILE_NAME} with a summary note.
+     */
+    private final static String REPORT = "walkingkooka.j2cl.java.util.TimeZone.REPORT";
+
+    /**
+     * Writes the report as JSON next to the generated source and its summary as a note.
+     */
+    private void writeReport(final TimeZoneProviderToolReport report) throws IOException {
+        try (final Writer writer = this.processingEnv.getFiler()
+                .createResource(
+                        StandardLocation.SOURCE_OUTPUT,
+                        TimeZoneProviderToolChunkWriter.PACKAGE,
+                        TimeZoneProviderToolReport.FILE_NAME
+                ).openWriter()) {
+            writer.write(report.toJson());
+        }
+
+        this.processingEnv.getMessager()
+                .printMessage(Diagnostic.Kind.NOTE, report.summary());
+    }
+
     // generate.........................................................................................................
 
     @Override
@@ -86,16 +708,106 @@ public final class TimeZoneProviderAnnotationProcessor extends LocaleAwareAnnota
                               final Set<String> languageTags,
                               final Function<String, String> arguments,
                               final DataOutput data,
-                              final IndentingPrinter comments) throws Exception {
+                              final IndentingPrinter printer) throws Exception {
+        final long start = System.nanoTime();
+        final boolean reporting = this.reporting();
+        final TimeZoneProviderToolReport report = reporting ?
+                TimeZoneProviderToolReport.empty() :
+                TimeZoneProviderToolReport.disabled();
+
+        // the data is only measured when a budget must be checked or reported.
+        final long budget = this.budget(BUDGET);
+        final long gzipBudget = this.budget(GZIP_BUDGET);
+        final TimeZoneProviderToolPayloadSize size = reporting || Long.MAX_VALUE != budget || Long.MAX_VALUE != gzipBudget ?
+                TimeZoneProviderToolPayloadSize.empty() :
+                TimeZoneProviderToolPayloadSize.disabled();
+
+        // the template printer holds all comments in memory, which streaming must avoid.
+        final IndentingPrinter comments = this.commenting() && false == this.streaming() ?
+                printer :
+                TimeZoneProviderTool.NO_COMMENTS;
         final String timeZoneFilter = timeZoneFilter(arguments);
-        final Set<String> timeZones = timeZones(timeZoneFilter);
+        final Set<String> timeZones = this.timeZones(timeZoneFilter, languageTags);
 
-        TimeZoneProviderTool.generate(
-                LocaleAwareAnnotationProcessorTool.toLocales(languageTags),
-                timeZones,
-                data,
-                comments
-        );
+        final Set<Locale> locales = LocaleAwareAnnotationProcessorTool.toLocales(languageTags);
+        final Set<TimeZoneProviderToolFeature> features = this.features();
+        final boolean parallel = this.parallel();
+
+        final String defaultTimeZone = arguments.apply(DEFAULT_TIMEZONE);
+
+        this.appendData = "";
+
+        if (this.sharded()) {
+            // the template DATA is empty and documents the registry.
+            this.appendData = SHARDED_DATA;
+            this.generateRegions(
+                    locales,
+                    timeZones,
+                    features,
+                    parallel,
+                    defaultTimeZone,
+                    comments,
+                    report,
+                    size
+            );
+        } else if (this.chunked() || this.streaming() || null != this.cache()) {
+            // the template DATA is empty and appends the generated data class.
+            this.appendData = APPEND_DATA;
+            try (final TimeZoneProviderToolChunkWriter chunks = this.chunkWriter(TimeZoneProviderToolChunkWriter.CLASS_NAME)) {
+                this.generateChunks(
+                        locales,
+                        timeZones,
+                        features,
+                        parallel,
+                        defaultTimeZone,
+                        chunks,
+                        comments,
+                        report,
+                        size
+                );
+            }
+        } else {
+            // not remembered, the data is only written once to the template DataOutput
+            report.property("source", "generated");
+            TimeZoneProviderTool.generate(
+                    locales,
+                    timeZones,
+                    features,
+                    this.rulesWindow(),
+                    parallel,
+                    size.isEnabled() ?
+                            TimeZoneProviderToolTeeDataOutput.with(
+                                    data,
+                                    StringDataInputDataOutput.output(size::append)
+                            ) :
+                            data,
+                    comments,
+                    report
+            );
+        }
+
+        if (reporting) {
+            if (this.localeCountries()) {
+                report.property("localeCountriesTzdb", TimeZoneProviderToolCountries.TZDB_VERSION);
+            }
+            report.payloadChars("data", size.chars());
+            report.property("dataGzipBytes", size.gzipBytes());
+            report.time("total", System.nanoTime() - start);
+            this.writeReport(report);
+        }
+
+        if (size.isEnabled()) {
+            this.checkBudgets(
+                    budget,
+                    gzipBudget,
+                    locales,
+                    timeZones,
+                    features,
+                    parallel,
+                    report,
+                    size
+            );
+        }
 
         return LocaleAwareAnnotationProcessorTool.extractSummary(
                 languageTags.size(),
@@ -105,7 +817,7 @@ public final class TimeZoneProviderAnnotationProcessor extends LocaleAwareAnnota
                 LocaleAwareAnnotationProcessorTool.extractSummary(
                         timeZones.size(),
                         "TimeZone",
-                        timeZoneFilter
+                        this.timeZoneSelection(timeZoneFilter)
                 );
     }
 }
@@ -17,6 +17,7 @@
 
 package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
 
+import walkingkooka.collect.list.Lists;
 import walkingkooka.collect.map.Maps;
 import walkingkooka.collect.set.SortedSets;
 import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
@@ -27,55 +28,132 @@ import walkingkooka.j2cl.locale.TimeZoneDisplay;
 import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
 import walkingkooka.j2cl.locale.annotationprocessor.LocaleAwareAnnotationProcessor;
 import walkingkooka.j2cl.locale.annotationprocessor.LocaleAwareAnnotationProcessorTool;
+import walkingkooka.text.CharSequences;
+import walkingkooka.text.Indentation;
 import walkingkooka.text.LineEnding;
 import walkingkooka.text.printer.IndentingPrinter;
 import walkingkooka.text.printer.Printer;
 import walkingkooka.text.printer.Printers;
 
-import java.io.ByteArrayOutputStream;
 import java.io.DataOutput;
 import java.io.IOException;
-import java.nio.charset.Charset;
 import java.util.Arrays;
-import java.util.GregorianCalendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TimeZone;
 import java.util.function.Function;
-import java.util.function.Predicate;
 import java.util.stream.Collectors;
-import java.util.zip.GZIPOutputStream;
 
 /**
  * This tool prints to {@link DataOutput} all data to make {@link TimeZone#getDisplayName()} work.
  * <pre>
- * int timeZoneIdCount
+ * if any {@link TimeZoneProviderToolFeature features}
+ *     int -1 marker
+ *     int features bits
  *
- * for each timeZoneId
- *     String timeZoneId
- *     int rawOffset
+ * if LOCALE_TABLE
+ *     int locale count
+ *     for each locale sorted by language tag
+ *         String locale language tag
+ *     end
  *
- *     walkingkooka.j2cl.locale.org.threeten.bp.zone.StandardZoneRules.writeExternal
+ *     every group of locales below is then written as runs of indices
+ *     int run count
+ *     for each run
+ *         int first locale index
+ *         int locale count
+ *     end
+ *
+ * if LOCALE_FALLBACK
+ *     every group of locales below only includes the locales whose value differs from their parents, a locale is
+ *     resolved by trying the locale, then its parents eg en-AU then en, finally the default
  *
+ * if GLOBAL_CALENDAR
  *     int default firstDayOfWeek
  *     int default minimalDaysInFirstWeek
  *
- *     group for each locales with common
- * int locale count
+ *     int calendar to locales count
+ *     for each calendar to locales
+ *         int locale count
  *         for each locale
  *             String locale language tag
  *         end
  *
  *         int firstdayofweek
  *         int minimaldaysinfirstweek
- *      end
+ *     end
+ *
+ * if STRING_TABLE
+ *     int string count
+ *     for each string
+ *         String string
+ *     end
+ *
+ * if RULES_POOL
+ *     int rules count
+ *     for each rules
+ *         rules
+ *     end
+ *
+ * if ZONE_INDEX
+ *     int timeZoneId count
+ *     for each timeZoneId sorted
+ *         String timeZoneId
+ *         int record index
+ *     end
+ *
+ *     int record count
+ *     for each record
+ *         int characters of text from the start of the records to the record
+ *     end
+ *     int characters of text of all records, the records end the data
+ *
+ * int timeZoneIdCount (record count if ZONE_ALIASES or ZONE_INDEX)
+ *
+ * for each timeZoneId (ordered by raw offset, rules and region if CLUSTER_ZONES)
+ *     if ZONE_INDEX
+ *         no timeZoneId, they are in the index
+ *     else if ZONE_ALIASES
+ *         int timeZoneId count
+ *         for each equivalent timeZoneId
+ *             String timeZoneId
+ *         end
+ *     else
+ *         String timeZoneId
+ *     int rawOffset
+ *
+ *     if RULES_POOL
+ *         int rules index
+ *     else
+ *         rules
+ *
+ *     if YEAR_TABLE
+ *         {@link TimeZoneProviderToolYearTable year table}
+ *
+ *     if NOT GLOBAL_CALENDAR
+ *         int default firstDayOfWeek
+ *         int default minimalDaysInFirstWeek
+ *
+ *         group for each locales with common
+ *     int locale count
+ *             for each locale
+ *                 String locale language tag
+ *             end
  *
- *     String default shortDisplayText
- *     String default shortDisplayTextDaylight
- *     String default longDisplayText
- *     String default longDisplayTextDaylight
+ *             int firstdayofweek
+ *             int minimaldaysinfirstweek
+ *          end
+ *
+ *     String default shortDisplayText (int string index if STRING_TABLE)
+ *     String default shortDisplayTextDaylight (int string index if STRING_TABLE)
+ *     String default longDisplayText (int string index if STRING_TABLE)
+ *     String default longDisplayTextDaylight (int string index if STRING_TABLE)
  *
  *     int display to locales count
  *
@@ -85,11 +163,15 @@ import java.util.zip.GZIPOutputStream;
  *             String locale language tag
  *         end
  *
- *         String shortDisplayText
- *         String shortDisplayTextDaylight
- *         String longDisplayText
- *         String longDisplayTextDaylight
+ *         String shortDisplayText (int string index if STRING_TABLE)
+ *         String shortDisplayTextDaylight (int string index if STRING_TABLE)
+ *         String longDisplayText (int string index if STRING_TABLE)
+ *         String longDisplayTextDaylight (int string index if STRING_TABLE)
  *     end
+ *
+ * rules
+ *     walkingkooka.j2cl.locale.org.threeten.bp.zone.StandardZoneRules.writeExternal
+ *     or if COMPACT_RULES {@link TimeZoneProviderToolRules compact rules}
  * </pre>
  */
 public final class TimeZoneProviderTool {
@@ -100,8 +182,14 @@ public final class TimeZoneProviderTool {
 
             final TimeZoneProviderTool tool = new TimeZoneProviderTool(WalkingkookaLanguageTag.locales("*"),
                     timezoneIds("*"),
+                    EnumSet.noneOf(TimeZoneProviderToolFeature.class),
+                    TimeZoneProviderToolRulesWindow.ALL,
+                    true,
                     StringDataInputDataOutput.output(data::append),
-                    LocaleAwareAnnotationProcessor.comments(printer));
+                    LocaleAwareAnnotationProcessor.comments(printer),
+                    TimeZoneProviderToolReport.disabled(),
+                    TimeZoneProviderToolDisplayNames.create(),
+                    TimeZoneProviderToolCalendars.create());
             tool.generate0();
 
             String left = data.toString();
@@ -122,15 +210,11 @@ public final class TimeZoneProviderTool {
             printer.print("data size: " + data.length());
             printer.print(LineEnding.SYSTEM);
 
-            try (final ByteArrayOutputStream bytes = new ByteArrayOutputStream()) {
-                try (final GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
-                    gzip.write(data.toString().getBytes(Charset.defaultCharset()));
-                    gzip.flush();
-                }
+            final TimeZoneProviderToolPayloadSize size = TimeZoneProviderToolPayloadSize.empty();
+            size.append(data);
 
-                printer.print("gzip size: " + bytes.toByteArray().length);
-                printer.print(LineEnding.SYSTEM);
-            }
+            printer.print("gzip size: " + size.gzipBytes());
+            printer.print(LineEnding.SYSTEM);
 
             printer.flush();
         }
@@ -140,127 +224,979 @@ public final class TimeZoneProviderTool {
      * Uses the filter to select all or a subset of available zone ids.
      */
     static Set<String> timezoneIds(final String filter) {
-        final Predicate<String> predicate = WalkingkookaLanguageTag.filter(filter);
-        return Arrays.stream(TimeZone.getAvailableIDs())
-                .filter(predicate)
-                .collect(Collectors.toCollection(SortedSets::tree));
+        return ZONE_IDS.computeIfAbsent(
+                filter,
+                f -> Collections.unmodifiableSortedSet(
+                        Arrays.stream(TimeZone.getAvailableIDs())
+                                .filter(WalkingkookaLanguageTag.filter(f))
+                                .collect(Collectors.toCollection(SortedSets::tree))
+                )
+        );
+    }
+
+    /**
+     * Filter to selected zone ids, shared by all processors in the JVM.
+     */
+    private final static TimeZoneProviderToolMemo<String, Set<String>> ZONE_IDS = TimeZoneProviderToolMemo.with(64);
+
+    static void generate(final Set<Locale> locales,
+                         final Set<String> timezoneIds,
+                         final DataOutput data,
+                         final IndentingPrinter comments) throws Exception {
+        generate(locales,
+                timezoneIds,
+                EnumSet.noneOf(TimeZoneProviderToolFeature.class),
+                false,
+                data,
+                comments);
     }
 
+    /**
+     * When parallel is true each zone is harvested on the common fork join pool, the harvested zones are then written
+     * sequentially in the original sorted order, so the generated data and comments are identical to a sequential run.
+     */
     static void generate(final Set<Locale> locales,
                          final Set<String> timezoneIds,
+                         final Set<TimeZoneProviderToolFeature> features,
+                         final boolean parallel,
                          final DataOutput data,
                          final IndentingPrinter comments) throws Exception {
+        generate(locales,
+                timezoneIds,
+                features,
+                parallel,
+                data,
+                comments,
+                TimeZoneProviderToolReport.disabled());
+    }
+
+    /**
+     * Generates recording the time of each phase and the characters of each section and zone in the given report.
+     */
+    static void generate(final Set<Locale> locales,
+                         final Set<String> timezoneIds,
+                         final Set<TimeZoneProviderToolFeature> features,
+                         final boolean parallel,
+                         final DataOutput data,
+                         final IndentingPrinter comments,
+                         final TimeZoneProviderToolReport report) throws Exception {
+        generate(locales,
+                timezoneIds,
+                features,
+                TimeZoneProviderToolRulesWindow.ALL,
+                parallel,
+                data,
+                comments,
+                report);
+    }
+
+    /**
+     * Generates with the rules of every zone pruned to transitions within the window.
+     */
+    static void generate(final Set<Locale> locales,
+                         final Set<String> timezoneIds,
+                         final Set<TimeZoneProviderToolFeature> features,
+                         final TimeZoneProviderToolRulesWindow rulesWindow,
+                         final boolean parallel,
+                         final DataOutput data,
+                         final IndentingPrinter comments,
+                         final TimeZoneProviderToolReport report) throws Exception {
+        generate(locales,
+                timezoneIds,
+                features,
+                rulesWindow,
+                parallel,
+                data,
+                comments,
+                report,
+                TimeZoneProviderToolDisplayNames.create(),
+                TimeZoneProviderToolCalendars.create());
+    }
+
+    /**
+     * Generates harvesting display names and calendars from the given sources, which may be shared by several generates
+     * so each display name and calendar is only created once.
+     */
+    static void generate(final Set<Locale> locales,
+                         final Set<String> timezoneIds,
+                         final Set<TimeZoneProviderToolFeature> features,
+                         final TimeZoneProviderToolRulesWindow rulesWindow,
+                         final boolean parallel,
+                         final DataOutput data,
+                         final IndentingPrinter comments,
+                         final TimeZoneProviderToolReport report,
+                         final TimeZoneProviderToolDisplayNames displayNames,
+                         final TimeZoneProviderToolCalendars calendars) throws Exception {
         new TimeZoneProviderTool(locales,
                 timezoneIds,
+                features,
+                rulesWindow,
+                parallel,
                 data,
-                comments)
+                comments,
+                report,
+                displayNames,
+                calendars)
                 .generate0();
     }
 
     private TimeZoneProviderTool(final Set<Locale> locales,
                                  final Set<String> timezoneIds,
+                                 final Set<TimeZoneProviderToolFeature> features,
+                                 final TimeZoneProviderToolRulesWindow rulesWindow,
+                                 final boolean parallel,
                                  final DataOutput data,
-                                 final IndentingPrinter comments) {
+                                 final IndentingPrinter comments,
+                                 final TimeZoneProviderToolReport report,
+                                 final TimeZoneProviderToolDisplayNames displayNames,
+                                 final TimeZoneProviderToolCalendars calendars) {
         super();
         this.locales = locales;
         this.timezoneIds = timezoneIds;
-        this.data = data;
+        this.features = features;
+        this.rulesWindow = rulesWindow;
+        this.parallel = parallel;
+        this.counter = TimeZoneProviderToolCountingDataOutput.with(data);
+        this.data = report.isEnabled() ?
+                this.counter :
+                data;
         this.comments = comments;
+        this.report = report;
+        this.displayNames = displayNames;
+        this.calendars = calendars;
     }
 
     private void generate0() throws Exception {
-        this.comments.lineStart();
-        this.comments.print("Timezone ids: " + this.timezoneIds.size() + ", locales: " + this.locales.size());
+        final TimeZoneProviderToolReport report = this.report;
+        report.property("locales", this.locales.size());
+        report.property("timezoneIds", this.timezoneIds.size());
+        report.property("features", this.features.toString());
+        report.property("rulesWindow", this.rulesWindow.toString());
+        report.property("comments", this.isCommenting());
+
+        if (this.isCommenting()) {
+            this.comments.lineStart();
+            this.comments.print("Timezone ids: " + this.timezoneIds.size() + ", locales: " + this.locales.size());
+
+            if (false == this.rulesWindow.isAll()) {
+                this.comments.lineStart();
+                this.comments.print("Rules window: " + this.rulesWindow);
+            }
+        }
+
+        // zones are only harvested up front when a feature needs all of them, otherwise they are harvested and written
+        // in small batches keeping memory bounded.
+        final List<TimeZoneProviderToolZone> zones = this.isAllZonesRequired() ?
+                this.harvest(this.timezoneIds) :
+                null;
+
+        this.generateFeatures();
+
+        if (this.isEnabled(TimeZoneProviderToolFeature.LOCALE_TABLE)) {
+            this.generateLocaleTable();
+        }
+
+        if (this.isEnabled(TimeZoneProviderToolFeature.GLOBAL_CALENDAR)) {
+            this.generateGlobalCalendarData();
+        }
+
+        if (this.isEnabled(TimeZoneProviderToolFeature.STRING_TABLE)) {
+            this.generateStringTable(zones);
+        }
+
+        if (this.isEnabled(TimeZoneProviderToolFeature.RULES_POOL)) {
+            this.generateRulesPool(zones);
+        }
+
+        if (null != zones) {
+            final List<List<TimeZoneProviderToolZone>> records = this.records(zones);
+
+            if (this.isEnabled(TimeZoneProviderToolFeature.ZONE_INDEX)) {
+                this.generateIndexedZones(records);
+            } else {
+                this.generateZoneCount(records.size());
+
+                for (final List<TimeZoneProviderToolZone> record : records) {
+                    this.generateZone(record);
+                }
+            }
+        } else {
+            this.generateZoneCount(this.timezoneIds.size());
+
+            this.harvestAndGenerateZones();
+        }
+    }
+
+    private void generateZoneCount(final int count) throws IOException {
+        final long start = System.nanoTime();
+        final long chars = this.counter.count();
+
+        this.data.writeInt(count);
+
+        this.endSection("zoneCount", start, chars);
+    }
 
-        this.data.writeInt(this.timezoneIds.size());
+    /**
+     * Tables and aliases are computed from every zone, so all zones must be harvested before any is written.
+     */
+    private boolean isAllZonesRequired() {
+        return this.isEnabled(TimeZoneProviderToolFeature.CLUSTER_ZONES) ||
+                this.isEnabled(TimeZoneProviderToolFeature.ZONE_INDEX) ||
+                this.isEnabled(TimeZoneProviderToolFeature.STRING_TABLE) ||
+                this.isEnabled(TimeZoneProviderToolFeature.RULES_POOL) ||
+                this.isEnabled(TimeZoneProviderToolFeature.ZONE_ALIASES);
+    }
+
+    /**
+     * Harvests and writes zones a batch at a time, each batch is harvested in parallel when enabled.
+     */
+    private void harvestAndGenerateZones() throws Exception {
+        final List<String> timezoneIds = Lists.array();
+        timezoneIds.addAll(this.timezoneIds);
+
+        final int count = timezoneIds.size();
+        final int batch = this.parallel ?
+                Runtime.getRuntime().availableProcessors() * 4 :
+                1;
+
+        for (int i = 0; i < count; i += batch) {
+            for (final TimeZoneProviderToolZone zone : this.harvest(timezoneIds.subList(i, Math.min(i + batch, count)))) {
+                this.generateZone(Collections.singletonList(zone));
+            }
+        }
+    }
+
+    // zone index.......................................................................................................
 
-        for (final String zoneId : this.timezoneIds) {
-            generateZoneId(zoneId);
+    /**
+     * Every record is generated and recorded first, so the index may hold the characters of text to each record, the
+     * recorded records are then written after the index.
+     */
+    private void generateIndexedZones(final List<List<TimeZoneProviderToolZone>> records) throws Exception {
+        final Map<String, Integer> zoneIdToRecord = Maps.sorted();
+        for (int i = 0; i < records.size(); i++) {
+            for (final TimeZoneProviderToolZone zone : records.get(i)) {
+                zoneIdToRecord.put(zone.zoneId, i);
+            }
+        }
+
+        if (this.isCommenting()) {
+            this.commentZoneIndex(zoneIdToRecord, records.size());
+        }
+
+        final TimeZoneProviderToolRecordingDataOutput recorded = TimeZoneProviderToolRecordingDataOutput.empty();
+        final List<Integer> offsets = Lists.array();
+        final int recordsChars;
+
+        final DataOutput data = this.data;
+        final TimeZoneProviderToolCountingDataOutput counter = this.counter;
+        this.counter = TimeZoneProviderToolCountingDataOutput.following(recorded);
+        this.data = this.counter;
+        try {
+            for (final List<TimeZoneProviderToolZone> record : records) {
+                offsets.add((int) this.counter.count());
+                this.generateZone(record);
+            }
+            recordsChars = (int) this.counter.count();
+        } finally {
+            this.data = data;
+            this.counter = counter;
         }
+
+        this.generateZoneIndex(zoneIdToRecord, offsets, recordsChars);
+        this.generateZoneCount(records.size());
+        recorded.replay(this.data);
     }
 
-    private void generateZoneId(final String zoneId) throws Exception {
+    private void commentZoneIndex(final Map<String, Integer> zoneIdToRecord,
+                                  final int records) {
         final IndentingPrinter comments = this.comments;
 
-        this.generateTimeZoneId(zoneId);
+        comments.lineStart();
+        comments.print("Zone index: " + zoneIdToRecord.size() + " zone ids, " + records + " records");
         comments.indent();
+
+        for (final Entry<String, Integer> zoneIdAndRecord : zoneIdToRecord.entrySet()) {
+            comments.lineStart();
+            comments.print(zoneIdAndRecord.getKey() + "=" + zoneIdAndRecord.getValue());
+        }
+
+        comments.outdent();
+        comments.lineStart();
+        comments.print(comments.lineEnding());
+    }
+
+    /**
+     * Writes every zone id in sorted order with the index of its record, followed by the characters of text to each
+     * record and of all records.
+     */
+    private void generateZoneIndex(final Map<String, Integer> zoneIdToRecord,
+                                   final List<Integer> offsets,
+                                   final int recordsChars) throws IOException {
+        final long start = System.nanoTime();
+        final long chars = this.counter.count();
+
+        final DataOutput data = this.data;
+
+        data.writeInt(zoneIdToRecord.size());
+        for (final Entry<String, Integer> zoneIdAndRecord : zoneIdToRecord.entrySet()) {
+            data.writeUTF(zoneIdAndRecord.getKey());
+            data.writeInt(zoneIdAndRecord.getValue());
+        }
+
+        data.writeInt(offsets.size());
+        for (final int offset : offsets) {
+            data.writeInt(offset);
+        }
+        data.writeInt(recordsChars);
+
+        this.endSection("zoneIndex", start, chars);
+    }
+
+    // records..........................................................................................................
+
+    /**
+     * Each record holds the zones that will be written together, with {@link TimeZoneProviderToolFeature#ZONE_ALIASES}
+     * fully equivalent zones share a record, otherwise every zone is a record by itself.
+     */
+    private List<List<TimeZoneProviderToolZone>> records(final List<TimeZoneProviderToolZone> zones) throws IOException {
+        final long start = System.nanoTime();
+        final List<List<TimeZoneProviderToolZone>> records;
+
+        if (this.isEnabled(TimeZoneProviderToolFeature.ZONE_ALIASES)) {
+            final Map<List<Object>, List<TimeZoneProviderToolZone>> keyToRecord = Maps.ordered();
+
+            for (final TimeZoneProviderToolZone zone : zones) {
+                final List<Object> key = Arrays.asList(
+                        zone.timeZone.getRawOffset(),
+                        zone.serializedRules(this.rulesWindow),
+                        this.isEnabled(TimeZoneProviderToolFeature.YEAR_TABLE) ?
+                                zone.yearTable(this.rulesWindow) :
+                                "",
+                        zone.calendarToLocales,
+                        zone.displayToLocales
+                );
+                keyToRecord.computeIfAbsent(key, k -> Lists.array())
+                        .add(zone);
+            }
+
+            records = Lists.array();
+            records.addAll(keyToRecord.values());
+
+            if (this.isCommenting()) {
+                final IndentingPrinter comments = this.comments;
+                comments.lineStart();
+                comments.print("Zone records: " + records.size() +
+                        ", zone ids: " + zones.size() +
+                        ", collapse ratio: " + String.format(Locale.ENGLISH, "%.2f", records.isEmpty() ? 1.0 : (double) zones.size() / records.size()));
+                comments.lineStart();
+                comments.print(comments.lineEnding());
+            }
+        } else {
+            records = zones.stream()
+                    .map(Collections::singletonList)
+                    .collect(Collectors.toList());
+        }
+
+        if (this.isEnabled(TimeZoneProviderToolFeature.CLUSTER_ZONES)) {
+            this.cluster(records);
+        }
+
+        this.report.time("records", System.nanoTime() - start);
+        return records;
+    }
+
+    /**
+     * Sorts records by raw offset, rules, region then zone id, so records with similar rules and display names are
+     * close together and compress better. The sort is stable and the key of each record is computed once.
+     */
+    private void cluster(final List<List<TimeZoneProviderToolZone>> records) throws IOException {
+        final Map<List<TimeZoneProviderToolZone>, List<Comparable<?>>> recordToKey = Maps.hash();
+
+        for (final List<TimeZoneProviderToolZone> record : records) {
+            final TimeZoneProviderToolZone zone = record.get(0);
+
+            recordToKey.put(
+                    record,
+                    Arrays.asList(
+                            zone.timeZone.getRawOffset(),
+                            zone.serializedRules(this.rulesWindow),
+                            TimeZoneProviderToolRegions.region(zone.zoneId),
+                            zone.zoneId
+                    )
+            );
+        }
+
+        records.sort((left, right) -> compareKeys(recordToKey.get(left), recordToKey.get(right)));
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static int compareKeys(final List<Comparable<?>> left,
+                                   final List<Comparable<?>> right) {
+        int compare = 0;
+        for (int i = 0; 0 == compare && i < left.size(); i++) {
+            compare = ((Comparable) left.get(i)).compareTo(right.get(i));
+        }
+        return compare;
+    }
+
+    // report...........................................................................................................
+
+    /**
+     * Records the time and characters of a section started at the given nanos and character count.
+     */
+    private void endSection(final String section,
+                            final long start,
+                            final long chars) {
+        final TimeZoneProviderToolReport report = this.report;
+        report.time(section, System.nanoTime() - start);
+        report.sectionChars(section, this.counter.count() - chars);
+    }
+
+    /**
+     * Records the characters of a group of locales sharing a calendar or display, the default group is recorded as default.
+     */
+    private void endLocaleGroup(final Set<Locale> locales,
+                                final long chars) {
+        this.report.localeGroupChars(
+                null == locales ?
+                        "default" :
+                        locales.stream()
+                                .map(Locale::toLanguageTag)
+                                .collect(Collectors.joining(", ")),
+                this.counter.count() - chars
+        );
+    }
+
+    /**
+     * Wraps the original {@link DataOutput} counting all characters emitted, only written to when the report is
+     * enabled, replaced along with {@link #data} while {@link TimeZoneProviderToolFeature#ZONE_INDEX} records are
+     * recorded.
+     */
+    private TimeZoneProviderToolCountingDataOutput counter;
+
+    private final TimeZoneProviderToolReport report;
+
+    // features.........................................................................................................
+
+    private void generateFeatures() throws IOException {
+        final long start = System.nanoTime();
+        final long chars = this.counter.count();
+
+        final Set<TimeZoneProviderToolFeature> features = this.features;
+
+        if (false == features.isEmpty()) {
+            if (this.isCommenting()) {
+                this.comments.lineStart();
+                this.comments.print("Features: " + features);
+            }
+
+            this.data.writeInt(TimeZoneProviderToolFeature.MARKER);
+            this.data.writeInt(TimeZoneProviderToolFeature.bits(features));
+        }
+
+        this.endSection("features", start, chars);
+    }
+
+    private boolean isEnabled(final TimeZoneProviderToolFeature feature) {
+        return this.features.contains(feature);
+    }
+
+    // comments.........................................................................................................
+
+    /**
+     * Pass as the comments to skip building every comment, only the data is generated.
+     */
+    final static IndentingPrinter NO_COMMENTS = Printers.sink(LineEnding.NONE)
+            .indenting(Indentation.SPACES2);
+
+    static boolean isCommenting(final IndentingPrinter comments) {
+        return NO_COMMENTS != comments;
+    }
+
+    private boolean isCommenting() {
+        return isCommenting(this.comments);
+    }
+
+    // locales..........................................................................................................
+
+    /**
+     * Writes all selected locales once, groups of locales will then be written as runs of indices into this table.
+     */
+    private void generateLocaleTable() throws IOException {
+        final long start = System.nanoTime();
+        final long chars = this.counter.count();
+
+        final TimeZoneProviderToolLocaleTable localeTable = TimeZoneProviderToolLocaleTable.with(this.locales);
+        localeTable.generate(this.data, this.comments);
+        this.localeTable = localeTable;
+
+        this.endSection("localeTable", start, chars);
+    }
+
+    /**
+     * Only set when {@link TimeZoneProviderToolFeature#LOCALE_TABLE} is enabled.
+     */
+    private TimeZoneProviderToolLocaleTable localeTable;
+
+    private void generateLocales(final Set<Locale> locales) throws IOException {
+        final TimeZoneProviderToolLocaleTable localeTable = this.localeTable;
+        if (null != localeTable) {
+            localeTable.write(locales, this.data, this.comments);
+        } else {
+            if (this.isCommenting()) {
+                LocaleSupport.generateLocales(locales,
+                        this.data,
+                        this.comments);
+            } else {
+                // LocaleSupport always builds its comment, the same count and language tags are written directly
+                final DataOutput data = this.data;
+                data.writeInt(locales.size());
+                for (final Locale locale : locales) {
+                    data.writeUTF(locale.toLanguageTag());
+                }
+            }
+        }
+    }
+
+    // global calendar..................................................................................................
+
+    /**
+     * Writes the calendar data once for all zones, firstDayOfWeek and minimalDaysInFirstWeek only depend on the locale.
+     */
+    private void generateGlobalCalendarData() throws IOException {
+        final long start = System.nanoTime();
+        final long chars = this.counter.count();
+
+        final IndentingPrinter comments = this.comments;
+        final boolean commenting = this.isCommenting();
+
+        if (commenting) {
+            comments.lineStart();
+            comments.print("Calendar");
+            comments.indent();
+        }
+        {
+            this.generateGregorianCalendarData(
+                    LocaleAwareAnnotationProcessorTool.buildMultiLocaleMap(
+                            this.calendars::calendar,
+                            this.locales
+                    )
+            );
+        }
+        if (commenting) {
+            comments.outdent();
+            comments.lineStart();
+            comments.print(comments.lineEnding());
+        }
+
+        this.endSection("globalCalendar", start, chars);
+    }
+
+    // string table.....................................................................................................
+
+    /**
+     * Writes a table with all unique display names, zones will then write the indices of their display names.
+     */
+    private void generateStringTable(final List<TimeZoneProviderToolZone> zones) throws IOException {
+        final long start = System.nanoTime();
+        final long chars = this.counter.count();
+
+        final TimeZoneProviderToolStringTable strings = TimeZoneProviderToolStringTable.displays(
+                zones.stream()
+                        .flatMap(z -> z.displayToLocales.keySet().stream())
+                        .collect(Collectors.toList())
+        );
+        strings.generate(this.data, this.comments);
+        this.strings = strings;
+
+        this.endSection("stringTable", start, chars);
+    }
+
+    /**
+     * Only set when {@link TimeZoneProviderToolFeature#STRING_TABLE} is enabled.
+     */
+    private TimeZoneProviderToolStringTable strings;
+
+    // rules pool.......................................................................................................
+
+    /**
+     * Writes all distinct rules once, zones will then write the index of their rules.
+     */
+    private void generateRulesPool(final List<TimeZoneProviderToolZone> zones) throws IOException {
+        final long start = System.nanoTime();
+        final long chars = this.counter.count();
+
+        final TimeZoneProviderToolRulesPool rulesPool = TimeZoneProviderToolRulesPool.with(zones, this.rulesWindow);
+        rulesPool.generate(
+                this.data,
+                this.isEnabled(TimeZoneProviderToolFeature.COMPACT_RULES),
+                this.comments
+        );
+        this.rulesPool = rulesPool;
+
+        this.endSection("rulesPool", start, chars);
+    }
+
+    /**
+     * Only set when {@link TimeZoneProviderToolFeature#RULES_POOL} is enabled.
+     */
+    private TimeZoneProviderToolRulesPool rulesPool;
+
+    // harvest..........................................................................................................
+
+    /**
+     * Harvests the zones, possibly in parallel, returning them in the same order as the given zone ids.
+     */
+    private List<TimeZoneProviderToolZone> harvest(final Collection<String> timezoneIds) {
+        long start = System.nanoTime();
+
+        // names are only resolved for zones that are not remembered
+        this.displayNames.resolve(
+                timezoneIds.stream()
+                        .filter(z -> null == ZONES.get(this.zoneKey(z)))
+                        .collect(Collectors.toList()),
+                this.locales,
+                this.parallel
+        );
+        this.report.time("harvest.resolveDisplays", System.nanoTime() - start);
+
+        start = System.nanoTime();
+        final List<TimeZoneProviderToolZone> zones = (this.parallel ? timezoneIds.parallelStream() : timezoneIds.stream())
+                .map(this::harvestZoneOrMemo)
+                .collect(Collectors.toList());
+
+        this.report.time("harvest", System.nanoTime() - start);
+        return zones;
+    }
+
+    /**
+     * Returns a copy of a previously harvested zone with the same locales or harvests and remembers the zone.
+     */
+    private TimeZoneProviderToolZone harvestZoneOrMemo(final String zoneId) {
+        return ZONES.computeIfAbsent(
+                this.zoneKey(zoneId),
+                k -> this.harvestZone(zoneId)
+        ).copy();
+    }
+
+    private List<Object> zoneKey(final String zoneId) {
+        return Arrays.asList(
+                zoneId,
+                this.locales,
+                this.isEnabled(TimeZoneProviderToolFeature.GLOBAL_CALENDAR)
+        );
+    }
+
+    /**
+     * The total weight of all remembered zones, about enough for every zone in every locale once, 631 zones by 1017
+     * locales for JDK 17. Each unit is mostly a {@link Locale} in a set, estimated rather than measured at 50 bytes,
+     * so the zones retain no more than about 50MB.
+     */
+    final static int ZONES_CAPACITY = 1024 * 1024;
+
+    /**
+     * Harvested zones keyed by zone id, locales and whether calendars were harvested, shared by all processors in the
+     * JVM. Each zone holds a calendar and display for every selected locale, so zones are weighed by the calendars,
+     * displays and locales they hold rather than counted.
+     */
+    private final static TimeZoneProviderToolMemo<List<Object>, TimeZoneProviderToolZone> ZONES = TimeZoneProviderToolMemo.with(
+            ZONES_CAPACITY,
+            TimeZoneProviderToolZone::weight
+    );
+
+    /**
+     * The total weight of all remembered zones.
+     */
+    static long zonesWeight() {
+        return ZONES.weight();
+    }
+
+    /**
+     * Forgets all remembered zone ids, zones and the comments and data remembered by the processor, so the next
+     * generate harvests everything again.
+     */
+    static void clearMemo() {
+        ZONE_IDS.clear();
+        ZONES.clear();
+        TimeZoneProviderAnnotationProcessor.clearPayloads();
+    }
+
+    private TimeZoneProviderToolZone harvestZone(final String zoneId) {
+        final TimeZoneProviderToolReport report = this.report;
+        final TimeZone timeZone = TimeZone.getTimeZone(zoneId);
+        final Set<Locale> locales = this.locales;
+
+        long start = System.nanoTime();
+        final ZoneRules rules;
+        try {
+            rules = ZoneRules.of(timeZone.toZoneId());
+        } catch (final Exception cause) {
+            throw new IllegalStateException("Failed to get rules for " + CharSequences.quoteAndEscape(zoneId) + ": " + cause.getMessage(), cause);
+        }
+        report.time("harvest.rules", System.nanoTime() - start);
+
+        start = System.nanoTime();
+        final Map<TimeZoneCalendar, Set<Locale>> calendarToLocales = this.isEnabled(TimeZoneProviderToolFeature.GLOBAL_CALENDAR) ?
+                Collections.emptyMap() :
+                LocaleAwareAnnotationProcessorTool.buildMultiLocaleMap(
+                        this.calendars::calendar,
+                        locales
+                );
+        report.time("harvest.calendars", System.nanoTime() - start);
+
+        start = System.nanoTime();
+        final Map<TimeZoneDisplay, Set<Locale>> displayToLocales = LocaleAwareAnnotationProcessorTool.buildMultiLocaleMap(
+                this.timeZoneDisplay(zoneId),
+                locales
+        );
+        report.time("harvest.displays", System.nanoTime() - start);
+
+        return TimeZoneProviderToolZone.with(
+                zoneId,
+                timeZone,
+                rules,
+                calendarToLocales,
+                displayToLocales
+        );
+    }
+
+    // generate.........................................................................................................
+
+    private void generateZone(final List<TimeZoneProviderToolZone> record) throws Exception {
+        final long start = System.nanoTime();
+        final long chars = this.counter.count();
+
+        final IndentingPrinter comments = this.comments;
+        final TimeZoneProviderToolZone zone = record.get(0);
+
+        if (this.isEnabled(TimeZoneProviderToolFeature.ZONE_INDEX)) {
+            this.generateIndexedZone(record);
+        } else {
+            if (this.isEnabled(TimeZoneProviderToolFeature.ZONE_ALIASES)) {
+                this.generateTimeZoneIds(record);
+            } else {
+                this.generateTimeZoneId(zone.zoneId);
+            }
+            this.generateZoneRecord(zone);
+        }
+
+        if (this.isCommenting()) {
+            comments.lineStart();
+            comments.print(comments.lineEnding());
+        }
+
+        this.report.zoneChars(
+                record.stream()
+                        .map(z -> z.zoneId)
+                        .collect(Collectors.joining(", ")),
+                this.counter.count() - chars
+        );
+        this.endSection("zones", start, chars);
+    }
+
+    /**
+     * The zone ids are already in the zone index, only the remainder of the record is written.
+     */
+    private void generateIndexedZone(final List<TimeZoneProviderToolZone> record) throws Exception {
+        if (this.isCommenting()) {
+            final IndentingPrinter comments = this.comments;
+            comments.lineStart();
+            comments.print(record.stream()
+                    .map(z -> z.zoneId)
+                    .collect(Collectors.joining(", ")));
+        }
+
+        this.generateZoneRecord(record.get(0));
+    }
+
+    private void generateZoneRecord(final TimeZoneProviderToolZone zone) throws Exception {
+        final IndentingPrinter comments = this.comments;
+        final boolean commenting = this.isCommenting();
+
+        if (commenting) {
+            comments.indent();
+        }
         {
-            final TimeZone timeZone = TimeZone.getTimeZone(zoneId);
+            final TimeZone timeZone = zone.timeZone;
             this.generateRawOffset(timeZone);
 
-            this.generateTimeZoneOffset(timeZone);
+            final TimeZoneProviderToolReport report = this.report;
+
+            long start = System.nanoTime();
+            this.generateTimeZoneOffset(zone);
+            report.time("zones.rules", System.nanoTime() - start);
 
-            this.generateGregorianCalendarData(timeZone);
+            if (this.isEnabled(TimeZoneProviderToolFeature.YEAR_TABLE)) {
+                start = System.nanoTime();
+                this.generateYearTable(zone);
+                report.time("zones.yearTables", System.nanoTime() - start);
+            }
 
-            final Map<TimeZoneDisplay, Set<Locale>> displayToLocales = populateDisplayToLocales(zoneId);
+            if (false == this.isEnabled(TimeZoneProviderToolFeature.GLOBAL_CALENDAR)) {
+                start = System.nanoTime();
+                this.generateGregorianCalendarData(zone.calendarToLocales);
+                report.time("zones.calendars", System.nanoTime() - start);
+            }
 
-            final TimeZoneDisplay mostDisplay = LocaleAwareAnnotationProcessorTool.findMostPopularLocaleKey(displayToLocales);
+            start = System.nanoTime();
+            final Map<TimeZoneDisplay, Set<Locale>> displayToLocales = zone.displayToLocales;
 
-            this.generateCommentLocalesToDisplay(displayToLocales);
+            final TimeZoneDisplay mostDisplay = LocaleAwareAnnotationProcessorTool.findMostPopularLocaleKey(displayToLocales);
 
-            // the display with the most locales will be removed.
-            displayToLocales.remove(mostDisplay);
+            if (commenting) {
+                this.generateCommentLocalesToDisplay(displayToLocales);
+            }
 
+            final long chars = this.counter.count();
             generateDisplay(mostDisplay, "default ");
-            this.generateDisplayToLocales(displayToLocales);
+            this.endLocaleGroup(null, chars);
+
+            this.generateDisplayToLocales(this.withoutDefault(displayToLocales, mostDisplay));
+            report.time("zones.displays", System.nanoTime() - start);
         }
+        if (commenting) {
+            comments.outdent();
+        }
+    }
 
-        comments.outdent();
-        comments.lineStart();
-        comments.print(comments.lineEnding());
+    private void generateTimeZoneOffset(final TimeZoneProviderToolZone zone) throws Exception {
+        final TimeZoneProviderToolRulesPool rulesPool = this.rulesPool;
+        if (null != rulesPool) {
+            final int index = rulesPool.index(zone.zoneId);
+
+            if (this.isCommenting()) {
+                this.comments.lineStart();
+                this.comments.print("rules: " + index);
+            }
+            this.data.writeInt(index);
+        } else {
+            this.writeRules(zone.rules);
+        }
     }
 
-    private void generateTimeZoneOffset(final TimeZone timeZone) throws Exception {
-        ZoneRules.of(timeZone.toZoneId())
-                .writeExternal(this.data);
+    private void generateYearTable(final TimeZoneProviderToolZone zone) throws IOException {
+        final TimeZoneProviderToolYearTable yearTable = zone.yearTable(this.rulesWindow);
+
+        if (this.isCommenting()) {
+            this.comments.lineStart();
+            this.comments.print("year table: " + yearTable.size() + " years");
+        }
+        yearTable.write(this.data);
+    }
+
+    /**
+     * Writes the rules within the window, in the compact form when {@link TimeZoneProviderToolFeature#COMPACT_RULES} is
+     * enabled.
+     */
+    private void writeRules(final ZoneRules rules) throws IOException {
+        if (this.isEnabled(TimeZoneProviderToolFeature.COMPACT_RULES)) {
+            this.rulesWindow.writeCompact(rules, this.data);
+        } else {
+            this.rulesWindow.write(rules, this.data);
+        }
+    }
+
+    /**
+     * Returns the groups that must be written after the default, with {@link TimeZoneProviderToolFeature#LOCALE_FALLBACK}
+     * only locales that differ from their parents, otherwise every group except the default.
+     */
+    private <T> Map<T, Set<Locale>> withoutDefault(final Map<T, Set<Locale>> valueToLocales,
+                                                   final T defaultValue) {
+        final Map<T, Set<Locale>> others;
+
+        if (this.isEnabled(TimeZoneProviderToolFeature.LOCALE_FALLBACK)) {
+            others = TimeZoneProviderToolLocaleFallback.prune(valueToLocales, defaultValue);
+        } else {
+            valueToLocales.remove(defaultValue);
+            others = valueToLocales;
+        }
+
+        return others;
     }
 
     private void generateDisplayToLocales(final Map<TimeZoneDisplay, Set<Locale>> displayToLocales) throws IOException {
         final DataOutput data = this.data;
         final IndentingPrinter comments = this.comments;
+        final boolean commenting = this.isCommenting();
 
         // write all other display and locales
         data.writeInt(displayToLocales.size());
         for (final Entry<TimeZoneDisplay, Set<Locale>> displayAndLocales : displayToLocales.entrySet()) {
-            LocaleSupport.generateLocales(displayAndLocales.getValue(),
-                    data,
-                    comments);
-            comments.indent();
+            final long chars = this.counter.count();
+            final Set<Locale> locales = displayAndLocales.getValue();
+
+            this.generateLocales(locales);
+            if (commenting) {
+                comments.indent();
+            }
             {
                 generateDisplay(displayAndLocales.getKey(), "");
             }
-            comments.outdent();
+            if (commenting) {
+                comments.outdent();
+            }
+
+            this.endLocaleGroup(locales, chars);
         }
     }
 
     private void generateDisplay(final TimeZoneDisplay display, final String prefix) throws IOException {
-        final IndentingPrinter comments = this.comments;
+        if (this.isCommenting()) {
+            final IndentingPrinter comments = this.comments;
 
-        comments.lineStart();
-        comments.print(prefix + "shortDisplayName: " + display.shortDisplayName);
+            comments.lineStart();
+            comments.print(prefix + "shortDisplayName: " + display.shortDisplayName);
 
-        comments.lineStart();
-        comments.print(prefix + "shortDisplayNameDaylight: " + display.shortDisplayNameDaylight);
+            comments.lineStart();
+            comments.print(prefix + "shortDisplayNameDaylight: " + display.shortDisplayNameDaylight);
 
-        comments.lineStart();
-        comments.print(prefix + "longDisplayName: " + display.longDisplayName);
+            comments.lineStart();
+            comments.print(prefix + "longDisplayName: " + display.longDisplayName);
 
-        comments.lineStart();
-        comments.print(prefix + "longDisplayNameDaylight " + display.longDisplayNameDaylight);
+            comments.lineStart();
+            comments.print(prefix + "longDisplayNameDaylight " + display.longDisplayNameDaylight);
+        }
+
+        final TimeZoneProviderToolStringTable strings = this.strings;
+        if (null != strings) {
+            strings.write(display, this.data);
+        } else {
+            display.write(this.data);
+        }
+    }
+
+    private void generateTimeZoneIds(final List<TimeZoneProviderToolZone> record) throws IOException {
+        final DataOutput data = this.data;
+
+        if (this.isCommenting()) {
+            final IndentingPrinter comments = this.comments;
+            comments.lineStart();
+            comments.print(record.stream()
+                    .map(z -> z.zoneId)
+                    .collect(Collectors.joining(", ")));
+        }
 
-        display.write(this.data);
+        data.writeInt(record.size());
+        for (final TimeZoneProviderToolZone zone : record) {
+            data.writeUTF(zone.zoneId);
+        }
     }
 
     private void generateTimeZoneId(final String zoneId) throws IOException {
-        this.comments.lineStart();
-        this.comments.print(zoneId);
+        if (this.isCommenting()) {
+            this.comments.lineStart();
+            this.comments.print(zoneId);
+        }
         this.data.writeUTF(zoneId);
     }
 
     private void generateRawOffset(final TimeZone timeZone) throws IOException {
         final int rawOffset = timeZone.getRawOffset();
-        this.comments.lineStart();
-        this.comments.print("rawOffset: " + rawOffset);
+        if (this.isCommenting()) {
+            this.comments.lineStart();
+            this.comments.print("rawOffset: " + rawOffset);
+        }
         this.data.writeInt(rawOffset);
     }
 
@@ -271,38 +1207,49 @@ public final class TimeZoneProviderTool {
      *   int minimaldaysinfirstweek
      * </pre>
      **/
-    private void generateGregorianCalendarData(final TimeZone timeZone) throws IOException {
-        final Map<TimeZoneCalendar, Set<Locale>> calendarToLocales = LocaleAwareAnnotationProcessorTool.buildMultiLocaleMap(
-                localeToTimeZoneProviderToolGregorianCalender(timeZone),
-                this.locales);
-
+    private void generateGregorianCalendarData(final Map<TimeZoneCalendar, Set<Locale>> calendarToLocales) throws IOException {
         final DataOutput data = this.data;
         final IndentingPrinter comments = this.comments;
+        final boolean commenting = this.isCommenting();
 
         // find most popular and write that as a default.
         final TimeZoneCalendar most = LocaleAwareAnnotationProcessorTool.findMostPopularLocaleKey(calendarToLocales);
-        most.generate(data, "default ", comments);
-
-        calendarToLocales.remove(most);
+        final long chars = this.counter.count();
+        this.generateCalendar(most, "default ");
+        this.endLocaleGroup(null, chars);
 
         // other
-        data.writeInt(calendarToLocales.size());
-        for (final Entry<TimeZoneCalendar, Set<Locale>> calendarAndLocales : calendarToLocales.entrySet()) {
-            LocaleSupport.generateLocales(calendarAndLocales.getValue(),
-                    data,
-                    comments);
+        final Map<TimeZoneCalendar, Set<Locale>> others = this.withoutDefault(calendarToLocales, most);
+        data.writeInt(others.size());
+        for (final Entry<TimeZoneCalendar, Set<Locale>> calendarAndLocales : others.entrySet()) {
+            final long groupChars = this.counter.count();
+            final Set<Locale> locales = calendarAndLocales.getValue();
 
-            comments.indent();
+            this.generateLocales(locales);
+
+            if (commenting) {
+                comments.indent();
+            }
             {
-                calendarAndLocales.getKey()
-                        .generate(data, "", comments);
+                this.generateCalendar(calendarAndLocales.getKey(), "");
             }
-            comments.outdent();
+            if (commenting) {
+                comments.outdent();
+            }
+
+            this.endLocaleGroup(locales, groupChars);
         }
     }
 
-    private static Function<Locale, TimeZoneCalendar> localeToTimeZoneProviderToolGregorianCalender(final TimeZone timeZone) {
-        return locale -> TimeZoneCalendar.with(GregorianCalendar.getInstance(timeZone, locale));
+    private void generateCalendar(final TimeZoneCalendar calendar,
+                                  final String prefix) throws IOException {
+        if (this.isCommenting()) {
+            calendar.generate(this.data, prefix, this.comments);
+        } else {
+            // TimeZoneCalendar always builds its comment, the same firstDayOfWeek and minimalDaysInFirstWeek are
+            // written directly
+            this.calendars.write(calendar, this.data);
+        }
     }
 
     private void generateCommentLocalesToDisplay(final Map<TimeZoneDisplay, Set<Locale>> displayToLocales) {
@@ -324,23 +1271,29 @@ public final class TimeZoneProviderTool {
         });
     }
 
-    private Map<TimeZoneDisplay, Set<Locale>> populateDisplayToLocales(final String zoneId) {
-        return LocaleAwareAnnotationProcessorTool.buildMultiLocaleMap(this.timeZoneDisplay(zoneId),
-                this.locales);
-    }
-
     private Function<Locale, TimeZoneDisplay> timeZoneDisplay(final String zoneId) {
-        return locale -> {
-            final TimeZone timeZone = TimeZone.getTimeZone(zoneId);
-            return TimeZoneDisplay.with(timeZone.getDisplayName(false, TimeZone.SHORT, locale),
-                    timeZone.getDisplayName(true, TimeZone.SHORT, locale),
-                    timeZone.getDisplayName(false, TimeZone.LONG, locale),
-                    timeZone.getDisplayName(true, TimeZone.LONG, locale));
-        };
+        final TimeZoneProviderToolDisplayNames displayNames = this.displayNames;
+        return locale -> displayNames.display(zoneId, locale);
     }
 
     private final Set<Locale> locales;
     private final Set<String> timezoneIds;
-    private final DataOutput data;
+    private final Set<TimeZoneProviderToolFeature> features;
+    private final TimeZoneProviderToolRulesWindow rulesWindow;
+    private final boolean parallel;
+    /**
+     * Temporarily replaced while {@link TimeZoneProviderToolFeature#ZONE_INDEX} records are recorded.
+     */
+    private DataOutput data;
     private final IndentingPrinter comments;
+
+    /**
+     * Resolves each locale's zone names once, shared by all zones.
+     */
+    private final TimeZoneProviderToolDisplayNames displayNames;
+
+    /**
+     * Creates each locale's calendar once, shared by all zones.
+     */
+    private final TimeZoneProviderToolCalendars calendars;
 }
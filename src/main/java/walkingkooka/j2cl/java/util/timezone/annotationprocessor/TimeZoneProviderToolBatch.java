@@ -0,0 +1,201 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
+import walkingkooka.text.CharSequences;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * A configuration read from a batch manifest, generating many configurations in one JVM shares the harvested display
+ * names, calendars and zones between them, and pays the locale provider warm up once.
+ * <br>
+ * Each line of the manifest holds a name, locale filter, timezone filter and an optional csv of features separated by
+ * tabs, blank lines and comments starting with # are ignored. The columns below are separated by tabs.
+ * <pre>
+ * # name    locales    timezones    features
+ * au    EN-AU    Australia*
+ * en    EN*    *    ZONE_INDEX,COMPACT_RULES
+ * </pre>
+ * The data of each configuration is written to a file named after the configuration with a <code>.txt</code> extension,
+ * and its report including the data characters and gzipped bytes with a <code>.json</code> extension.
+ */
+final class TimeZoneProviderToolBatch {
+
+    /**
+     * Expects the manifest file and the output directory, printing a line with the sizes of each configuration.
+     */
+    public static void main(final String[] args) throws Exception {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Expected manifest and output directory but got " + args.length + " arguments");
+        }
+
+        final List<TimeZoneProviderToolBatch> batch;
+        try (final Reader reader = Files.newBufferedReader(Paths.get(args[0]), StandardCharsets.UTF_8)) {
+            batch = read(reader);
+        }
+
+        final Path directory = Paths.get(args[1]);
+        Files.createDirectories(directory);
+
+        final TimeZoneProviderToolDisplayNames displayNames = TimeZoneProviderToolDisplayNames.create();
+        final TimeZoneProviderToolCalendars calendars = TimeZoneProviderToolCalendars.create();
+
+        for (final TimeZoneProviderToolBatch configuration : batch) {
+            System.out.println(
+                    configuration.generate(
+                            directory,
+                            displayNames,
+                            calendars
+                    )
+            );
+        }
+    }
+
+    /**
+     * Reads every configuration of a manifest, names must be unique and usable as file names.
+     */
+    static List<TimeZoneProviderToolBatch> read(final Reader reader) throws IOException {
+        final List<TimeZoneProviderToolBatch> batch = Lists.array();
+
+        final BufferedReader lines = new BufferedReader(reader);
+        int lineNumber = 0;
+        for (; ; ) {
+            final String line = lines.readLine();
+            if (null == line) {
+                break;
+            }
+            lineNumber++;
+
+            if (line.trim().isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            final String[] columns = line.split("\t");
+            if (columns.length < 3 || columns.length > 4) {
+                throw new IllegalArgumentException("Invalid line " + lineNumber + " expected name, locales, timezones and optional features got " + line);
+            }
+
+            final String name = columns[0];
+            if (false == NAME.matcher(name).matches()) {
+                throw new IllegalArgumentException("Invalid name " + CharSequences.quoteAndEscape(name) + " in line " + lineNumber);
+            }
+            for (final TimeZoneProviderToolBatch previous : batch) {
+                if (previous.name.equals(name)) {
+                    throw new IllegalArgumentException("Duplicate name " + CharSequences.quoteAndEscape(name) + " in line " + lineNumber);
+                }
+            }
+
+            batch.add(
+                    new TimeZoneProviderToolBatch(
+                            name,
+                            columns[1],
+                            columns[2],
+                            TimeZoneProviderToolFeature.parse(columns.length > 3 ? columns[3] : "")
+                    )
+            );
+        }
+
+        return Collections.unmodifiableList(batch);
+    }
+
+    /**
+     * Names become file names, so only letters, digits, dash, dot and underscore are allowed.
+     */
+    private final static Pattern NAME = Pattern.compile("[A-Za-z0-9_][A-Za-z0-9_.-]*");
+
+    private TimeZoneProviderToolBatch(final String name,
+                                      final String localeFilter,
+                                      final String timezoneFilter,
+                                      final Set<TimeZoneProviderToolFeature> features) {
+        super();
+        this.name = name;
+        this.localeFilter = localeFilter;
+        this.timezoneFilter = timezoneFilter;
+        this.features = features;
+    }
+
+    /**
+     * Generates this configuration writing the data and report to the directory, returning a one line summary.
+     */
+    String generate(final Path directory,
+                    final TimeZoneProviderToolDisplayNames displayNames,
+                    final TimeZoneProviderToolCalendars calendars) throws Exception {
+        final long start = System.nanoTime();
+        final TimeZoneProviderToolReport report = TimeZoneProviderToolReport.empty();
+        final TimeZoneProviderToolPayloadSize size = TimeZoneProviderToolPayloadSize.empty();
+
+        final StringBuilder data = new StringBuilder();
+
+        TimeZoneProviderTool.generate(
+                WalkingkookaLanguageTag.locales(this.localeFilter),
+                TimeZoneProviderTool.timezoneIds(this.timezoneFilter),
+                this.features,
+                TimeZoneProviderToolRulesWindow.ALL,
+                true,
+                TimeZoneProviderToolTeeDataOutput.with(
+                        StringDataInputDataOutput.output(data::append),
+                        StringDataInputDataOutput.output(size::append)
+                ),
+                TimeZoneProviderTool.NO_COMMENTS,
+                report,
+                displayNames,
+                calendars
+        );
+
+        final long chars = size.chars();
+        final long gzipBytes = size.gzipBytes();
+        report.payloadChars("data", chars);
+        report.property("dataGzipBytes", gzipBytes);
+        report.time("total", System.nanoTime() - start);
+
+        Files.write(
+                directory.resolve(this.name + ".txt"),
+                data.toString().getBytes(StandardCharsets.UTF_8)
+        );
+        Files.write(
+                directory.resolve(this.name + ".json"),
+                report.toJson().getBytes(StandardCharsets.UTF_8)
+        );
+
+        return this.name + ": " + chars + " chars, " + gzipBytes + " gzip bytes, " + (System.nanoTime() - start) / 1000_000 + "ms";
+    }
+
+    final String name;
+    final String localeFilter;
+    final String timezoneFilter;
+    final Set<TimeZoneProviderToolFeature> features;
+
+    @Override
+    public String toString() {
+        return this.name + " " + this.localeFilter + " " + this.timezoneFilter + " " + this.features;
+    }
+}
@@ -0,0 +1,286 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.j2cl.java.util.locale.support.LocaleSupport;
+import walkingkooka.j2cl.java.util.timezone.zonerulesreader.org.threeten.bp.zone.ZoneRules;
+import walkingkooka.j2cl.locale.TimeZoneDisplay;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.CodeSource;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.zone.ZoneRulesProvider;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A directory of previously generated comments and data, each file is named after a hash of everything that could
+ * change the generated output, the JDK, tzdb and locale providers, the tzdb of {@link TimeZoneProviderToolCountries},
+ * the selected locales and zones, features, rules window, default zone, the line ending of the comments and the
+ * {@link #processorVersion()}.
+ */
+final class TimeZoneProviderToolCache {
+
+    /**
+     * A hash of the jars or class directories of this processor and the libraries that write the data, so any
+     * change to the code that generates the data or comments is a different key. Computed once when first needed, only
+     * when a cache is used.
+     */
+    static synchronized String processorVersion() {
+        if (null == processorVersion) {
+            processorVersion = processorVersion(
+                    TimeZoneProviderToolCache.class,
+                    LocaleSupport.class,
+                    StringDataInputDataOutput.class,
+                    TimeZoneDisplay.class,
+                    ZoneRules.class
+            );
+        }
+        return processorVersion;
+    }
+
+    private static String processorVersion;
+
+    /**
+     * Hashes the path, size and last modified time of the jar or every file in the class directory of each class,
+     * rather than their contents, a rebuilt jar or class always has a new last modified time. When the location is
+     * unknown only the class file itself is hashed. When the code cannot be read the version is random, so nothing
+     * cached by another JVM is ever reused.
+     */
+    static String processorVersion(final Class<?>... classes) {
+        final MessageDigest digest = sha256();
+
+        try {
+            for (final Class<?> type : classes) {
+                final CodeSource source = type.getProtectionDomain().getCodeSource();
+                final URL location = null != source ?
+                        source.getLocation() :
+                        null;
+                final Path path = null != location && "file".equals(location.getProtocol()) ?
+                        Paths.get(location.toURI()) :
+                        null;
+
+                if (null == path) {
+                    // the location is unknown, only the class itself may be hashed
+                    try (final InputStream classFile = type.getResourceAsStream(type.getSimpleName() + ".class")) {
+                        if (null == classFile) {
+                            throw new IOException("Unable to find class file for " + type.getName());
+                        }
+                        digest.update(classFile.readAllBytes());
+                    }
+                } else if (Files.isDirectory(path)) {
+                    try (final Stream<Path> files = Files.walk(path)) {
+                        for (final Path file : files.filter(Files::isRegularFile)
+                                .sorted()
+                                .collect(Collectors.toList())) {
+                            updateFile(
+                                    digest,
+                                    path.relativize(file).toString(),
+                                    file
+                            );
+                        }
+                    }
+                } else {
+                    updateFile(
+                            digest,
+                            path.toString(),
+                            path
+                    );
+                }
+            }
+        } catch (final Exception unreadable) {
+            return "unknown-" + UUID.randomUUID();
+        }
+
+        return hex(digest.digest());
+    }
+
+    private static void updateFile(final MessageDigest digest,
+                                   final String name,
+                                   final Path file) throws IOException {
+        digest.update(
+                (name + " " + Files.size(file) + " " + Files.getLastModifiedTime(file).toMillis() + "\n")
+                        .getBytes(StandardCharsets.UTF_8)
+        );
+    }
+
+    static TimeZoneProviderToolCache with(final Path directory) {
+        return new TimeZoneProviderToolCache(directory);
+    }
+
+    private TimeZoneProviderToolCache(final Path directory) {
+        super();
+        this.directory = directory;
+    }
+
+    /**
+     * Computes the key for the given inputs, a hex sha-256 hash.
+     */
+    static String key(final Set<Locale> locales,
+                      final Set<String> zoneIds,
+                      final Set<TimeZoneProviderToolFeature> features,
+                      final TimeZoneProviderToolRulesWindow rulesWindow,
+                      final String defaultTimeZone,
+                      final String lineEnding) {
+        final String text = String.join(
+                "\n",
+                "processor=" + processorVersion(),
+                "java=" + System.getProperty("java.vendor") + " " + System.getProperty("java.version"),
+                "localeProviders=" + System.getProperty("java.locale.providers"),
+                "tzdb=" + ZoneRulesProvider.getVersions("UTC").keySet(),
+                "countries=" + TimeZoneProviderToolCountries.TZDB_VERSION,
+                "locales=" + locales.stream()
+                        .map(Locale::toLanguageTag)
+                        .sorted()
+                        .collect(Collectors.joining(",")),
+                "zoneIds=" + zoneIds.stream()
+                        .sorted()
+                        .collect(Collectors.joining(",")),
+                "features=" + TimeZoneProviderToolFeature.bits(features),
+                "rulesWindow=" + rulesWindow,
+                "default=" + defaultTimeZone,
+                "lineEnding=" + lineEnding.replace("\r", "CR").replace("\n", "NL")
+        );
+
+        return hex(
+                sha256()
+                        .digest(text.getBytes(StandardCharsets.UTF_8))
+        );
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException cause) {
+            throw new IllegalStateException(cause.getMessage(), cause);
+        }
+    }
+
+    private static String hex(final byte[] bytes) {
+        final StringBuilder hex = new StringBuilder();
+        for (final byte b : bytes) {
+            hex.append(Integer.toHexString(0x100 | (b & 0xff)).substring(1));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * Returns the cached comments and data for the key, or calls the generator, saves and returns its comments and data.
+     */
+    List<String> computeIfAbsent(final String key,
+                                 final Callable<List<String>> generator) throws Exception {
+        final Optional<List<String>> cached = this.load(key);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        final List<String> commentsAndData = generator.call();
+        this.save(key, commentsAndData);
+        return commentsAndData;
+    }
+
+    /**
+     * Loads the comments and data, a missing, truncated or corrupt file is a miss.
+     */
+    Optional<List<String>> load(final String key) {
+        List<String> commentsAndData;
+        try (final DataInputStream input = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(this.file(key))))) {
+            commentsAndData = Lists.of(
+                    readString(input),
+                    readString(input)
+            );
+            if (input.available() > 0) {
+                throw new IOException("Unexpected trailing bytes");
+            }
+        } catch (final IOException | RuntimeException missingOrUnreadable) {
+            commentsAndData = null;
+        }
+        return Optional.ofNullable(commentsAndData);
+    }
+
+    /**
+     * Reads a length prefixed string, the length is checked against the remaining bytes before any array is
+     * allocated.
+     */
+    private static String readString(final DataInputStream input) throws IOException {
+        final int length = input.readInt();
+        if (length < 0 || length > input.available()) {
+            throw new IOException("Invalid length " + length);
+        }
+        final byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Saves the comments and data, writing a temporary file first so concurrent builds never read a partial file.
+     */
+    void save(final String key,
+              final List<String> commentsAndData) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final DataOutputStream output = new DataOutputStream(bytes)) {
+            for (final String text : commentsAndData) {
+                final byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+                output.writeInt(utf8.length);
+                output.write(utf8);
+            }
+        }
+
+        final Path directory = this.directory;
+        Files.createDirectories(directory);
+
+        final Path temp = Files.createTempFile(directory, key, ".tmp");
+        try {
+            Files.write(temp, bytes.toByteArray());
+            Files.move(temp, this.file(key), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private Path file(final String key) {
+        return this.directory.resolve(key + ".cache");
+    }
+
+    private final Path directory;
+
+    @Override
+    public String toString() {
+        return this.directory.toString();
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import walkingkooka.j2cl.locale.TimeZoneCalendar;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Provides the {@link TimeZoneCalendar} for a locale, creating each once. The firstDayOfWeek and
+ * minimalDaysInFirstWeek only depend on the locale, so the same calendar is returned for every zone. This class is
+ * thread safe and may be shared by parallel harvests and several generates.
+ */
+final class TimeZoneProviderToolCalendars {
+
+    static TimeZoneProviderToolCalendars create() {
+        return new TimeZoneProviderToolCalendars();
+    }
+
+    private TimeZoneProviderToolCalendars() {
+        super();
+    }
+
+    TimeZoneCalendar calendar(final Locale locale) {
+        return this.localeToCalendar.computeIfAbsent(
+                locale,
+                l -> {
+                    final Calendar calendar = GregorianCalendar.getInstance(UTC, l);
+                    final TimeZoneCalendar timeZoneCalendar = TimeZoneCalendar.with(calendar);
+
+                    this.calendarToDays.putIfAbsent(
+                            timeZoneCalendar,
+                            new int[]{
+                                    calendar.getFirstDayOfWeek(),
+                                    calendar.getMinimalDaysInFirstWeek()
+                            }
+                    );
+                    return timeZoneCalendar;
+                }
+        );
+    }
+
+    /**
+     * Writes the firstDayOfWeek and minimalDaysInFirstWeek of a calendar returned by {@link #calendar(Locale)}, the same
+     * data as {@link TimeZoneCalendar#generate} without building its comment.
+     */
+    void write(final TimeZoneCalendar calendar,
+               final DataOutput data) throws IOException {
+        final int[] days = this.calendarToDays.get(calendar);
+        if (null == days) {
+            throw new IllegalArgumentException("Unknown calendar " + calendar);
+        }
+
+        data.writeInt(days[0]);
+        data.writeInt(days[1]);
+    }
+
+    private final static TimeZone UTC = TimeZone.getTimeZone("UTC");
+
+    private final Map<Locale, TimeZoneCalendar> localeToCalendar = new ConcurrentHashMap<>();
+
+    /**
+     * The firstDayOfWeek and minimalDaysInFirstWeek of each calendar.
+     */
+    private final Map<TimeZoneCalendar, int[]> calendarToDays = new ConcurrentHashMap<>();
+
+    @Override
+    public String toString() {
+        return this.localeToCalendar.keySet().toString();
+    }
+}
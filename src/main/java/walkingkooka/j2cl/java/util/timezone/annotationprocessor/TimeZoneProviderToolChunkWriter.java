@@ -0,0 +1,201 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+
+/**
+ * Writes the java source of a class holding a very large {@link String} as several string literals that are joined
+ * at runtime. Each literal holds at most {@link #MAX_CHUNK_BYTES} bytes in the class file constant pool, avoiding the
+ * 65535 byte limit on a single string constant. Text is escaped and written chunk by chunk as it is appended, so only
+ * a single chunk is ever held in memory.
+ */
+final class TimeZoneProviderToolChunkWriter implements Closeable {
+
+    /**
+     * The maximum number of modified UTF-8 bytes of a string constant in a class file.
+     */
+    final static int MAX_CHUNK_BYTES = 65535;
+
+    /**
+     * The generated class that holds the chunked data for {@code TimeZoneProvider}.
+     */
+    final static String CLASS_NAME = "TimeZoneProviderData";
+
+    final static String PACKAGE = "walkingkooka.j2cl.java.util.timezone.generated";
+
+    static TimeZoneProviderToolChunkWriter with(final Writer writer,
+                                                final String className,
+                                                final int maxChunkBytes) throws IOException {
+        if (maxChunkBytes < 6 || maxChunkBytes > MAX_CHUNK_BYTES) {
+            throw new IllegalArgumentException("Invalid maxChunkBytes " + maxChunkBytes + " not between 6 and " + MAX_CHUNK_BYTES);
+        }
+        return new TimeZoneProviderToolChunkWriter(writer, className, maxChunkBytes);
+    }
+
+    private TimeZoneProviderToolChunkWriter(final Writer writer,
+                                            final String className,
+                                            final int maxChunkBytes) throws IOException {
+        super();
+        this.writer = writer;
+        this.maxChunkBytes = maxChunkBytes;
+
+        writer.write("package " + PACKAGE + ";\n" +
+                "\n" +
+                "// generated by " + TimeZoneProviderAnnotationProcessor.class.getName() + "\n" +
+                "public final class " + className + " {\n" +
+                "\n" +
+                "  public final static String DATA = join(");
+    }
+
+    /**
+     * Appends the text, writing a string literal each time a chunk is full. This is intended to be used as the
+     * {@link java.util.function.Consumer} of {@link walkingkooka.j2cl.java.io.string.StringDataInputDataOutput#output}.
+     */
+    void append(final CharSequence text) {
+        try {
+            final int length = text.length();
+            for (int i = 0; i < length; i++) {
+                this.append(text.charAt(i));
+            }
+        } catch (final IOException cause) {
+            throw new UncheckedIOException(cause);
+        }
+    }
+
+    private void append(final char c) throws IOException {
+        final int bytes = 0 != c && c < 0x80 ?
+                1 :
+                c < 0x800 ?
+                        2 :
+                        3;
+
+        // never split a surrogate pair across chunks, reserve room for the low surrogate.
+        final int required = Character.isHighSurrogate(c) ?
+                bytes + 3 :
+                bytes;
+
+        if (this.chunkBytes + required > this.maxChunkBytes) {
+            this.flushChunk();
+        }
+
+        escape(c, this.chunk);
+        this.chunkBytes += bytes;
+    }
+
+    /**
+     * Escapes the character so the generated source is always ASCII. Control characters use octal escapes because
+     * unicode escapes are translated before the source is parsed, and a line terminator would end the literal.
+     */
+    static void escape(final char c,
+                       final StringBuilder escaped) {
+        switch (c) {
+            case '"':
+                escaped.append("\\\"");
+                break;
+            case '\\':
+                escaped.append("\\\\");
+                break;
+            case '\b':
+                escaped.append("\\b");
+                break;
+            case '\f':
+                escaped.append("\\f");
+                break;
+            case '\n':
+                escaped.append("\\n");
+                break;
+            case '\r':
+                escaped.append("\\r");
+                break;
+            case '\t':
+                escaped.append("\\t");
+                break;
+            default:
+                if (c < ' ' || c == 0x7f) {
+                    escaped.append('\\')
+                            .append(Integer.toOctalString(0x200 | c).substring(1));
+                } else if (c > 0x7f) {
+                    escaped.append("\\u")
+                            .append(Integer.toHexString(0x10000 | c).substring(1));
+                } else {
+                    escaped.append(c);
+                }
+                break;
+        }
+    }
+
+    private void flushChunk() throws IOException {
+        final Writer writer = this.writer;
+
+        if (this.chunks > 0) {
+            writer.write(",");
+        }
+        writer.write("\n    \"");
+        writer.write(this.chunk.toString());
+        writer.write("\"");
+
+        this.chunk.setLength(0);
+        this.chunkBytes = 0;
+        this.chunks++;
+    }
+
+    /**
+     * The number of literals written so far.
+     */
+    int chunks() {
+        return this.chunks;
+    }
+
+    /**
+     * Writes the last chunk, the rest of the class and closes the {@link Writer}.
+     */
+    @Override
+    public void close() throws IOException {
+        if (this.chunkBytes > 0) {
+            this.flushChunk();
+        }
+
+        final Writer writer = this.writer;
+        writer.write(");\n" +
+                "\n" +
+                "  private static String join(final String... chunks) {\n" +
+                "    final StringBuilder joined = new StringBuilder();\n" +
+                "    for (final String chunk : chunks) {\n" +
+                "      joined.append(chunk);\n" +
+                "    }\n" +
+                "    return joined.toString();\n" +
+                "  }\n" +
+                "}\n");
+        writer.close();
+    }
+
+    private final Writer writer;
+    private final int maxChunkBytes;
+    private final StringBuilder chunk = new StringBuilder();
+    private int chunkBytes;
+    private int chunks;
+
+    @Override
+    public String toString() {
+        return this.chunks + " chunks";
+    }
+}
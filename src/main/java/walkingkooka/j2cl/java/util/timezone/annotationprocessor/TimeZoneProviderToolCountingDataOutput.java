@@ -0,0 +1,159 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A {@link DataOutput} that forwards every write and counts the characters of text {@link StringDataInputDataOutput}
+ * emits for the same writes, which is the text of the generated DATA, giving the size of each section and zone as
+ * shipped.
+ */
+final class TimeZoneProviderToolCountingDataOutput implements DataOutput {
+
+    static TimeZoneProviderToolCountingDataOutput with(final DataOutput output) {
+        return new TimeZoneProviderToolCountingDataOutput(output);
+    }
+
+    /**
+     * Counts the characters of data that will be appended to earlier data, any separator between the earlier data and
+     * the first value is counted as it is when the data is appended.
+     */
+    static TimeZoneProviderToolCountingDataOutput following(final DataOutput output) throws IOException {
+        final TimeZoneProviderToolCountingDataOutput counter = new TimeZoneProviderToolCountingDataOutput(output);
+        counter.text.writeInt(0);
+        counter.count = 0;
+        return counter;
+    }
+
+    private TimeZoneProviderToolCountingDataOutput(final DataOutput output) {
+        super();
+        this.output = output;
+        this.text = StringDataInputDataOutput.output(text -> this.count += text.length());
+    }
+
+    /**
+     * The total number of characters emitted so far.
+     */
+    long count() {
+        return this.count;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        this.output.write(b);
+        this.text.write(b);
+    }
+
+    @Override
+    public void write(final byte[] b) throws IOException {
+        this.output.write(b);
+        this.text.write(b);
+    }
+
+    @Override
+    public void write(final byte[] b,
+                      final int off,
+                      final int len) throws IOException {
+        this.output.write(b, off, len);
+        this.text.write(b, off, len);
+    }
+
+    @Override
+    public void writeBoolean(final boolean v) throws IOException {
+        this.output.writeBoolean(v);
+        this.text.writeBoolean(v);
+    }
+
+    @Override
+    public void writeByte(final int v) throws IOException {
+        this.output.writeByte(v);
+        this.text.writeByte(v);
+    }
+
+    @Override
+    public void writeShort(final int v) throws IOException {
+        this.output.writeShort(v);
+        this.text.writeShort(v);
+    }
+
+    @Override
+    public void writeChar(final int v) throws IOException {
+        this.output.writeChar(v);
+        this.text.writeChar(v);
+    }
+
+    @Override
+    public void writeInt(final int v) throws IOException {
+        this.output.writeInt(v);
+        this.text.writeInt(v);
+    }
+
+    @Override
+    public void writeLong(final long v) throws IOException {
+        this.output.writeLong(v);
+        this.text.writeLong(v);
+    }
+
+    @Override
+    public void writeFloat(final float v) throws IOException {
+        this.output.writeFloat(v);
+        this.text.writeFloat(v);
+    }
+
+    @Override
+    public void writeDouble(final double v) throws IOException {
+        this.output.writeDouble(v);
+        this.text.writeDouble(v);
+    }
+
+    @Override
+    public void writeBytes(final String s) throws IOException {
+        this.output.writeBytes(s);
+        this.text.writeBytes(s);
+    }
+
+    @Override
+    public void writeChars(final String s) throws IOException {
+        this.output.writeChars(s);
+        this.text.writeChars(s);
+    }
+
+    @Override
+    public void writeUTF(final String s) throws IOException {
+        this.output.writeUTF(s);
+        this.text.writeUTF(s);
+    }
+
+    private final DataOutput output;
+
+    /**
+     * Encodes every write as text only to count its characters.
+     */
+    private final DataOutput text;
+
+    private long count;
+
+    @Override
+    public String toString() {
+        return this.count + " " + this.output;
+    }
+}
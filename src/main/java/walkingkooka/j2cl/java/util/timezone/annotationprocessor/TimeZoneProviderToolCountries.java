@@ -0,0 +1,126 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.collect.set.SortedSets;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Selects the zone ids used by the countries of locales, using the country and zone id columns of the tzdb
+ * zone.tab in {@link #FILE_NAME}. Locales without a country select no zones.
+ */
+final class TimeZoneProviderToolCountries {
+
+    /**
+     * Resource next to this class with a country code and zone id separated by a tab on each line.
+     */
+    final static String FILE_NAME = "TimeZoneProviderToolCountries.txt";
+
+    /**
+     * The tzdb version of the zone.tab copied to {@link #FILE_NAME}, update both together.
+     */
+    final static String TZDB_VERSION = "2025b";
+
+    /**
+     * Returns the sorted zone ids of the countries of the given locales, only zone ids known to the JDK are returned.
+     */
+    static Set<String> zoneIds(final Set<Locale> locales) {
+        final Set<String> zoneIds = SortedSets.tree();
+
+        for (final Locale locale : locales) {
+            zoneIds.addAll(
+                    COUNTRY_TO_ZONEIDS.getOrDefault(
+                            locale.getCountry(),
+                            Sets.empty()
+                    )
+            );
+        }
+
+        zoneIds.retainAll(TimeZoneProviderTool.timezoneIds("*"));
+        return zoneIds;
+    }
+
+    /**
+     * Reads lines with a country code and zone id separated by a tab, ignoring blank lines and comments starting with #.
+     */
+    static Map<String, Set<String>> read(final Reader reader) throws IOException {
+        final Map<String, Set<String>> countryToZoneIds = Maps.sorted();
+
+        final BufferedReader lines = new BufferedReader(reader);
+        int lineNumber = 0;
+        for (; ; ) {
+            final String line = lines.readLine();
+            if (null == line) {
+                break;
+            }
+            lineNumber++;
+
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+
+            final String[] columns = line.split("\t");
+            if (columns.length != 2) {
+                throw new IllegalArgumentException("Invalid line " + lineNumber + " expected country and zone id got " + line);
+            }
+            countryToZoneIds.computeIfAbsent(columns[0], c -> SortedSets.tree())
+                    .add(columns[1]);
+        }
+
+        return Collections.unmodifiableMap(countryToZoneIds);
+    }
+
+    private static Map<String, Set<String>> read() {
+        try (final InputStream input = TimeZoneProviderToolCountries.class.getResourceAsStream(FILE_NAME)) {
+            if (null == input) {
+                throw new IllegalStateException("Missing resource " + FILE_NAME);
+            }
+            return read(new InputStreamReader(input, StandardCharsets.UTF_8));
+        } catch (final IOException cause) {
+            throw new IllegalStateException("Unable to read " + FILE_NAME + ": " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * All countries and their zone ids, including zone ids unknown to the JDK.
+     */
+    static Map<String, Set<String>> countryToZoneIds() {
+        return COUNTRY_TO_ZONEIDS;
+    }
+
+    private final static Map<String, Set<String>> COUNTRY_TO_ZONEIDS = read();
+
+    /**
+     * Stop creation
+     */
+    private TimeZoneProviderToolCountries() {
+        throw new UnsupportedOperationException();
+    }
+}
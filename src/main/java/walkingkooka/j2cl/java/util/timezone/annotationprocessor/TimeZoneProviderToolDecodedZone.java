@@ -0,0 +1,131 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import walkingkooka.j2cl.locale.TimeZoneCalendar;
+import walkingkooka.j2cl.locale.TimeZoneDisplay;
+
+import java.time.Instant;
+import java.time.zone.ZoneRules;
+import java.util.List;
+import java.util.Locale;
+import java.util.OptionalInt;
+import java.util.TimeZone;
+
+/**
+ * A zone record read by {@link TimeZoneProviderToolDecoder}, answering the same questions as the emulated
+ * {@link TimeZone}.
+ */
+final class TimeZoneProviderToolDecodedZone {
+
+    static TimeZoneProviderToolDecodedZone with(final List<String> zoneIds,
+                                                final int rawOffset,
+                                                final ZoneRules rules,
+                                                final TimeZoneProviderToolYearTable yearTable,
+                                                final TimeZoneProviderToolLocaleValues<TimeZoneCalendar> calendars,
+                                                final TimeZoneProviderToolLocaleValues<TimeZoneDisplay> displays) {
+        return new TimeZoneProviderToolDecodedZone(
+                zoneIds,
+                rawOffset,
+                rules,
+                yearTable,
+                calendars,
+                displays
+        );
+    }
+
+    private TimeZoneProviderToolDecodedZone(final List<String> zoneIds,
+                                            final int rawOffset,
+                                            final ZoneRules rules,
+                                            final TimeZoneProviderToolYearTable yearTable,
+                                            final TimeZoneProviderToolLocaleValues<TimeZoneCalendar> calendars,
+                                            final TimeZoneProviderToolLocaleValues<TimeZoneDisplay> displays) {
+        super();
+        this.zoneIds = zoneIds;
+        this.rawOffset = rawOffset;
+        this.rules = rules;
+        this.yearTable = yearTable;
+        this.calendars = calendars;
+        this.displays = displays;
+    }
+
+    /**
+     * The zone ids sharing this record, more than one with {@link TimeZoneProviderToolFeature#ZONE_ALIASES}.
+     */
+    List<String> zoneIds() {
+        return this.zoneIds;
+    }
+
+    int rawOffset() {
+        return this.rawOffset;
+    }
+
+    /**
+     * Returns the offset in milliseconds, using the year table when present and the instant is within its years,
+     * otherwise the rules.
+     */
+    int getOffset(final long epochMillis) {
+        final long epochSecond = Math.floorDiv(epochMillis, 1000);
+
+        final TimeZoneProviderToolYearTable yearTable = this.yearTable;
+        final OptionalInt offset = null != yearTable ?
+                yearTable.offset(epochSecond) :
+                OptionalInt.empty();
+
+        return 1000 * (offset.isPresent() ?
+                offset.getAsInt() :
+                this.rules.getOffset(Instant.ofEpochSecond(epochSecond)).getTotalSeconds());
+    }
+
+    boolean inDaylightTime(final long epochMillis) {
+        return this.rules.isDaylightSavings(Instant.ofEpochMilli(epochMillis));
+    }
+
+    TimeZoneCalendar calendar(final Locale locale) {
+        return this.calendars.get(locale);
+    }
+
+    /**
+     * Returns the display name with the same parameters as {@link TimeZone#getDisplayName(boolean, int, Locale)}.
+     */
+    String getDisplayName(final boolean daylight,
+                          final int style,
+                          final Locale locale) {
+        final TimeZoneDisplay display = this.displays.get(locale);
+
+        return TimeZone.SHORT == style ?
+                daylight ?
+                        display.shortDisplayNameDaylight :
+                        display.shortDisplayName :
+                daylight ?
+                        display.longDisplayNameDaylight :
+                        display.longDisplayName;
+    }
+
+    private final List<String> zoneIds;
+    private final int rawOffset;
+    private final ZoneRules rules;
+    private final TimeZoneProviderToolYearTable yearTable;
+    private final TimeZoneProviderToolLocaleValues<TimeZoneCalendar> calendars;
+    private final TimeZoneProviderToolLocaleValues<TimeZoneDisplay> displays;
+
+    @Override
+    public String toString() {
+        return String.join(", ", this.zoneIds);
+    }
+}
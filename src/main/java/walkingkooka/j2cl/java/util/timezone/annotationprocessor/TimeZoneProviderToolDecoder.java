@@ -0,0 +1,437 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.j2cl.java.util.timezone.zonerulesreader.org.threeten.bp.zone.StandardZoneRules;
+import walkingkooka.j2cl.locale.TimeZoneCalendar;
+import walkingkooka.j2cl.locale.TimeZoneDisplay;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.zone.ZoneRules;
+import java.util.EnumSet;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * A reference reader of the data format documented in {@link TimeZoneProviderTool}. The header and tables are read
+ * immediately, zone records are only decoded when requested. With {@link TimeZoneProviderToolFeature#ZONE_INDEX}
+ * only the requested record is decoded, otherwise records are decoded in order until the requested zone is found.
+ */
+final class TimeZoneProviderToolDecoder {
+
+    static TimeZoneProviderToolDecoder read(final String text) throws IOException {
+        return new TimeZoneProviderToolDecoder(text);
+    }
+
+    private TimeZoneProviderToolDecoder(final String text) throws IOException {
+        super();
+        this.text = text;
+
+        final DataInput data = StringDataInputDataOutput.input(text);
+        this.data = data;
+
+        int first = data.readInt();
+        final Set<TimeZoneProviderToolFeature> features;
+        if (TimeZoneProviderToolFeature.MARKER == first) {
+            features = TimeZoneProviderToolFeature.features(data.readInt());
+        } else {
+            features = EnumSet.noneOf(TimeZoneProviderToolFeature.class);
+        }
+        this.features = features;
+
+        this.localeFallback = this.isEnabled(TimeZoneProviderToolFeature.LOCALE_FALLBACK);
+
+        this.localeTable = this.isEnabled(TimeZoneProviderToolFeature.LOCALE_TABLE) ?
+                readLocaleTable(data) :
+                null;
+
+        this.globalCalendars = this.isEnabled(TimeZoneProviderToolFeature.GLOBAL_CALENDAR) ?
+                this.readCalendars(data) :
+                null;
+
+        this.strings = this.isEnabled(TimeZoneProviderToolFeature.STRING_TABLE) ?
+                readStrings(data) :
+                null;
+
+        this.rulesPool = this.isEnabled(TimeZoneProviderToolFeature.RULES_POOL) ?
+                this.readRulesPool(data) :
+                null;
+
+        final Map<String, Integer> zoneIdToRecord;
+        final List<Integer> recordOffsets;
+        final int recordsChars;
+
+        if (this.isEnabled(TimeZoneProviderToolFeature.ZONE_INDEX)) {
+            zoneIdToRecord = readZoneIndex(data);
+
+            final int count = data.readInt();
+            recordOffsets = Lists.array();
+            for (int i = 0; i < count; i++) {
+                recordOffsets.add(data.readInt());
+            }
+            recordsChars = data.readInt();
+        } else {
+            zoneIdToRecord = null;
+            recordOffsets = null;
+            recordsChars = 0;
+        }
+        this.zoneIdToRecord = zoneIdToRecord;
+        this.recordOffsets = recordOffsets;
+        this.recordsChars = recordsChars;
+
+        final int recordCount = features.isEmpty() ?
+                first :
+                data.readInt();
+
+        // with an index records are only decoded from their offset when a zone is requested
+        this.remaining = null != zoneIdToRecord ?
+                0 :
+                recordCount;
+    }
+
+    /**
+     * Returns a {@link DataInput} over only the text of the record at the index, given the characters of text from the
+     * start of the records to each record and of all records, which end the text. The separator before a record is
+     * counted with the record and is skipped. Only the record is copied, so decoding every record copies the text once.
+     */
+    static DataInput record(final String text,
+                            final int recordsChars,
+                            final List<Integer> recordOffsets,
+                            final int index) {
+        final int recordsStart = text.length() - recordsChars;
+
+        int start = recordsStart + recordOffsets.get(index);
+        final int end = recordsStart + (index + 1 < recordOffsets.size() ?
+                recordOffsets.get(index + 1) :
+                recordsChars);
+        if (start < end && SEPARATOR == text.charAt(start)) {
+            start++;
+        }
+        return StringDataInputDataOutput.input(text.substring(start, end));
+    }
+
+    /**
+     * The separator {@link StringDataInputDataOutput} writes between values, taken from the text it writes for two
+     * values.
+     */
+    final static char SEPARATOR = separator();
+
+    private static char separator() {
+        final StringBuilder text = new StringBuilder();
+        final DataOutput output = StringDataInputDataOutput.output(text::append);
+        try {
+            output.writeInt(1);
+            final int first = text.length();
+            output.writeInt(1);
+            return text.charAt(first);
+        } catch (final IOException cause) {
+            throw new IllegalStateException(cause.getMessage(), cause);
+        }
+    }
+
+    Set<TimeZoneProviderToolFeature> features() {
+        return this.features;
+    }
+
+    private boolean isEnabled(final TimeZoneProviderToolFeature feature) {
+        return this.features.contains(feature);
+    }
+
+    /**
+     * Returns all zone ids, without an index all remaining records are decoded.
+     */
+    Set<String> zoneIds() throws IOException {
+        final Set<String> zoneIds;
+
+        if (null != this.zoneIdToRecord) {
+            zoneIds = this.zoneIdToRecord.keySet();
+        } else {
+            while (this.remaining > 0) {
+                this.readNextRecord();
+            }
+            zoneIds = this.zoneIdToZone.keySet();
+        }
+
+        return zoneIds;
+    }
+
+    Optional<TimeZoneProviderToolDecodedZone> zone(final String zoneId) throws IOException {
+        TimeZoneProviderToolDecodedZone zone = this.zoneIdToZone.get(zoneId);
+
+        if (null == zone) {
+            final Map<String, Integer> zoneIdToRecord = this.zoneIdToRecord;
+            if (null != zoneIdToRecord) {
+                final Integer record = zoneIdToRecord.get(zoneId);
+                if (null != record) {
+                    zone = this.readRecord(
+                            record(
+                                    this.text,
+                                    this.recordsChars,
+                                    this.recordOffsets,
+                                    record
+                            ),
+                            this.recordZoneIds(record)
+                    );
+                    for (final String id : zone.zoneIds()) {
+                        this.zoneIdToZone.put(id, zone);
+                    }
+                }
+            } else {
+                while (null == zone && this.remaining > 0) {
+                    this.readNextRecord();
+                    zone = this.zoneIdToZone.get(zoneId);
+                }
+            }
+        }
+
+        return Optional.ofNullable(zone);
+    }
+
+    private List<String> recordZoneIds(final int record) {
+        final List<String> zoneIds = Lists.array();
+
+        for (final Map.Entry<String, Integer> zoneIdAndRecord : this.zoneIdToRecord.entrySet()) {
+            if (record == zoneIdAndRecord.getValue()) {
+                zoneIds.add(zoneIdAndRecord.getKey());
+            }
+        }
+
+        return zoneIds;
+    }
+
+    private void readNextRecord() throws IOException {
+        final DataInput data = this.data;
+
+        final List<String> zoneIds;
+        if (this.isEnabled(TimeZoneProviderToolFeature.ZONE_ALIASES)) {
+            zoneIds = readStrings(data);
+        } else {
+            zoneIds = Lists.of(data.readUTF());
+        }
+
+        final TimeZoneProviderToolDecodedZone zone = this.readRecord(data, zoneIds);
+        for (final String zoneId : zoneIds) {
+            this.zoneIdToZone.put(zoneId, zone);
+        }
+        this.remaining--;
+    }
+
+    /**
+     * Reads the remainder of a record after its zone ids.
+     */
+    private TimeZoneProviderToolDecodedZone readRecord(final DataInput data,
+                                                       final List<String> zoneIds) throws IOException {
+        final int rawOffset = data.readInt();
+
+        final ZoneRules rules = null != this.rulesPool ?
+                this.rulesPool.get(data.readInt()) :
+                this.readRules(data);
+
+        final TimeZoneProviderToolYearTable yearTable = this.isEnabled(TimeZoneProviderToolFeature.YEAR_TABLE) ?
+                TimeZoneProviderToolYearTable.read(data) :
+                null;
+
+        final TimeZoneProviderToolLocaleValues<TimeZoneCalendar> calendars = null != this.globalCalendars ?
+                this.globalCalendars :
+                this.readCalendars(data);
+
+        final TimeZoneDisplay defaultDisplay = this.readDisplay(data);
+        final Map<Locale, TimeZoneDisplay> localeToDisplay = Maps.hash();
+
+        final int displayCount = data.readInt();
+        for (int i = 0; i < displayCount; i++) {
+            final Set<Locale> locales = this.readLocales(data);
+            final TimeZoneDisplay display = this.readDisplay(data);
+
+            for (final Locale locale : locales) {
+                localeToDisplay.put(locale, display);
+            }
+        }
+
+        return TimeZoneProviderToolDecodedZone.with(
+                zoneIds,
+                rawOffset,
+                rules,
+                yearTable,
+                calendars,
+                TimeZoneProviderToolLocaleValues.with(defaultDisplay, localeToDisplay, this.localeFallback)
+        );
+    }
+
+    // tables...........................................................................................................
+
+    private static List<Locale> readLocaleTable(final DataInput data) throws IOException {
+        final int count = data.readInt();
+
+        final List<Locale> locales = Lists.array();
+        for (int i = 0; i < count; i++) {
+            locales.add(Locale.forLanguageTag(data.readUTF()));
+        }
+        return locales;
+    }
+
+    private static List<String> readStrings(final DataInput data) throws IOException {
+        final int count = data.readInt();
+
+        final List<String> strings = Lists.array();
+        for (int i = 0; i < count; i++) {
+            strings.add(data.readUTF());
+        }
+        return strings;
+    }
+
+    private List<ZoneRules> readRulesPool(final DataInput data) throws IOException {
+        final int count = data.readInt();
+
+        final List<ZoneRules> rules = Lists.array();
+        for (int i = 0; i < count; i++) {
+            rules.add(this.readRules(data));
+        }
+        return rules;
+    }
+
+    /**
+     * Compact rules have no runtime reader yet and are read by {@link TimeZoneProviderToolRules}. The external form is
+     * read by the runtime {@link StandardZoneRules}, so offsets are verified against what the runtime reads.
+     */
+    private ZoneRules readRules(final DataInput data) throws IOException {
+        return (this.isEnabled(TimeZoneProviderToolFeature.COMPACT_RULES) ?
+                TimeZoneProviderToolRules.readCompact(data) :
+                TimeZoneProviderToolRules.from(StandardZoneRules.readExternal(data))
+        ).toZoneRules();
+    }
+
+    /**
+     * Reads the sorted zone ids and the index of their record.
+     */
+    private static Map<String, Integer> readZoneIndex(final DataInput data) throws IOException {
+        final int count = data.readInt();
+
+        final Map<String, Integer> zoneIdToRecord = Maps.sorted();
+        for (int i = 0; i < count; i++) {
+            final String zoneId = data.readUTF();
+            zoneIdToRecord.put(zoneId, data.readInt());
+        }
+        return zoneIdToRecord;
+    }
+
+    // locales..........................................................................................................
+
+    private Set<Locale> readLocales(final DataInput data) throws IOException {
+        final Set<Locale> locales = Sets.ordered();
+        final List<Locale> localeTable = this.localeTable;
+
+        if (null != localeTable) {
+            final int runCount = data.readInt();
+            for (int i = 0; i < runCount; i++) {
+                final int start = data.readInt();
+                final int count = data.readInt();
+                locales.addAll(localeTable.subList(start, start + count));
+            }
+        } else {
+            final int count = data.readInt();
+            for (int i = 0; i < count; i++) {
+                locales.add(Locale.forLanguageTag(data.readUTF()));
+            }
+        }
+
+        return locales;
+    }
+
+    private TimeZoneProviderToolLocaleValues<TimeZoneCalendar> readCalendars(final DataInput data) throws IOException {
+        final TimeZoneCalendar defaultCalendar = readCalendar(data);
+        final Map<Locale, TimeZoneCalendar> localeToCalendar = Maps.hash();
+
+        final int count = data.readInt();
+        for (int i = 0; i < count; i++) {
+            final Set<Locale> locales = this.readLocales(data);
+            final TimeZoneCalendar calendar = readCalendar(data);
+
+            for (final Locale locale : locales) {
+                localeToCalendar.put(locale, calendar);
+            }
+        }
+
+        return TimeZoneProviderToolLocaleValues.with(defaultCalendar, localeToCalendar, this.localeFallback);
+    }
+
+    private static TimeZoneCalendar readCalendar(final DataInput data) throws IOException {
+        final GregorianCalendar calendar = new GregorianCalendar();
+        calendar.setFirstDayOfWeek(data.readInt());
+        calendar.setMinimalDaysInFirstWeek(data.readInt());
+        return TimeZoneCalendar.with(calendar);
+    }
+
+    private TimeZoneDisplay readDisplay(final DataInput data) throws IOException {
+        final List<String> strings = this.strings;
+
+        return null != strings ?
+                TimeZoneDisplay.with(
+                        strings.get(data.readInt()),
+                        strings.get(data.readInt()),
+                        strings.get(data.readInt()),
+                        strings.get(data.readInt())
+                ) :
+                TimeZoneDisplay.read(data);
+    }
+
+    private final String text;
+    private final DataInput data;
+    private final Set<TimeZoneProviderToolFeature> features;
+    private final boolean localeFallback;
+    private final List<Locale> localeTable;
+    private final TimeZoneProviderToolLocaleValues<TimeZoneCalendar> globalCalendars;
+    private final List<String> strings;
+    private final List<ZoneRules> rulesPool;
+    private final Map<String, Integer> zoneIdToRecord;
+
+    /**
+     * The characters of text from the start of the records to each record, only set with an index.
+     */
+    private final List<Integer> recordOffsets;
+
+    /**
+     * The characters of text of all records, only set with an index.
+     */
+    private final int recordsChars;
+
+    /**
+     * The number of records not yet read from {@link #data}, always zero with an index.
+     */
+    private int remaining;
+
+    /**
+     * Every zone decoded so far.
+     */
+    private final Map<String, TimeZoneProviderToolDecodedZone> zoneIdToZone = Maps.sorted();
+
+    @Override
+    public String toString() {
+        return this.features + " " + this.zoneIdToZone.keySet();
+    }
+}
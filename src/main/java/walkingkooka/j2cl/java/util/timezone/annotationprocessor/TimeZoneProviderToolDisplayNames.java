@@ -0,0 +1,153 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import walkingkooka.j2cl.locale.TimeZoneDisplay;
+
+import java.text.DateFormatSymbols;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Provides the {@link TimeZoneDisplay} for a zone and locale, keeping an index of zone id to {@link TimeZoneDisplay}
+ * for each locale and resolving each {@link TimeZone} once. The names of all zones are resolved up front by
+ * {@link #resolve(Collection, Collection, boolean)} one locale at a time, so harvests only read the index. This class
+ * is thread safe and may be shared by parallel harvests and by many generates.
+ * <br>
+ * Each locale loads all its names at once from {@link DateFormatSymbols#getZoneStrings()}, which holds the same names
+ * as {@link TimeZone#getDisplayName(boolean, int, Locale)}. Zone ids missing from that table, such as Etc/GMT+1, are
+ * resolved one at a time with {@link TimeZone#getDisplayName(boolean, int, Locale)}.
+ */
+final class TimeZoneProviderToolDisplayNames {
+
+    static TimeZoneProviderToolDisplayNames create() {
+        return new TimeZoneProviderToolDisplayNames();
+    }
+
+    private TimeZoneProviderToolDisplayNames() {
+        super();
+    }
+
+    /**
+     * Resolves the names of every zone not already resolved for each locale. Each locale is resolved by a single
+     * worker, which loads the zone strings of that locale once, only when a zone is not already resolved.
+     */
+    void resolve(final Collection<String> zoneIds,
+                 final Collection<Locale> locales,
+                 final boolean parallel) {
+        if (false == zoneIds.isEmpty()) {
+            (parallel ? locales.parallelStream() : locales.stream())
+                    .forEach(locale -> {
+                        final Map<String, TimeZoneDisplay> zoneIdToDisplay = this.zoneIdToDisplay(locale);
+                        Map<String, TimeZoneDisplay> zoneStrings = null;
+
+                        for (final String zoneId : zoneIds) {
+                            if (false == zoneIdToDisplay.containsKey(zoneId)) {
+                                if (null == zoneStrings) {
+                                    zoneStrings = zoneStrings(locale);
+                                }
+                                final TimeZoneDisplay display = zoneStrings.get(zoneId);
+                                zoneIdToDisplay.put(
+                                        zoneId,
+                                        null != display ?
+                                                display :
+                                                this.lookup(zoneId, locale)
+                                );
+                            }
+                        }
+                    });
+        }
+    }
+
+    /**
+     * Loads all the zone names for the given {@link Locale} from {@link DateFormatSymbols#getZoneStrings()}, each row
+     * holds the zone id, long standard, short standard, long daylight and short daylight names. Incomplete rows are
+     * skipped and left to {@link #lookup(String, Locale)}.
+     */
+    static Map<String, TimeZoneDisplay> zoneStrings(final Locale locale) {
+        final Map<String, TimeZoneDisplay> zoneIdToDisplay = new HashMap<>();
+
+        for (final String[] row : DateFormatSymbols.getInstance(locale).getZoneStrings()) {
+            if (row.length >= 5 && null != row[1] && null != row[2] && null != row[3] && null != row[4]) {
+                zoneIdToDisplay.put(
+                        row[0],
+                        TimeZoneDisplay.with(
+                                row[2],
+                                row[4],
+                                row[1],
+                                row[3]
+                        )
+                );
+            }
+        }
+
+        return zoneIdToDisplay;
+    }
+
+    /**
+     * Returns the resolved {@link TimeZoneDisplay}, resolving it now if {@link #resolve(Collection, Collection, boolean)}
+     * did not.
+     */
+    TimeZoneDisplay display(final String zoneId,
+                            final Locale locale) {
+        return this.zoneIdToDisplay(locale)
+                .computeIfAbsent(
+                        zoneId,
+                        z -> this.lookup(z, locale)
+                );
+    }
+
+    /**
+     * Returns the index of zone id to {@link TimeZoneDisplay} for the given {@link Locale}.
+     */
+    private Map<String, TimeZoneDisplay> zoneIdToDisplay(final Locale locale) {
+        return this.localeToZoneIdToDisplay.computeIfAbsent(
+                locale,
+                l -> new ConcurrentHashMap<>()
+        );
+    }
+
+    private final Map<Locale, Map<String, TimeZoneDisplay>> localeToZoneIdToDisplay = new ConcurrentHashMap<>();
+
+    private TimeZoneDisplay lookup(final String zoneId,
+                                   final Locale locale) {
+        final TimeZone timeZone = this.timeZone(zoneId);
+        return TimeZoneDisplay.with(timeZone.getDisplayName(false, TimeZone.SHORT, locale),
+                timeZone.getDisplayName(true, TimeZone.SHORT, locale),
+                timeZone.getDisplayName(false, TimeZone.LONG, locale),
+                timeZone.getDisplayName(true, TimeZone.LONG, locale));
+    }
+
+    private TimeZone timeZone(final String zoneId) {
+        return this.zoneIdToTimeZone.computeIfAbsent(
+                zoneId,
+                TimeZone::getTimeZone
+        );
+    }
+
+    private final Map<String, TimeZone> zoneIdToTimeZone = new ConcurrentHashMap<>();
+
+    @Override
+    public String toString() {
+        return this.localeToZoneIdToDisplay.keySet().toString();
+    }
+}
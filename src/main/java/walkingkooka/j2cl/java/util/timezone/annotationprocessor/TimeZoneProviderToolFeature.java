@@ -0,0 +1,144 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import walkingkooka.text.CharSequences;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Optional data format features. When none are selected the original data format is generated, otherwise the data
+ * begins with {@link #MARKER} followed by the bits of all selected features.
+ */
+enum TimeZoneProviderToolFeature {
+
+    /**
+     * The calendar data (firstDayOfWeek, minimalDaysInFirstWeek) only depends on the locale, and is written once in the
+     * header rather than for every zone.
+     */
+    GLOBAL_CALENDAR,
+
+    /**
+     * All unique display names are written once in a table, displays then write the index of each name.
+     */
+    STRING_TABLE,
+
+    /**
+     * All selected locales are written once in a table, groups of locales are then written as runs of table indices.
+     */
+    LOCALE_TABLE,
+
+    /**
+     * Distinct zone rules are written once in a pool, zones then write the index of their rules.
+     */
+    RULES_POOL,
+
+    /**
+     * Zones with the same raw offset, rules, calendars and displays for every selected locale are written once as a
+     * single record with all their zone ids.
+     */
+    ZONE_ALIASES,
+
+    /**
+     * A directory of sorted zone ids and record indices is written before the records, and each record is written as
+     * a single {@link String}, so a reader may skip records and only decode the zones that are requested.
+     */
+    ZONE_INDEX,
+
+    /**
+     * Zone rules are written in a compact form, transitions as deltas from the previous transition in quarter hours and
+     * offsets as indices into a palette of the distinct offsets of the zone.
+     */
+    COMPACT_RULES,
+
+    /**
+     * Each zone also writes a table of the offset at the start of each year and the transitions within the year, over
+     * the years of the rules window, so getOffset may be answered without evaluating rules.
+     */
+    YEAR_TABLE,
+
+    /**
+     * Groups of locales sharing a display or calendar only include locales whose value differs from the value of their
+     * parents, a reader resolves a locale by trying the locale, then its parents eg en-AU then en, finally the default.
+     */
+    LOCALE_FALLBACK,
+
+    /**
+     * Zone records are written ordered by raw offset, rules and region rather than zone id, so similar records are
+     * close together and compress better. Readers must not assume records are sorted by zone id, the
+     * {@link #ZONE_INDEX} directory remains sorted.
+     */
+    CLUSTER_ZONES;
+
+    /**
+     * The first int of data with features, this can never be a valid time zone count.
+     */
+    final static int MARKER = -1;
+
+    final int bit() {
+        return 1 << this.ordinal();
+    }
+
+    static int bits(final Set<TimeZoneProviderToolFeature> features) {
+        int bits = 0;
+        for (final TimeZoneProviderToolFeature feature : features) {
+            bits |= feature.bit();
+        }
+        return bits;
+    }
+
+    /**
+     * Returns the features of the given bits, the reverse of {@link #bits(Set)}.
+     */
+    static Set<TimeZoneProviderToolFeature> features(final int bits) {
+        final Set<TimeZoneProviderToolFeature> features = EnumSet.noneOf(TimeZoneProviderToolFeature.class);
+        for (final TimeZoneProviderToolFeature feature : values()) {
+            if (0 != (bits & feature.bit())) {
+                features.add(feature);
+            }
+        }
+
+        final int unknown = bits & ~bits(features);
+        if (0 != unknown) {
+            throw new IllegalArgumentException("Unknown feature bits 0x" + Integer.toHexString(unknown));
+        }
+        return features;
+    }
+
+    /**
+     * Parses a csv of feature names, an empty {@link String} returns no features.
+     */
+    static Set<TimeZoneProviderToolFeature> parse(final String features) {
+        final Set<TimeZoneProviderToolFeature> parsed = EnumSet.noneOf(TimeZoneProviderToolFeature.class);
+
+        for (final String feature : features.split(",")) {
+            final String name = feature.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            try {
+                parsed.add(valueOf(name));
+            } catch (final IllegalArgumentException unknown) {
+                throw new IllegalArgumentException("Unknown feature " + CharSequences.quoteAndEscape(name) + " expected one of " + EnumSet.allOf(TimeZoneProviderToolFeature.class));
+            }
+        }
+
+        return parsed;
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.Sets;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+/**
+ * Prunes groups of locales sharing a value, keeping only locales whose value differs from the value resolved through
+ * their parents. A reader resolves a locale by trying the locale, then its parents, finally the default. The parent of
+ * a locale is its language tag without the last subtag, eg en-AU then en.
+ */
+final class TimeZoneProviderToolLocaleFallback {
+
+    /**
+     * Returns groups holding only the locales whose value differs from their parents. Every selected locale including
+     * those with the default value must be present in the given groups, a locale with the default value is kept when
+     * one of its parents has a different value.
+     */
+    static <T> Map<T, Set<Locale>> prune(final Map<T, Set<Locale>> valueToLocales,
+                                         final T defaultValue) {
+        final Map<Locale, T> localeToValue = Maps.hash();
+        for (final Entry<T, Set<Locale>> valueAndLocales : valueToLocales.entrySet()) {
+            for (final Locale locale : valueAndLocales.getValue()) {
+                localeToValue.put(locale, valueAndLocales.getKey());
+            }
+        }
+
+        final Map<T, Set<Locale>> pruned = Maps.ordered();
+        for (final Entry<T, Set<Locale>> valueAndLocales : valueToLocales.entrySet()) {
+            final T value = valueAndLocales.getKey();
+
+            for (final Locale locale : valueAndLocales.getValue()) {
+                if (false == value.equals(resolve(parent(locale), localeToValue, defaultValue))) {
+                    pruned.computeIfAbsent(value, v -> Sets.ordered())
+                            .add(locale);
+                }
+            }
+        }
+
+        return pruned;
+    }
+
+    /**
+     * Returns the value of the first locale in the chain starting with the given locale, or the default.
+     */
+    private static <T> T resolve(final Locale locale,
+                                 final Map<Locale, T> localeToValue,
+                                 final T defaultValue) {
+        Locale current = locale;
+        T value = defaultValue;
+
+        while (null != current) {
+            final T currentValue = localeToValue.get(current);
+            if (null != currentValue) {
+                value = currentValue;
+                break;
+            }
+            current = parent(current);
+        }
+
+        return value;
+    }
+
+    /**
+     * Returns the locale without its last subtag, or null when the locale is only a language.
+     */
+    static Locale parent(final Locale locale) {
+        final String languageTag = locale.toLanguageTag();
+        final int last = languageTag.lastIndexOf('-');
+        return -1 == last ?
+                null :
+                Locale.forLanguageTag(languageTag.substring(0, last));
+    }
+
+    /**
+     * Stop creation
+     */
+    private TimeZoneProviderToolLocaleFallback() {
+        throw new UnsupportedOperationException();
+    }
+}
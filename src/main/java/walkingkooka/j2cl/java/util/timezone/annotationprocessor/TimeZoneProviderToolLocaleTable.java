@@ -0,0 +1,161 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.text.CharSequences;
+import walkingkooka.text.printer.IndentingPrinter;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A table of all selected locales sorted by language tag, written once. Groups of locales are then written as runs
+ * of consecutive indices, locales sharing a language are neighbours in the table so most groups need few runs.
+ * <pre>
+ * table
+ *     int locale count
+ *     for each locale
+ *         String locale language tag
+ *     end
+ *
+ * group
+ *     int run count
+ *     for each run
+ *         int first locale index
+ *         int locale count
+ *     end
+ * </pre>
+ */
+final class TimeZoneProviderToolLocaleTable {
+
+    static TimeZoneProviderToolLocaleTable with(final Set<Locale> locales) {
+        final List<Locale> sorted = Lists.array();
+        sorted.addAll(locales);
+        sorted.sort(Comparator.comparing(Locale::toLanguageTag));
+
+        return new TimeZoneProviderToolLocaleTable(sorted);
+    }
+
+    private TimeZoneProviderToolLocaleTable(final List<Locale> locales) {
+        super();
+        this.locales = locales;
+
+        final Map<Locale, Integer> localeToIndex = Maps.hash();
+        for (final Locale locale : locales) {
+            localeToIndex.put(locale, localeToIndex.size());
+        }
+        this.localeToIndex = localeToIndex;
+    }
+
+    int index(final Locale locale) {
+        final Integer index = this.localeToIndex.get(locale);
+        if (null == index) {
+            throw new IllegalArgumentException("Unknown locale " + CharSequences.quoteAndEscape(locale.toLanguageTag()));
+        }
+        return index;
+    }
+
+    /**
+     * Writes the group of locales as runs of indices, printing the language tags as a comment.
+     */
+    void write(final Set<Locale> locales,
+               final DataOutput data,
+               final IndentingPrinter comments) throws IOException {
+        if (TimeZoneProviderTool.isCommenting(comments)) {
+            comments.lineStart();
+            comments.print("locales=" + locales.stream()
+                    .map(Locale::toLanguageTag)
+                    .collect(Collectors.joining(", ")));
+        }
+
+        final int[] indices = new int[locales.size()];
+        int i = 0;
+        for (final Locale locale : locales) {
+            indices[i] = this.index(locale);
+            i++;
+        }
+        Arrays.sort(indices);
+
+        final List<int[]> runs = Lists.array();
+        int[] run = null;
+        for (final int index : indices) {
+            if (null != run && run[0] + run[1] == index) {
+                run[1]++;
+            } else {
+                run = new int[]{index, 1};
+                runs.add(run);
+            }
+        }
+
+        data.writeInt(runs.size());
+        for (final int[] startAndCount : runs) {
+            data.writeInt(startAndCount[0]);
+            data.writeInt(startAndCount[1]);
+        }
+    }
+
+    void generate(final DataOutput data,
+                  final IndentingPrinter comments) throws IOException {
+        final List<Locale> locales = this.locales;
+        final boolean commenting = TimeZoneProviderTool.isCommenting(comments);
+
+        if (commenting) {
+            comments.lineStart();
+            comments.print("Locales: " + locales.size());
+            comments.indent();
+        }
+
+        data.writeInt(locales.size());
+
+        int i = 0;
+        for (final Locale locale : locales) {
+            final String languageTag = locale.toLanguageTag();
+
+            if (commenting) {
+                comments.lineStart();
+                comments.print(i + "=" + languageTag);
+            }
+
+            data.writeUTF(languageTag);
+            i++;
+        }
+
+        if (commenting) {
+            comments.outdent();
+            comments.lineStart();
+            comments.print(comments.lineEnding());
+        }
+    }
+
+    private final List<Locale> locales;
+    private final Map<Locale, Integer> localeToIndex;
+
+    @Override
+    public String toString() {
+        return this.locales.toString();
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A decoded default value and the values of groups of locales, with fallback a locale without a value is resolved
+ * through its parents before the default.
+ */
+final class TimeZoneProviderToolLocaleValues<T> {
+
+    static <T> TimeZoneProviderToolLocaleValues<T> with(final T defaultValue,
+                                                        final Map<Locale, T> localeToValue,
+                                                        final boolean fallback) {
+        return new TimeZoneProviderToolLocaleValues<>(
+                defaultValue,
+                localeToValue,
+                fallback
+        );
+    }
+
+    private TimeZoneProviderToolLocaleValues(final T defaultValue,
+                                             final Map<Locale, T> localeToValue,
+                                             final boolean fallback) {
+        super();
+        this.defaultValue = defaultValue;
+        this.localeToValue = localeToValue;
+        this.fallback = fallback;
+    }
+
+    T get(final Locale locale) {
+        Locale current = locale;
+        T value = null;
+
+        while (null == value && null != current) {
+            value = this.localeToValue.get(current);
+            current = this.fallback ?
+                    TimeZoneProviderToolLocaleFallback.parent(current) :
+                    null;
+        }
+
+        return null != value ?
+                value :
+                this.defaultValue;
+    }
+
+    private final T defaultValue;
+    private final Map<Locale, T> localeToValue;
+    private final boolean fallback;
+
+    @Override
+    public String toString() {
+        return this.defaultValue + " " + this.localeToValue;
+    }
+}
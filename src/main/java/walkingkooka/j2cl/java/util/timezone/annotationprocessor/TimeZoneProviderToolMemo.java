@@ -0,0 +1,130 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+
+/**
+ * A bounded thread safe map that evicts the least recently used entries, used to remember results across processor
+ * instances and compilations within the same JVM, such as a long running build daemon. The capacity bounds the total
+ * weight of all values, by default each value weighs one.
+ */
+final class TimeZoneProviderToolMemo<K, V> {
+
+    static <K, V> TimeZoneProviderToolMemo<K, V> with(final int capacity) {
+        return with(
+                capacity,
+                v -> 1
+        );
+    }
+
+    /**
+     * Creates a memo whose values weigh the given weigher, the weight of a value must not change while remembered.
+     */
+    static <K, V> TimeZoneProviderToolMemo<K, V> with(final int capacity,
+                                                      final ToIntFunction<V> weigher) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Invalid capacity " + capacity + " <= 0");
+        }
+        if (null == weigher) {
+            throw new NullPointerException("weigher");
+        }
+        return new TimeZoneProviderToolMemo<>(
+                capacity,
+                weigher
+        );
+    }
+
+    private TimeZoneProviderToolMemo(final int capacity,
+                                     final ToIntFunction<V> weigher) {
+        super();
+        this.capacity = capacity;
+        this.weigher = weigher;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the value for the key or null, marking the entry as recently used.
+     */
+    synchronized V get(final K key) {
+        return this.entries.get(key);
+    }
+
+    /**
+     * Remembers the value, evicting the least recently used entries until the total weight is within the capacity.
+     * A value heavier than the capacity is never remembered.
+     */
+    synchronized void put(final K key,
+                          final V value) {
+        final V previous = this.entries.put(key, value);
+        if (null != previous) {
+            this.weight -= this.weigher.applyAsInt(previous);
+        }
+        this.weight += this.weigher.applyAsInt(value);
+
+        final Iterator<V> values = this.entries.values().iterator();
+        while (this.weight > this.capacity) {
+            this.weight -= this.weigher.applyAsInt(values.next());
+            values.remove();
+        }
+    }
+
+    /**
+     * Returns the value for the key, computing it without holding the lock when absent, so two threads may compute the
+     * same value but neither ever waits for a slow computation.
+     */
+    V computeIfAbsent(final K key,
+                      final Function<K, V> compute) {
+        V value = this.get(key);
+        if (null == value) {
+            value = compute.apply(key);
+            this.put(key, value);
+        }
+        return value;
+    }
+
+    synchronized void clear() {
+        this.entries.clear();
+        this.weight = 0;
+    }
+
+    synchronized int size() {
+        return this.entries.size();
+    }
+
+    /**
+     * The total weight of all remembered values.
+     */
+    synchronized long weight() {
+        return this.weight;
+    }
+
+    private final int capacity;
+    private final ToIntFunction<V> weigher;
+    private final Map<K, V> entries;
+    private long weight;
+
+    @Override
+    public synchronized String toString() {
+        return this.entries.size() + " " + this.weight + "/" + this.capacity;
+    }
+}
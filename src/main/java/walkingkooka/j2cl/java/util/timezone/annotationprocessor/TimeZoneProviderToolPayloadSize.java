@@ -0,0 +1,137 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Measures the characters and gzipped UTF-8 bytes of generated data as it is appended, without holding the data. A
+ * {@link #disabled()} size ignores everything appended and measures zero.
+ */
+final class TimeZoneProviderToolPayloadSize {
+
+    static TimeZoneProviderToolPayloadSize empty() {
+        return new TimeZoneProviderToolPayloadSize(true);
+    }
+
+    /**
+     * A size that ignores everything appended, used when nothing needs to be measured.
+     */
+    static TimeZoneProviderToolPayloadSize disabled() {
+        return new TimeZoneProviderToolPayloadSize(false);
+    }
+
+    private TimeZoneProviderToolPayloadSize(final boolean enabled) {
+        super();
+        this.gzip = enabled ?
+                this.gzip() :
+                null;
+    }
+
+    private Writer gzip() {
+        try {
+            return new OutputStreamWriter(
+                    new GZIPOutputStream(
+                            new OutputStream() {
+                                @Override
+                                public void write(final int b) {
+                                    TimeZoneProviderToolPayloadSize.this.gzipBytes++;
+                                }
+
+                                @Override
+                                public void write(final byte[] b,
+                                                  final int off,
+                                                  final int len) {
+                                    TimeZoneProviderToolPayloadSize.this.gzipBytes += len;
+                                }
+                            }
+                    ),
+                    StandardCharsets.UTF_8
+            );
+        } catch (final IOException cause) {
+            throw new UncheckedIOException(cause);
+        }
+    }
+
+    /**
+     * Appends more data, may be used as a method reference to receive text as it is generated.
+     */
+    void append(final CharSequence text) {
+        if (false == this.isEnabled()) {
+            return;
+        }
+        if (this.finished) {
+            throw new IllegalStateException("Size already measured");
+        }
+
+        try {
+            this.gzip.append(text);
+        } catch (final IOException cause) {
+            throw new UncheckedIOException(cause);
+        }
+        this.chars += text.length();
+    }
+
+    /**
+     * The number of characters appended.
+     */
+    long chars() {
+        return this.chars;
+    }
+
+    /**
+     * Completes the gzip stream and returns its size, nothing may be appended afterwards.
+     */
+    long gzipBytes() {
+        if (this.isEnabled() && false == this.finished) {
+            this.finished = true;
+            try {
+                this.gzip.close();
+            } catch (final IOException cause) {
+                throw new UncheckedIOException(cause);
+            }
+        }
+        return this.gzipBytes;
+    }
+
+    boolean isEnabled() {
+        return null != this.gzip;
+    }
+
+    /**
+     * Null when disabled.
+     */
+    private final Writer gzip;
+
+    private long chars;
+
+    private long gzipBytes;
+
+    private boolean finished;
+
+    @Override
+    public String toString() {
+        return this.chars + " chars";
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import walkingkooka.collect.list.Lists;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A {@link DataOutput} that records every write so they may be replayed later to another {@link DataOutput}, used to
+ * measure data that must be written after something that depends on its size.
+ */
+final class TimeZoneProviderToolRecordingDataOutput implements DataOutput {
+
+    static TimeZoneProviderToolRecordingDataOutput empty() {
+        return new TimeZoneProviderToolRecordingDataOutput();
+    }
+
+    private TimeZoneProviderToolRecordingDataOutput() {
+        super();
+    }
+
+    /**
+     * Writes everything recorded to the given {@link DataOutput} in the original order.
+     */
+    void replay(final DataOutput output) throws IOException {
+        for (final Write write : this.writes) {
+            write.write(output);
+        }
+    }
+
+    @Override
+    public void write(final int b) {
+        this.writes.add(o -> o.write(b));
+    }
+
+    @Override
+    public void write(final byte[] b) {
+        final byte[] copy = b.clone();
+        this.writes.add(o -> o.write(copy));
+    }
+
+    @Override
+    public void write(final byte[] b,
+                      final int off,
+                      final int len) {
+        final byte[] copy = Arrays.copyOfRange(b, off, off + len);
+        this.writes.add(o -> o.write(copy, 0, len));
+    }
+
+    @Override
+    public void writeBoolean(final boolean v) {
+        this.writes.add(o -> o.writeBoolean(v));
+    }
+
+    @Override
+    public void writeByte(final int v) {
+        this.writes.add(o -> o.writeByte(v));
+    }
+
+    @Override
+    public void writeShort(final int v) {
+        this.writes.add(o -> o.writeShort(v));
+    }
+
+    @Override
+    public void writeChar(final int v) {
+        this.writes.add(o -> o.writeChar(v));
+    }
+
+    @Override
+    public void writeInt(final int v) {
+        this.writes.add(o -> o.writeInt(v));
+    }
+
+    @Override
+    public void writeLong(final long v) {
+        this.writes.add(o -> o.writeLong(v));
+    }
+
+    @Override
+    public void writeFloat(final float v) {
+        this.writes.add(o -> o.writeFloat(v));
+    }
+
+    @Override
+    public void writeDouble(final double v) {
+        this.writes.add(o -> o.writeDouble(v));
+    }
+
+    @Override
+    public void writeBytes(final String s) {
+        this.writes.add(o -> o.writeBytes(s));
+    }
+
+    @Override
+    public void writeChars(final String s) {
+        this.writes.add(o -> o.writeChars(s));
+    }
+
+    @Override
+    public void writeUTF(final String s) {
+        this.writes.add(o -> o.writeUTF(s));
+    }
+
+    private final List<Write> writes = Lists.array();
+
+    @FunctionalInterface
+    private interface Write {
+        void write(final DataOutput output) throws IOException;
+    }
+
+    @Override
+    public String toString() {
+        return this.writes.size() + " writes";
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.SortedSets;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Groups zone ids by region, the text before the first slash, and writes the source of the registry class that
+ * references the generated class of each region. Each region is only reachable through its own method, so a compiler
+ * such as closure can remove the data of regions that are never referenced.
+ */
+final class TimeZoneProviderToolRegions {
+
+    /**
+     * The region of zone ids without a slash, such as UTC or EST5EDT.
+     */
+    final static String OTHER = "Other";
+
+    /**
+     * The generated registry class.
+     */
+    final static String CLASS_NAME = "TimeZoneProviderRegions";
+
+    /**
+     * Returns the zone ids grouped by region, both sorted.
+     */
+    static Map<String, Set<String>> regions(final Set<String> zoneIds) {
+        final Map<String, Set<String>> regions = Maps.sorted();
+
+        for (final String zoneId : zoneIds) {
+            regions.computeIfAbsent(region(zoneId), r -> SortedSets.tree())
+                    .add(zoneId);
+        }
+
+        return regions;
+    }
+
+    static String region(final String zoneId) {
+        final int slash = zoneId.indexOf('/');
+        return -1 == slash ?
+                OTHER :
+                zoneId.substring(0, slash);
+    }
+
+    /**
+     * The name of the generated class holding the data for the region, eg TimeZoneProviderEurope.
+     */
+    static String className(final String region) {
+        return "TimeZoneProvider" + javaIdentifier(region);
+    }
+
+    /**
+     * The name of the registry method for the region, eg europe.
+     */
+    static String methodName(final String region) {
+        final String identifier = javaIdentifier(region);
+        return Character.toLowerCase(identifier.charAt(0)) + identifier.substring(1);
+    }
+
+    private static String javaIdentifier(final String region) {
+        final StringBuilder identifier = new StringBuilder();
+        for (final char c : region.toCharArray()) {
+            if (Character.isJavaIdentifierPart(c)) {
+                identifier.append(c);
+            }
+        }
+        return identifier.toString();
+    }
+
+    /**
+     * Writes the registry class source, the caller closes the {@link Writer}.
+     */
+    static void writeRegistry(final Map<String, Set<String>> regions,
+                              final Writer writer) throws IOException {
+        writer.write("package " + TimeZoneProviderToolChunkWriter.PACKAGE + ";\n" +
+                "\n" +
+                "// generated by " + TimeZoneProviderAnnotationProcessor.class.getName() + "\n" +
+                "public final class " + CLASS_NAME + " {\n" +
+                "\n" +
+                "  public final static String REGIONS = \"" + String.join(",", regions.keySet()) + "\";\n");
+
+        for (final Entry<String, Set<String>> regionAndZoneIds : regions.entrySet()) {
+            final String region = regionAndZoneIds.getKey();
+
+            writer.write("\n" +
+                    "  // " + regionAndZoneIds.getValue().stream().collect(Collectors.joining(", ")) + "\n" +
+                    "  public static String " + methodName(region) + "() {\n" +
+                    "    return " + className(region) + ".DATA;\n" +
+                    "  }\n");
+        }
+
+        writer.write("}\n");
+    }
+
+    /**
+     * Stop creation
+     */
+    private TimeZoneProviderToolRegions() {
+        throw new UnsupportedOperationException();
+    }
+}
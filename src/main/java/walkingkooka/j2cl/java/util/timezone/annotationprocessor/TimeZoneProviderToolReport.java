@@ -0,0 +1,326 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import walkingkooka.collect.map.Maps;
+
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Collects the wall time of each phase and the characters emitted for each section and zone while generating, so the
+ * cost of a selection may be tracked. Zones may be harvested in parallel so all methods are thread safe, the times of
+ * phases that run on several threads are the sum across all threads. Sizes are characters of the generated text
+ * counted by {@link TimeZoneProviderToolCountingDataOutput}. A {@link #disabled()} report ignores everything, so
+ * nothing is measured unless a report is wanted.
+ * <pre>
+ * {
+ *   "properties": { "locales": 1, ... },
+ *   "phaseNanos": { "harvest": 123, ... },
+ *   "sectionChars": { "zones": 456, ... },
+ *   "payloadChars": { "data": 789, ... },
+ *   "zoneChars": { "Australia/Sydney": 99, ... },
+ *   "localeGroupChars": { "default": 999, "en-AU, en-NZ": 99, ... }
+ * }
+ * </pre>
+ */
+final class TimeZoneProviderToolReport {
+
+    /**
+     * The file name of the report, written next to the generated source.
+     */
+    final static String FILE_NAME = "TimeZoneProviderReport.json";
+
+    static TimeZoneProviderToolReport empty() {
+        return new TimeZoneProviderToolReport(true);
+    }
+
+    /**
+     * A report that ignores everything recorded, sizes are then not counted.
+     */
+    static TimeZoneProviderToolReport disabled() {
+        return DISABLED;
+    }
+
+    private final static TimeZoneProviderToolReport DISABLED = new TimeZoneProviderToolReport(false);
+
+    private TimeZoneProviderToolReport(final boolean enabled) {
+        super();
+        this.enabled = enabled;
+    }
+
+    boolean isEnabled() {
+        return this.enabled;
+    }
+
+    private final boolean enabled;
+
+    /**
+     * Records a number, boolean or text describing the generated data, replacing any previous value.
+     */
+    void property(final String name,
+                  final Object value) {
+        if (this.enabled) {
+            synchronized (this) {
+                this.properties.put(name, value);
+            }
+        }
+    }
+
+    /**
+     * Adds the given nanos to the phase, a phase may be timed several times eg once for each batch of zones.
+     */
+    void time(final String phase,
+              final long nanos) {
+        this.add(this.phaseNanos, phase, nanos);
+    }
+
+    void sectionChars(final String section,
+                      final long chars) {
+        this.add(this.sectionChars, section, chars);
+    }
+
+    void payloadChars(final String payload,
+                      final long chars) {
+        this.add(this.payloadChars, payload, chars);
+    }
+
+    /**
+     * Records the characters of a zone record, with aliases the key holds all zone ids of the record.
+     */
+    void zoneChars(final String zoneIds,
+                   final long chars) {
+        this.add(this.zoneChars, zoneIds, chars);
+    }
+
+    private void add(final Map<String, Long> totals,
+                     final String key,
+                     final long value) {
+        if (this.enabled) {
+            synchronized (this) {
+                totals.merge(key, value, Long::sum);
+            }
+        }
+    }
+
+    /**
+     * Records the characters of a group of locales sharing a calendar or display, summed across all zones.
+     */
+    void localeGroupChars(final String locales,
+                          final long chars) {
+        this.add(this.localeGroupChars, locales, chars);
+    }
+
+    synchronized Map<String, Long> sectionChars() {
+        return copy(this.sectionChars);
+    }
+
+    synchronized Map<String, Long> zoneChars() {
+        return copy(this.zoneChars);
+    }
+
+    synchronized Map<String, Long> localeGroupChars() {
+        return copy(this.localeGroupChars);
+    }
+
+    private static Map<String, Long> copy(final Map<String, Long> totals) {
+        final Map<String, Long> copy = Maps.ordered();
+        copy.putAll(totals);
+        return copy;
+    }
+
+    private final Map<String, Object> properties = Maps.ordered();
+    private final Map<String, Long> phaseNanos = Maps.ordered();
+    private final Map<String, Long> sectionChars = Maps.ordered();
+    private final Map<String, Long> payloadChars = Maps.ordered();
+    private final Map<String, Long> zoneChars = Maps.sorted();
+    private final Map<String, Long> localeGroupChars = Maps.sorted();
+
+    // summary..........................................................................................................
+
+    /**
+     * A single line summary suitable for a {@link javax.annotation.processing.Messager} note.
+     */
+    synchronized String summary() {
+        final StringBuilder summary = new StringBuilder();
+        summary.append("TimeZoneProvider ");
+        summary.append(
+                this.properties.entrySet()
+                        .stream()
+                        .map(e -> e.getKey() + ": " + e.getValue())
+                        .collect(Collectors.joining(", "))
+        );
+
+        summary.append(", data: ")
+                .append(
+                        this.sectionChars.values()
+                                .stream()
+                                .mapToLong(Long::longValue)
+                                .sum()
+                ).append(" chars");
+
+        for (final Entry<String, Long> phaseAndNanos : this.phaseNanos.entrySet()) {
+            summary.append(", ")
+                    .append(phaseAndNanos.getKey())
+                    .append(": ")
+                    .append(TimeUnit.NANOSECONDS.toMillis(phaseAndNanos.getValue()))
+                    .append("ms");
+        }
+
+        final Optional<Entry<String, Long>> heaviest = this.zoneChars.entrySet()
+                .stream()
+                .max(Comparator.comparing(Entry::getValue));
+        heaviest.ifPresent(e -> summary.append(", heaviest zone: ")
+                .append(e.getKey())
+                .append(" ")
+                .append(e.getValue())
+                .append(" chars"));
+
+        return summary.toString();
+    }
+
+    /**
+     * Returns the heaviest zones and locale groups ranked by characters, one per line, long locale groups are abbreviated.
+     */
+    synchronized String heaviest(final int count) {
+        final StringBuilder heaviest = new StringBuilder();
+        ranked("Heaviest zones:", this.zoneChars, count, heaviest);
+        ranked("Heaviest locale groups:", this.localeGroupChars, count, heaviest);
+        return heaviest.toString();
+    }
+
+    private static void ranked(final String title,
+                               final Map<String, Long> chars,
+                               final int count,
+                               final StringBuilder ranked) {
+        ranked.append(title);
+
+        int rank = 1;
+        for (final Entry<String, Long> keyAndChars : chars.entrySet()
+                .stream()
+                .sorted(Comparator.comparing(Entry<String, Long>::getValue).reversed())
+                .limit(count)
+                .collect(Collectors.toList())) {
+            String key = keyAndChars.getKey();
+            if (key.length() > ABBREVIATE) {
+                key = key.substring(0, ABBREVIATE - 3) + "...";
+            }
+
+            ranked.append('\n')
+                    .append("  ")
+                    .append(rank)
+                    .append(". ")
+                    .append(key)
+                    .append(' ')
+                    .append(keyAndChars.getValue())
+                    .append(" chars");
+            rank++;
+        }
+        ranked.append('\n');
+    }
+
+    private final static int ABBREVIATE = 80;
+
+    // json.............................................................................................................
+
+    synchronized String toJson() {
+        final StringBuilder json = new StringBuilder();
+        json.append('{');
+
+        object("properties", this.properties, json);
+        json.append(',');
+        object("phaseNanos", this.phaseNanos, json);
+        json.append(',');
+        object("sectionChars", this.sectionChars, json);
+        json.append(',');
+        object("payloadChars", this.payloadChars, json);
+        json.append(',');
+        object("zoneChars", this.zoneChars, json);
+        json.append(',');
+        object("localeGroupChars", this.localeGroupChars, json);
+
+        json.append('\n')
+                .append('}')
+                .append('\n');
+        return json.toString();
+    }
+
+    private static void object(final String name,
+                               final Map<String, ?> properties,
+                               final StringBuilder json) {
+        json.append("\n  ");
+        string(name, json);
+        json.append(": {");
+
+        String separator = "";
+        for (final Entry<String, ?> property : properties.entrySet()) {
+            json.append(separator)
+                    .append("\n    ");
+            string(property.getKey(), json);
+            json.append(": ");
+
+            final Object value = property.getValue();
+            if (value instanceof Number || value instanceof Boolean) {
+                json.append(value);
+            } else {
+                string(String.valueOf(value), json);
+            }
+            separator = ",";
+        }
+
+        if (false == properties.isEmpty()) {
+            json.append("\n  ");
+        }
+        json.append('}');
+    }
+
+    private static void string(final String text,
+                               final StringBuilder json) {
+        json.append('"');
+
+        final int length = text.length();
+        for (int i = 0; i < length; i++) {
+            final char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                case '\\':
+                    json.append('\\').append(c);
+                    break;
+                default:
+                    if (c < 0x20 || c > 0x7e) {
+                        json.append(String.format(Locale.ENGLISH, "\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+                    break;
+            }
+        }
+
+        json.append('"');
+    }
+
+    @Override
+    public String toString() {
+        return this.summary();
+    }
+}
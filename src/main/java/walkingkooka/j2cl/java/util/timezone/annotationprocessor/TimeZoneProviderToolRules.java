@@ -0,0 +1,554 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.j2cl.java.util.timezone.zonerulesreader.org.threeten.bp.zone.ZoneRules;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.Month;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneOffsetTransitionRule;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The transitions, offsets and last rules of a {@link ZoneRules}, decoded from its external form so they may be
+ * pruned or written in the compact form.
+ * <pre>
+ * External
+ *
+ * int standard transition count
+ * for each standard transition
+ *     epoch seconds
+ * end
+ * for each standard transition + 1
+ *     offset
+ * end
+ *
+ * int savings transition count
+ * for each savings transition
+ *     epoch seconds
+ * end
+ * for each savings transition + 1
+ *     offset
+ * end
+ *
+ * byte last rules count
+ * for each last rule
+ *     int packed rule followed by 0 to 4 int
+ * end
+ *
+ * epoch seconds
+ *     3 bytes quarter hours since 1825 or byte 255 and long seconds
+ * offset
+ *     byte quarter hours or byte 127 and int seconds
+ *
+ * Compact
+ *
+ * int offset palette count
+ * for each offset
+ *     int seconds
+ * end
+ *
+ * int standard transition count
+ * for each standard transition
+ *     delta
+ * end
+ * for each standard transition + 1
+ *     int offset palette index
+ * end
+ *
+ * int savings transition count
+ * for each savings transition
+ *     delta
+ * end
+ * for each savings transition + 1
+ *     int offset palette index
+ * end
+ *
+ * int last rules count
+ * for each last rule
+ *     int packed rule followed by 0 to 4 int
+ * end
+ *
+ * delta
+ *     int quarter hours since the previous transition (or 1970) or Integer.MIN_VALUE and long seconds
+ * </pre>
+ */
+final class TimeZoneProviderToolRules {
+
+    /**
+     * Decodes the external form of the given rules.
+     */
+    static TimeZoneProviderToolRules from(final ZoneRules rules) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        rules.writeExternal(new DataOutputStream(bytes));
+
+        return readExternal(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    static TimeZoneProviderToolRules readExternal(final DataInput input) throws IOException {
+        final long[] standardTransitions = readExternalTransitions(input);
+        final int[] standardOffsets = readExternalOffsets(standardTransitions.length + 1, input);
+
+        final long[] savingsTransitions = readExternalTransitions(input);
+        final int[] wallOffsets = readExternalOffsets(savingsTransitions.length + 1, input);
+
+        return new TimeZoneProviderToolRules(
+                standardTransitions,
+                standardOffsets,
+                savingsTransitions,
+                wallOffsets,
+                readLastRules(input.readByte(), input)
+        );
+    }
+
+    /**
+     * Reads rules written by {@link #writeCompact(DataOutput)}.
+     */
+    static TimeZoneProviderToolRules readCompact(final DataInput input) throws IOException {
+        final int[] palette = new int[input.readInt()];
+        for (int i = 0; i < palette.length; i++) {
+            palette[i] = input.readInt();
+        }
+
+        final long[] standardTransitions = readCompactTransitions(input);
+        final int[] standardOffsets = readCompactOffsets(standardTransitions.length + 1, palette, input);
+
+        final long[] savingsTransitions = readCompactTransitions(input);
+        final int[] wallOffsets = readCompactOffsets(savingsTransitions.length + 1, palette, input);
+
+        return new TimeZoneProviderToolRules(
+                standardTransitions,
+                standardOffsets,
+                savingsTransitions,
+                wallOffsets,
+                readLastRules(input.readInt(), input)
+        );
+    }
+
+    private TimeZoneProviderToolRules(final long[] standardTransitions,
+                                      final int[] standardOffsets,
+                                      final long[] savingsTransitions,
+                                      final int[] wallOffsets,
+                                      final List<int[]> lastRules) {
+        super();
+        this.standardTransitions = standardTransitions;
+        this.standardOffsets = standardOffsets;
+        this.savingsTransitions = savingsTransitions;
+        this.wallOffsets = wallOffsets;
+        this.lastRules = lastRules;
+    }
+
+    // prune............................................................................................................
+
+    /**
+     * Returns rules with only the transitions after the minimum and before the maximum. The offsets before the first
+     * kept transition are the offsets in effect at the minimum. When there are last rules the maximum is ignored and
+     * the last transition is always kept, so the last rules only ever apply after the original transitions end.
+     */
+    TimeZoneProviderToolRules prune(final long minEpochSecond,
+                                    final long maxEpochSecond) {
+        final boolean hasLastRules = false == this.lastRules.isEmpty();
+
+        final int[] standard = range(this.standardTransitions, minEpochSecond, maxEpochSecond, hasLastRules);
+        final int[] savings = range(this.savingsTransitions, minEpochSecond, maxEpochSecond, hasLastRules);
+
+        return new TimeZoneProviderToolRules(
+                Arrays.copyOfRange(this.standardTransitions, standard[0], standard[1]),
+                Arrays.copyOfRange(this.standardOffsets, standard[0], standard[1] + 1),
+                Arrays.copyOfRange(this.savingsTransitions, savings[0], savings[1]),
+                Arrays.copyOfRange(this.wallOffsets, savings[0], savings[1] + 1),
+                this.lastRules
+        );
+    }
+
+    /**
+     * Returns the from inclusive and to exclusive indices of the transitions to keep.
+     */
+    private static int[] range(final long[] transitions,
+                               final long minEpochSecond,
+                               final long maxEpochSecond,
+                               final boolean hasLastRules) {
+        final int count = transitions.length;
+
+        int from = 0;
+        while (from < count && transitions[from] <= minEpochSecond) {
+            from++;
+        }
+
+        int to = count;
+        if (hasLastRules) {
+            if (from == count && count > 0) {
+                from = count - 1;
+            }
+        } else {
+            while (to > from && transitions[to - 1] > maxEpochSecond) {
+                to--;
+            }
+        }
+
+        return new int[]{from, to};
+    }
+
+    // external.........................................................................................................
+
+    void writeExternal(final DataOutput output) throws IOException {
+        writeExternal(this.standardTransitions, this.standardOffsets, output);
+        writeExternal(this.savingsTransitions, this.wallOffsets, output);
+
+        output.writeByte(this.lastRules.size());
+        this.writeLastRules(output);
+    }
+
+    private static void writeExternal(final long[] transitions,
+                                      final int[] offsets,
+                                      final DataOutput output) throws IOException {
+        output.writeInt(transitions.length);
+        for (final long transition : transitions) {
+            writeExternalEpochSecond(transition, output);
+        }
+        for (final int offset : offsets) {
+            writeExternalOffset(offset, output);
+        }
+    }
+
+    private static long[] readExternalTransitions(final DataInput input) throws IOException {
+        final long[] transitions = new long[input.readInt()];
+        for (int i = 0; i < transitions.length; i++) {
+            transitions[i] = readExternalEpochSecond(input);
+        }
+        return transitions;
+    }
+
+    private static int[] readExternalOffsets(final int count,
+                                             final DataInput input) throws IOException {
+        final int[] offsets = new int[count];
+        for (int i = 0; i < count; i++) {
+            offsets[i] = readExternalOffset(input);
+        }
+        return offsets;
+    }
+
+    private final static long EPOCH_SECOND_1825 = -4575744000L;
+
+    private final static long EPOCH_SECOND_2300 = 10413792000L;
+
+    private static long readExternalEpochSecond(final DataInput input) throws IOException {
+        final int high = input.readByte() & 255;
+        final long epochSecond;
+        if (255 == high) {
+            epochSecond = input.readLong();
+        } else {
+            final int middle = input.readByte() & 255;
+            final int low = input.readByte() & 255;
+            epochSecond = ((high << 16) + (middle << 8) + low) * 900L + EPOCH_SECOND_1825;
+        }
+        return epochSecond;
+    }
+
+    private static void writeExternalEpochSecond(final long epochSecond,
+                                                 final DataOutput output) throws IOException {
+        if (epochSecond >= EPOCH_SECOND_1825 && epochSecond < EPOCH_SECOND_2300 && 0 == epochSecond % 900) {
+            final int quarterHours = (int) ((epochSecond - EPOCH_SECOND_1825) / 900);
+            output.writeByte((quarterHours >>> 16) & 255);
+            output.writeByte((quarterHours >>> 8) & 255);
+            output.writeByte(quarterHours & 255);
+        } else {
+            output.writeByte(255);
+            output.writeLong(epochSecond);
+        }
+    }
+
+    private static int readExternalOffset(final DataInput input) throws IOException {
+        final int quarterHours = input.readByte();
+        return 127 == quarterHours ?
+                input.readInt() :
+                quarterHours * 900;
+    }
+
+    private static void writeExternalOffset(final int seconds,
+                                            final DataOutput output) throws IOException {
+        final int quarterHours = 0 == seconds % 900 ?
+                seconds / 900 :
+                127;
+        output.writeByte(quarterHours);
+        if (127 == quarterHours) {
+            output.writeInt(seconds);
+        }
+    }
+
+    // compact..........................................................................................................
+
+    void writeCompact(final DataOutput output) throws IOException {
+        final List<Integer> palette = Lists.array();
+        addPalette(this.standardOffsets, palette);
+        addPalette(this.wallOffsets, palette);
+
+        output.writeInt(palette.size());
+        for (final Integer offset : palette) {
+            output.writeInt(offset);
+        }
+
+        writeCompact(this.standardTransitions, this.standardOffsets, palette, output);
+        writeCompact(this.savingsTransitions, this.wallOffsets, palette, output);
+
+        output.writeInt(this.lastRules.size());
+        this.writeLastRules(output);
+    }
+
+    /**
+     * Adds offsets not already in the palette in the order they first appear.
+     */
+    private static void addPalette(final int[] offsets,
+                                   final List<Integer> palette) {
+        for (final int offset : offsets) {
+            if (false == palette.contains(offset)) {
+                palette.add(offset);
+            }
+        }
+    }
+
+    private static void writeCompact(final long[] transitions,
+                                     final int[] offsets,
+                                     final List<Integer> palette,
+                                     final DataOutput output) throws IOException {
+        output.writeInt(transitions.length);
+
+        long previous = 0;
+        for (final long transition : transitions) {
+            final long delta = transition - previous;
+            if (0 == delta % 900 && delta / 900 > Integer.MIN_VALUE && delta / 900 <= Integer.MAX_VALUE) {
+                output.writeInt((int) (delta / 900));
+            } else {
+                output.writeInt(SECONDS_DELTA);
+                output.writeLong(delta);
+            }
+            previous = transition;
+        }
+
+        for (final int offset : offsets) {
+            output.writeInt(palette.indexOf(offset));
+        }
+    }
+
+    /**
+     * Marks a delta that is not a whole number of quarter hours, the delta in seconds follows as a long.
+     */
+    private final static int SECONDS_DELTA = Integer.MIN_VALUE;
+
+    private static long[] readCompactTransitions(final DataInput input) throws IOException {
+        final long[] transitions = new long[input.readInt()];
+
+        long previous = 0;
+        for (int i = 0; i < transitions.length; i++) {
+            final int quarterHours = input.readInt();
+            previous += SECONDS_DELTA == quarterHours ?
+                    input.readLong() :
+                    quarterHours * 900L;
+            transitions[i] = previous;
+        }
+        return transitions;
+    }
+
+    private static int[] readCompactOffsets(final int count,
+                                            final int[] palette,
+                                            final DataInput input) throws IOException {
+        final int[] offsets = new int[count];
+        for (int i = 0; i < count; i++) {
+            offsets[i] = palette[input.readInt()];
+        }
+        return offsets;
+    }
+
+    // last rules.......................................................................................................
+
+    /**
+     * Reads the packed int and any following ints holding a time, standard, before or after offset that could not be
+     * packed.
+     */
+    private static List<int[]> readLastRules(final int count,
+                                             final DataInput input) throws IOException {
+        final List<int[]> lastRules = Lists.array();
+
+        for (int i = 0; i < count; i++) {
+            final int packed = input.readInt();
+
+            final int timeByte = (packed >>> 14) & 31;
+            final int standardOffsetByte = (packed >>> 4) & 255;
+            final int beforeByte = (packed >>> 2) & 3;
+            final int afterByte = packed & 3;
+
+            final int[] rule = new int[1 +
+                    (31 == timeByte ? 1 : 0) +
+                    (255 == standardOffsetByte ? 1 : 0) +
+                    (3 == beforeByte ? 1 : 0) +
+                    (3 == afterByte ? 1 : 0)];
+            rule[0] = packed;
+            for (int j = 1; j < rule.length; j++) {
+                rule[j] = input.readInt();
+            }
+            lastRules.add(rule);
+        }
+
+        return lastRules;
+    }
+
+    private void writeLastRules(final DataOutput output) throws IOException {
+        for (final int[] lastRule : this.lastRules) {
+            for (final int value : lastRule) {
+                output.writeInt(value);
+            }
+        }
+    }
+
+    // java.time........................................................................................................
+
+    /**
+     * Returns equivalent {@link java.time.zone.ZoneRules}, which are then used to evaluate offsets of decoded rules.
+     */
+    java.time.zone.ZoneRules toZoneRules() {
+        return java.time.zone.ZoneRules.of(
+                offset(this.standardOffsets[0]),
+                offset(this.wallOffsets[0]),
+                transitions(this.standardTransitions, this.standardOffsets),
+                transitions(this.savingsTransitions, this.wallOffsets),
+                this.lastRules.stream()
+                        .map(TimeZoneProviderToolRules::lastRule)
+                        .collect(Collectors.toList())
+        );
+    }
+
+    private static List<ZoneOffsetTransition> transitions(final long[] transitions,
+                                                          final int[] offsets) {
+        final List<ZoneOffsetTransition> list = Lists.array();
+
+        for (int i = 0; i < transitions.length; i++) {
+            final ZoneOffset before = offset(offsets[i]);
+            list.add(
+                    ZoneOffsetTransition.of(
+                            LocalDateTime.ofEpochSecond(transitions[i], 0, before),
+                            before,
+                            offset(offsets[i + 1])
+                    )
+            );
+        }
+
+        return list;
+    }
+
+    /**
+     * Unpacks a last rule read by {@link #readLastRules(int, DataInput)}.
+     */
+    private static ZoneOffsetTransitionRule lastRule(final int[] rule) {
+        final int packed = rule[0];
+
+        final int month = packed >>> 28;
+        final int dayOfMonthIndicator = ((packed >>> 22) & 63) - 32;
+        final int dayOfWeek = (packed >>> 19) & 7;
+        final int timeByte = (packed >>> 14) & 31;
+        final int timeDefinition = (packed >>> 12) & 3;
+        final int standardOffsetByte = (packed >>> 4) & 255;
+        final int beforeByte = (packed >>> 2) & 3;
+        final int afterByte = packed & 3;
+
+        int next = 1;
+        final LocalTime time = 31 == timeByte ?
+                LocalTime.ofSecondOfDay(rule[next++]) :
+                LocalTime.of(timeByte % 24, 0);
+        final int standardOffset = 255 == standardOffsetByte ?
+                rule[next++] :
+                (standardOffsetByte - 128) * 900;
+        final int before = 3 == beforeByte ?
+                rule[next++] :
+                standardOffset + beforeByte * 1800;
+        final int after = 3 == afterByte ?
+                rule[next] :
+                standardOffset + afterByte * 1800;
+
+        return ZoneOffsetTransitionRule.of(
+                Month.of(month),
+                dayOfMonthIndicator,
+                0 == dayOfWeek ?
+                        null :
+                        DayOfWeek.of(dayOfWeek),
+                time,
+                24 == timeByte,
+                ZoneOffsetTransitionRule.TimeDefinition.values()[timeDefinition],
+                offset(standardOffset),
+                offset(before),
+                offset(after)
+        );
+    }
+
+    private static ZoneOffset offset(final int seconds) {
+        return ZoneOffset.ofTotalSeconds(seconds);
+    }
+
+    final long[] standardTransitions;
+    final int[] standardOffsets;
+    final long[] savingsTransitions;
+    final int[] wallOffsets;
+    final List<int[]> lastRules;
+
+    // Object...........................................................................................................
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.savingsTransitions);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other ||
+                other instanceof TimeZoneProviderToolRules && this.equals0((TimeZoneProviderToolRules) other);
+    }
+
+    private boolean equals0(final TimeZoneProviderToolRules other) {
+        return Arrays.equals(this.standardTransitions, other.standardTransitions) &&
+                Arrays.equals(this.standardOffsets, other.standardOffsets) &&
+                Arrays.equals(this.savingsTransitions, other.savingsTransitions) &&
+                Arrays.equals(this.wallOffsets, other.wallOffsets) &&
+                this.lastRulesText().equals(other.lastRulesText());
+    }
+
+    private String lastRulesText() {
+        return this.lastRules.stream()
+                .map(Arrays::toString)
+                .collect(Collectors.joining(","));
+    }
+
+    @Override
+    public String toString() {
+        return this.standardTransitions.length + " standard transitions, " +
+                this.savingsTransitions.length + " savings transitions, " +
+                this.lastRules.size() + " last rules";
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.j2cl.java.util.timezone.zonerulesreader.org.threeten.bp.zone.ZoneRules;
+import walkingkooka.text.CharSequences;
+import walkingkooka.text.printer.IndentingPrinter;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * A pool of distinct {@link ZoneRules}, many zone ids are links or aliases with identical rules which are then only
+ * written once. Rules are compared using their serialized form, and appear in the order they are first used.
+ * <pre>
+ * int rules count
+ * for each rules
+ *     walkingkooka.j2cl.locale.org.threeten.bp.zone.StandardZoneRules.writeExternal or compact rules
+ * end
+ * </pre>
+ */
+final class TimeZoneProviderToolRulesPool {
+
+    static TimeZoneProviderToolRulesPool with(final List<TimeZoneProviderToolZone> zones) throws IOException {
+        return with(zones, TimeZoneProviderToolRulesWindow.ALL);
+    }
+
+    /**
+     * Creates a pool of rules within the window, rules that only differ outside the window are written once.
+     */
+    static TimeZoneProviderToolRulesPool with(final List<TimeZoneProviderToolZone> zones,
+                                              final TimeZoneProviderToolRulesWindow window) throws IOException {
+        final List<ZoneRules> rules = Lists.array();
+        final List<List<String>> rulesZoneIds = Lists.array();
+        final Map<String, Integer> serializedToIndex = Maps.hash();
+        final Map<String, Integer> zoneIdToIndex = Maps.hash();
+
+        for (final TimeZoneProviderToolZone zone : zones) {
+            final String serialized = zone.serializedRules(window);
+
+            Integer index = serializedToIndex.get(serialized);
+            if (null == index) {
+                index = rules.size();
+                serializedToIndex.put(serialized, index);
+                rules.add(zone.rules);
+                rulesZoneIds.add(Lists.array());
+            }
+            rulesZoneIds.get(index)
+                    .add(zone.zoneId);
+            zoneIdToIndex.put(zone.zoneId, index);
+        }
+
+        return new TimeZoneProviderToolRulesPool(rules,
+                rulesZoneIds,
+                zoneIdToIndex,
+                window);
+    }
+
+    private TimeZoneProviderToolRulesPool(final List<ZoneRules> rules,
+                                          final List<List<String>> rulesZoneIds,
+                                          final Map<String, Integer> zoneIdToIndex,
+                                          final TimeZoneProviderToolRulesWindow window) {
+        super();
+        this.rules = rules;
+        this.rulesZoneIds = rulesZoneIds;
+        this.zoneIdToIndex = zoneIdToIndex;
+        this.window = window;
+    }
+
+    /**
+     * Returns the index of the rules for the given zone id.
+     */
+    int index(final String zoneId) {
+        final Integer index = this.zoneIdToIndex.get(zoneId);
+        if (null == index) {
+            throw new IllegalArgumentException("Unknown zoneId " + CharSequences.quoteAndEscape(zoneId));
+        }
+        return index;
+    }
+
+    /**
+     * Writes all rules, in the compact form when compact is true, see {@link TimeZoneProviderToolRules}.
+     */
+    void generate(final DataOutput data,
+                  final boolean compact,
+                  final IndentingPrinter comments) throws IOException {
+        final List<ZoneRules> rules = this.rules;
+        final boolean commenting = TimeZoneProviderTool.isCommenting(comments);
+
+        if (commenting) {
+            comments.lineStart();
+            comments.print("Rules: " + rules.size() + " for " + this.zoneIdToIndex.size() + " zones");
+            comments.indent();
+        }
+
+        data.writeInt(rules.size());
+
+        int i = 0;
+        for (final ZoneRules zoneRules : rules) {
+            if (commenting) {
+                comments.lineStart();
+                comments.print(i + "=" + this.rulesZoneIds.get(i)
+                        .stream()
+                        .collect(Collectors.joining(", ")));
+            }
+
+            if (compact) {
+                this.window.writeCompact(zoneRules, data);
+            } else {
+                this.window.write(zoneRules, data);
+            }
+            i++;
+        }
+
+        if (commenting) {
+            comments.outdent();
+            comments.lineStart();
+            comments.print(comments.lineEnding());
+        }
+    }
+
+    int size() {
+        return this.rules.size();
+    }
+
+    private final List<ZoneRules> rules;
+    private final List<List<String>> rulesZoneIds;
+    private final Map<String, Integer> zoneIdToIndex;
+    private final TimeZoneProviderToolRulesWindow window;
+
+    @Override
+    public String toString() {
+        return this.rulesZoneIds.toString();
+    }
+}
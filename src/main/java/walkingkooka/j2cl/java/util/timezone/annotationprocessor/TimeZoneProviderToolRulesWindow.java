@@ -0,0 +1,157 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.j2cl.java.util.timezone.zonerulesreader.org.threeten.bp.zone.ZoneRules;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Writes {@link ZoneRules} keeping only the transitions within a window of instants. The offsets before the first kept
+ * transition are the offsets in effect at the window minimum. Zones with last rules keep every transition after the
+ * minimum and at least their last transition, the last rules then continue to give correct offsets for all future
+ * dates. The rules are written in the same external form, or the compact form, see {@link TimeZoneProviderToolRules}.
+ */
+final class TimeZoneProviderToolRulesWindow {
+
+    /**
+     * Rules are written unchanged.
+     */
+    final static TimeZoneProviderToolRulesWindow ALL = new TimeZoneProviderToolRulesWindow(Long.MIN_VALUE, Long.MAX_VALUE);
+
+    /**
+     * Creates a window, either bound may be {@link Long#MIN_VALUE} or {@link Long#MAX_VALUE} when absent.
+     */
+    static TimeZoneProviderToolRulesWindow with(final long minEpochSecond,
+                                               final long maxEpochSecond) {
+        if (minEpochSecond > maxEpochSecond) {
+            throw new IllegalArgumentException("Invalid window min " + minEpochSecond + " > max " + maxEpochSecond);
+        }
+        return Long.MIN_VALUE == minEpochSecond && Long.MAX_VALUE == maxEpochSecond ?
+                ALL :
+                new TimeZoneProviderToolRulesWindow(minEpochSecond, maxEpochSecond);
+    }
+
+    private TimeZoneProviderToolRulesWindow(final long minEpochSecond,
+                                            final long maxEpochSecond) {
+        super();
+        this.minEpochSecond = minEpochSecond;
+        this.maxEpochSecond = maxEpochSecond;
+    }
+
+    boolean isAll() {
+        return this == ALL;
+    }
+
+    /**
+     * The minimum epoch second, {@link Long#MIN_VALUE} when absent.
+     */
+    long minEpochSecond() {
+        return this.minEpochSecond;
+    }
+
+    /**
+     * The maximum epoch second, {@link Long#MAX_VALUE} when absent.
+     */
+    long maxEpochSecond() {
+        return this.maxEpochSecond;
+    }
+
+    /**
+     * Returns the rules written as text, used to compare rules between zones.
+     */
+    String serialize(final ZoneRules rules) throws IOException {
+        final StringBuilder serialized = new StringBuilder();
+        this.write(rules, StringDataInputDataOutput.output(serialized::append));
+        return serialized.toString();
+    }
+
+    void write(final ZoneRules rules,
+               final DataOutput output) throws IOException {
+        if (this.isAll()) {
+            rules.writeExternal(output);
+        } else {
+            this.rules(rules)
+                    .writeExternal(output);
+        }
+    }
+
+    /**
+     * Writes the rules within this window in the compact form, see {@link TimeZoneProviderToolRules}.
+     */
+    void writeCompact(final ZoneRules rules,
+                      final DataOutput output) throws IOException {
+        this.rules(rules)
+                .writeCompact(output);
+    }
+
+    /**
+     * Decodes the rules keeping only the transitions within this window.
+     */
+    TimeZoneProviderToolRules rules(final ZoneRules rules) throws IOException {
+        final TimeZoneProviderToolRules decoded = TimeZoneProviderToolRules.from(rules);
+        return this.isAll() ?
+                decoded :
+                decoded.prune(this.minEpochSecond, this.maxEpochSecond);
+    }
+
+    /**
+     * The UTC year of the minimum, or {@link TimeZoneProviderToolYearTable#DEFAULT_FIRST_YEAR} when there is no minimum
+     * or the maximum is before the default.
+     */
+    int firstYear() {
+        return Long.MIN_VALUE == this.minEpochSecond ?
+                Math.min(TimeZoneProviderToolYearTable.DEFAULT_FIRST_YEAR, this.lastYear()) :
+                year(this.minEpochSecond);
+    }
+
+    /**
+     * The UTC year of the maximum, or {@link TimeZoneProviderToolYearTable#DEFAULT_LAST_YEAR} when there is no maximum
+     * or the minimum is after the default.
+     */
+    int lastYear() {
+        return Long.MAX_VALUE == this.maxEpochSecond ?
+                Math.max(
+                        TimeZoneProviderToolYearTable.DEFAULT_LAST_YEAR,
+                        Long.MIN_VALUE == this.minEpochSecond ?
+                                TimeZoneProviderToolYearTable.DEFAULT_LAST_YEAR :
+                                year(this.minEpochSecond)
+                ) :
+                year(this.maxEpochSecond);
+    }
+
+    private static int year(final long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC)
+                .getYear();
+    }
+
+    private final long minEpochSecond;
+    private final long maxEpochSecond;
+
+    @Override
+    public String toString() {
+        return (Long.MIN_VALUE == this.minEpochSecond ? "" : Instant.ofEpochSecond(this.minEpochSecond).toString()) +
+                ".." +
+                (Long.MAX_VALUE == this.maxEpochSecond ? "" : Instant.ofEpochSecond(this.maxEpochSecond).toString());
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.j2cl.locale.TimeZoneDisplay;
+import walkingkooka.text.CharSequences;
+import walkingkooka.text.printer.IndentingPrinter;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A table of unique strings, the most used strings are given the lowest indices, ties are sorted alphabetically so
+ * the table is always the same for the same input.
+ * <pre>
+ * int string count
+ * for each string
+ *     String string
+ * end
+ * </pre>
+ */
+final class TimeZoneProviderToolStringTable {
+
+    /**
+     * Creates a table holding all the display names of the given {@link TimeZoneDisplay displays}.
+     */
+    static TimeZoneProviderToolStringTable displays(final Collection<TimeZoneDisplay> displays) {
+        final Map<String, Integer> stringToCount = Maps.hash();
+
+        for (final TimeZoneDisplay display : displays) {
+            count(display.shortDisplayName, stringToCount);
+            count(display.shortDisplayNameDaylight, stringToCount);
+            count(display.longDisplayName, stringToCount);
+            count(display.longDisplayNameDaylight, stringToCount);
+        }
+
+        final List<String> strings = Lists.array();
+        strings.addAll(stringToCount.keySet());
+        strings.sort(
+                Comparator.<String>comparingInt(stringToCount::get)
+                        .reversed()
+                        .thenComparing(Comparator.naturalOrder())
+        );
+
+        return new TimeZoneProviderToolStringTable(strings);
+    }
+
+    private static void count(final String string,
+                              final Map<String, Integer> stringToCount) {
+        stringToCount.merge(string, 1, Integer::sum);
+    }
+
+    private TimeZoneProviderToolStringTable(final List<String> strings) {
+        super();
+        this.strings = strings;
+
+        final Map<String, Integer> stringToIndex = Maps.hash();
+        for (final String string : strings) {
+            stringToIndex.put(string, stringToIndex.size());
+        }
+        this.stringToIndex = stringToIndex;
+    }
+
+    /**
+     * Returns the index of the given string, failing if it is not present.
+     */
+    int index(final String string) {
+        final Integer index = this.stringToIndex.get(string);
+        if (null == index) {
+            throw new IllegalArgumentException("Unknown string " + CharSequences.quoteAndEscape(string));
+        }
+        return index;
+    }
+
+    /**
+     * Writes the indices of the four display names in the same order as {@link TimeZoneDisplay#write(DataOutput)}.
+     */
+    void write(final TimeZoneDisplay display,
+               final DataOutput data) throws IOException {
+        data.writeInt(this.index(display.shortDisplayName));
+        data.writeInt(this.index(display.shortDisplayNameDaylight));
+        data.writeInt(this.index(display.longDisplayName));
+        data.writeInt(this.index(display.longDisplayNameDaylight));
+    }
+
+    void generate(final DataOutput data,
+                  final IndentingPrinter comments) throws IOException {
+        final List<String> strings = this.strings;
+        final boolean commenting = TimeZoneProviderTool.isCommenting(comments);
+
+        if (commenting) {
+            comments.lineStart();
+            comments.print("Strings: " + strings.size());
+            comments.indent();
+        }
+
+        data.writeInt(strings.size());
+
+        int i = 0;
+        for (final String string : strings) {
+            if (commenting) {
+                comments.lineStart();
+                comments.print(i + "=" + CharSequences.quoteAndEscape(string));
+            }
+
+            data.writeUTF(string);
+            i++;
+        }
+
+        if (commenting) {
+            comments.outdent();
+            comments.lineStart();
+            comments.print(comments.lineEnding());
+        }
+    }
+
+    int size() {
+        return this.strings.size();
+    }
+
+    private final List<String> strings;
+    private final Map<String, Integer> stringToIndex;
+
+    @Override
+    public String toString() {
+        return this.strings.toString();
+    }
+}
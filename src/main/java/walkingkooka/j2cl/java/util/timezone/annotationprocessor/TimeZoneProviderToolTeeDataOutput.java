@@ -0,0 +1,134 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * A {@link DataOutput} that writes everything to two outputs, used to measure data written to an output that cannot be
+ * read back.
+ */
+final class TimeZoneProviderToolTeeDataOutput implements DataOutput {
+
+    static TimeZoneProviderToolTeeDataOutput with(final DataOutput first,
+                                                  final DataOutput second) {
+        return new TimeZoneProviderToolTeeDataOutput(first, second);
+    }
+
+    private TimeZoneProviderToolTeeDataOutput(final DataOutput first,
+                                              final DataOutput second) {
+        super();
+        this.first = first;
+        this.second = second;
+    }
+
+    @Override
+    public void write(final int b) throws IOException {
+        this.first.write(b);
+        this.second.write(b);
+    }
+
+    @Override
+    public void write(final byte[] b) throws IOException {
+        this.first.write(b);
+        this.second.write(b);
+    }
+
+    @Override
+    public void write(final byte[] b,
+                      final int off,
+                      final int len) throws IOException {
+        this.first.write(b, off, len);
+        this.second.write(b, off, len);
+    }
+
+    @Override
+    public void writeBoolean(final boolean v) throws IOException {
+        this.first.writeBoolean(v);
+        this.second.writeBoolean(v);
+    }
+
+    @Override
+    public void writeByte(final int v) throws IOException {
+        this.first.writeByte(v);
+        this.second.writeByte(v);
+    }
+
+    @Override
+    public void writeShort(final int v) throws IOException {
+        this.first.writeShort(v);
+        this.second.writeShort(v);
+    }
+
+    @Override
+    public void writeChar(final int v) throws IOException {
+        this.first.writeChar(v);
+        this.second.writeChar(v);
+    }
+
+    @Override
+    public void writeInt(final int v) throws IOException {
+        this.first.writeInt(v);
+        this.second.writeInt(v);
+    }
+
+    @Override
+    public void writeLong(final long v) throws IOException {
+        this.first.writeLong(v);
+        this.second.writeLong(v);
+    }
+
+    @Override
+    public void writeFloat(final float v) throws IOException {
+        this.first.writeFloat(v);
+        this.second.writeFloat(v);
+    }
+
+    @Override
+    public void writeDouble(final double v) throws IOException {
+        this.first.writeDouble(v);
+        this.second.writeDouble(v);
+    }
+
+    @Override
+    public void writeBytes(final String s) throws IOException {
+        this.first.writeBytes(s);
+        this.second.writeBytes(s);
+    }
+
+    @Override
+    public void writeChars(final String s) throws IOException {
+        this.first.writeChars(s);
+        this.second.writeChars(s);
+    }
+
+    @Override
+    public void writeUTF(final String s) throws IOException {
+        this.first.writeUTF(s);
+        this.second.writeUTF(s);
+    }
+
+    private final DataOutput first;
+    private final DataOutput second;
+
+    @Override
+    public String toString() {
+        return this.first + " " + this.second;
+    }
+}
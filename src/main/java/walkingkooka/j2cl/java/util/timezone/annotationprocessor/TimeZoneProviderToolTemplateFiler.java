@@ -0,0 +1,190 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.util.Elements;
+import javax.lang.model.util.Types;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileObject;
+import javax.tools.JavaFileManager.Location;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Filer} that replaces the {@link #PLACEHOLDER} in the source of the template class written by the base
+ * locale processor, which only fills its own placeholders. All other files are created by the wrapped {@link Filer}.
+ */
+final class TimeZoneProviderToolTemplateFiler implements Filer {
+
+    /**
+     * The placeholder following {@code $DATA} in the template, replaced by the expression that appends the data of any
+     * generated data class. It must not start with {@code $DATA} which is replaced by the base processor.
+     */
+    final static String PLACEHOLDER = "$APPEND_DATA";
+
+    /**
+     * The generated template class.
+     */
+    final static String CLASS_NAME = TimeZoneProviderToolChunkWriter.PACKAGE + ".TimeZoneProvider";
+
+    /**
+     * Returns a {@link ProcessingEnvironment} identical to the given except for its {@link Filer}.
+     */
+    static ProcessingEnvironment environment(final ProcessingEnvironment environment,
+                                             final Supplier<String> appendData) {
+        final Filer filer = with(environment.getFiler(), appendData);
+
+        return new ProcessingEnvironment() {
+            @Override
+            public Map<String, String> getOptions() {
+                return environment.getOptions();
+            }
+
+            @Override
+            public Messager getMessager() {
+                return environment.getMessager();
+            }
+
+            @Override
+            public Filer getFiler() {
+                return filer;
+            }
+
+            @Override
+            public Elements getElementUtils() {
+                return environment.getElementUtils();
+            }
+
+            @Override
+            public Types getTypeUtils() {
+                return environment.getTypeUtils();
+            }
+
+            @Override
+            public SourceVersion getSourceVersion() {
+                return environment.getSourceVersion();
+            }
+
+            @Override
+            public Locale getLocale() {
+                return environment.getLocale();
+            }
+
+            @Override
+            public String toString() {
+                return environment.toString();
+            }
+        };
+    }
+
+    static TimeZoneProviderToolTemplateFiler with(final Filer filer,
+                                                  final Supplier<String> appendData) {
+        return new TimeZoneProviderToolTemplateFiler(filer, appendData);
+    }
+
+    private TimeZoneProviderToolTemplateFiler(final Filer filer,
+                                              final Supplier<String> appendData) {
+        super();
+        this.filer = filer;
+        this.appendData = appendData;
+    }
+
+    @Override
+    public JavaFileObject createSourceFile(final CharSequence name,
+                                           final Element... originatingElements) throws IOException {
+        final JavaFileObject file = this.filer.createSourceFile(name, originatingElements);
+
+        return CLASS_NAME.contentEquals(name) ?
+                this.template(file) :
+                file;
+    }
+
+    /**
+     * The source is buffered and written with the placeholder replaced when closed, the replacement is only fetched
+     * then, after the data has been generated.
+     */
+    private JavaFileObject template(final JavaFileObject file) {
+        final Supplier<String> appendData = this.appendData;
+
+        return new ForwardingJavaFileObject<JavaFileObject>(file) {
+            @Override
+            public Writer openWriter() throws IOException {
+                final Writer writer = super.openWriter();
+
+                return new StringWriter() {
+                    @Override
+                    public void close() throws IOException {
+                        if (false == this.closed) {
+                            this.closed = true;
+                            try {
+                                writer.write(
+                                        this.toString()
+                                                .replace(PLACEHOLDER, appendData.get())
+                                );
+                            } finally {
+                                writer.close();
+                            }
+                        }
+                    }
+
+                    private boolean closed;
+                };
+            }
+        };
+    }
+
+    @Override
+    public JavaFileObject createClassFile(final CharSequence name,
+                                          final Element... originatingElements) throws IOException {
+        return this.filer.createClassFile(name, originatingElements);
+    }
+
+    @Override
+    public FileObject createResource(final Location location,
+                                     final CharSequence moduleAndPkg,
+                                     final CharSequence relativeName,
+                                     final Element... originatingElements) throws IOException {
+        return this.filer.createResource(location, moduleAndPkg, relativeName, originatingElements);
+    }
+
+    @Override
+    public FileObject getResource(final Location location,
+                                  final CharSequence moduleAndPkg,
+                                  final CharSequence relativeName) throws IOException {
+        return this.filer.getResource(location, moduleAndPkg, relativeName);
+    }
+
+    private final Filer filer;
+
+    private final Supplier<String> appendData;
+
+    @Override
+    public String toString() {
+        return this.filer.toString();
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import walkingkooka.collect.list.Lists;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.j2cl.locale.TimeZoneCalendar;
+import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
+import walkingkooka.text.CharSequences;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.TimeZone;
+
+/**
+ * Generates data, decodes it with {@link TimeZoneProviderToolDecoder} and compares every selected zone with the JDK.
+ * Offsets and daylight time are compared with the {@link ZoneRules} of the zone at random instants and either side of
+ * every transition within the rules window, clamped to the years 1900 to 2100. The JDK {@link TimeZone} is not used for
+ * offsets, it disagrees with its own {@link ZoneRules} after 2037 for zones like Africa/Casablanca, and reports daylight
+ * time differently for zones whose standard offset changed. Display names and calendars are compared with the
+ * {@link TimeZone} for every selected locale.
+ */
+final class TimeZoneProviderToolVerifier {
+
+    /**
+     * Expects a locale filter, timezone filter, csv of features and count of random instants, eg
+     * <pre>
+     * EN* * ZONE_INDEX,COMPACT_RULES 1000
+     * </pre>
+     */
+    public static void main(final String[] args) throws Exception {
+        if (args.length != 4) {
+            throw new IllegalArgumentException("Expected locales, timezones, features and instant count but got " + args.length + " arguments");
+        }
+
+        final Set<Locale> locales = WalkingkookaLanguageTag.locales(args[0]);
+        final Set<String> zoneIds = TimeZoneProviderTool.timezoneIds(args[1]);
+        final Set<TimeZoneProviderToolFeature> features = TimeZoneProviderToolFeature.parse(args[2]);
+
+        final String data = generate(
+                locales,
+                zoneIds,
+                features,
+                TimeZoneProviderToolRulesWindow.ALL
+        );
+
+        final long start = System.nanoTime();
+        final int count = decodeAll(data);
+        final long nanos = System.nanoTime() - start;
+        System.out.println("decoded " + count + " zones in " + nanos / 1000_000 + "ms, " + (count * 1000_000_000L / Math.max(1, nanos)) + " zones/s");
+
+        final List<String> mismatches = verify(
+                locales,
+                zoneIds,
+                data,
+                TimeZoneProviderToolRulesWindow.ALL,
+                Integer.parseInt(args[3]),
+                0
+        );
+        mismatches.forEach(System.out::println);
+        System.out.println(mismatches.size() + " mismatches");
+    }
+
+    /**
+     * Generates the data without comments.
+     */
+    static String generate(final Set<Locale> locales,
+                           final Set<String> zoneIds,
+                           final Set<TimeZoneProviderToolFeature> features,
+                           final TimeZoneProviderToolRulesWindow rulesWindow) throws Exception {
+        final StringBuilder data = new StringBuilder();
+        TimeZoneProviderTool.generate(
+                locales,
+                zoneIds,
+                features,
+                rulesWindow,
+                true,
+                StringDataInputDataOutput.output(data::append),
+                TimeZoneProviderTool.NO_COMMENTS,
+                TimeZoneProviderToolReport.empty()
+        );
+        return data.toString();
+    }
+
+    /**
+     * Decodes every zone returning the number of zone ids.
+     */
+    static int decodeAll(final String data) throws IOException {
+        final TimeZoneProviderToolDecoder decoder = TimeZoneProviderToolDecoder.read(data);
+
+        int count = 0;
+        for (final String zoneId : decoder.zoneIds()) {
+            decoder.zone(zoneId)
+                    .get();
+            count++;
+        }
+        return count;
+    }
+
+    /**
+     * Generates then verifies the data, returning a message for each mismatch.
+     */
+    static List<String> verify(final Set<Locale> locales,
+                               final Set<String> zoneIds,
+                               final Set<TimeZoneProviderToolFeature> features,
+                               final TimeZoneProviderToolRulesWindow rulesWindow,
+                               final int instantCount,
+                               final long seed) throws Exception {
+        return verify(
+                locales,
+                zoneIds,
+                generate(locales, zoneIds, features, rulesWindow),
+                rulesWindow,
+                instantCount,
+                seed
+        );
+    }
+
+    /**
+     * Verifies previously generated data, returning a message for each mismatch.
+     */
+    static List<String> verify(final Set<Locale> locales,
+                               final Set<String> zoneIds,
+                               final String data,
+                               final TimeZoneProviderToolRulesWindow rulesWindow,
+                               final int instantCount,
+                               final long seed) throws IOException {
+        final TimeZoneProviderToolDecoder decoder = TimeZoneProviderToolDecoder.read(data);
+        final List<String> mismatches = Lists.array();
+
+        final long min = 1000 * Math.max(rulesWindow.minEpochSecond(), MIN_EPOCH_SECOND);
+        final long max = 1000 * Math.min(rulesWindow.maxEpochSecond(), MAX_EPOCH_SECOND);
+        final Random random = new Random(seed);
+
+        for (final String zoneId : zoneIds) {
+            final Optional<TimeZoneProviderToolDecodedZone> decoded = decoder.zone(zoneId);
+            if (false == decoded.isPresent()) {
+                mismatches.add(zoneId + " missing");
+                continue;
+            }
+
+            final TimeZoneProviderToolDecodedZone zone = decoded.get();
+            final TimeZone timeZone = TimeZone.getTimeZone(zoneId);
+
+            check(zoneId, "rawOffset", timeZone.getRawOffset(), zone.rawOffset(), mismatches);
+
+            final ZoneRules rules = timeZone.toZoneId().getRules();
+            for (int i = 0; i < instantCount; i++) {
+                checkInstant(zoneId, rules, zone, min + (long) (random.nextDouble() * (max - min)), mismatches);
+            }
+
+            ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochMilli(min));
+            while (null != transition && transition.toEpochSecond() * 1000 < max) {
+                final long transitionMillis = transition.toEpochSecond() * 1000;
+                checkInstant(zoneId, rules, zone, transitionMillis - 1, mismatches);
+                checkInstant(zoneId, rules, zone, transitionMillis, mismatches);
+
+                transition = rules.nextTransition(transition.getInstant());
+            }
+
+            for (final Locale locale : locales) {
+                checkLocale(zoneId, timeZone, zone, locale, mismatches);
+            }
+        }
+
+        return mismatches;
+    }
+
+    private final static long MIN_EPOCH_SECOND = Instant.parse("1900-01-01T00:00:00Z").getEpochSecond();
+
+    private final static long MAX_EPOCH_SECOND = Instant.parse("2100-01-01T00:00:00Z").getEpochSecond();
+
+    private static void checkInstant(final String zoneId,
+                                     final ZoneRules rules,
+                                     final TimeZoneProviderToolDecodedZone zone,
+                                     final long epochMillis,
+                                     final List<String> mismatches) {
+        final Instant instant = Instant.ofEpochMilli(epochMillis);
+
+        check(zoneId, "getOffset " + instant, 1000 * rules.getOffset(instant).getTotalSeconds(), zone.getOffset(epochMillis), mismatches);
+        check(zoneId, "inDaylightTime " + instant, rules.isDaylightSavings(instant), zone.inDaylightTime(epochMillis), mismatches);
+    }
+
+    private static void checkLocale(final String zoneId,
+                                    final TimeZone timeZone,
+                                    final TimeZoneProviderToolDecodedZone zone,
+                                    final Locale locale,
+                                    final List<String> mismatches) {
+        final String languageTag = locale.toLanguageTag();
+
+        for (final boolean daylight : new boolean[]{false, true}) {
+            for (final int style : new int[]{TimeZone.SHORT, TimeZone.LONG}) {
+                check(
+                        zoneId,
+                        "getDisplayName " + daylight + " " + (TimeZone.SHORT == style ? "SHORT" : "LONG") + " " + languageTag,
+                        CharSequences.quoteAndEscape(timeZone.getDisplayName(daylight, style, locale)),
+                        CharSequences.quoteAndEscape(zone.getDisplayName(daylight, style, locale)),
+                        mismatches
+                );
+            }
+        }
+
+        check(
+                zoneId,
+                "calendar " + languageTag,
+                TimeZoneCalendar.with(GregorianCalendar.getInstance(timeZone, locale)),
+                zone.calendar(locale),
+                mismatches
+        );
+    }
+
+    private static void check(final String zoneId,
+                              final String label,
+                              final Object expected,
+                              final Object actual,
+                              final List<String> mismatches) {
+        if (false == expected.equals(actual)) {
+            mismatches.add(zoneId + " " + label + " expected " + expected + " but got " + actual);
+        }
+    }
+
+    /**
+     * Stop creation
+     */
+    private TimeZoneProviderToolVerifier() {
+        throw new UnsupportedOperationException();
+    }
+}
@@ -0,0 +1,218 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import walkingkooka.collect.list.Lists;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.Arrays;
+import java.util.List;
+import java.util.OptionalInt;
+import java.util.stream.Collectors;
+
+/**
+ * A dense table of the offset at the start of each year and the transitions within the year, so a reader may answer
+ * getOffset with an array lookup, falling back to the rules for instants outside the years. Years start at midnight
+ * UTC on the first of January. Zones whose offset never changes within the years write no years and always use their
+ * rules.
+ * <pre>
+ * int first year
+ * int year count
+ * for each year
+ *     int offset seconds at the start of the year
+ *     int transition count
+ *     for each transition
+ *         int seconds since the start of the year
+ *         int offset seconds after the transition
+ *     end
+ * end
+ * </pre>
+ */
+final class TimeZoneProviderToolYearTable {
+
+    /**
+     * The first year when the window has no minimum.
+     */
+    final static int DEFAULT_FIRST_YEAR = 1970;
+
+    /**
+     * The last year when the window has no maximum, the last full year of 32 bit unix time.
+     */
+    final static int DEFAULT_LAST_YEAR = 2037;
+
+    static TimeZoneProviderToolYearTable with(final ZoneRules rules,
+                                              final int firstYear,
+                                              final int lastYear) {
+        if (firstYear > lastYear) {
+            throw new IllegalArgumentException("Invalid years first " + firstYear + " > last " + lastYear);
+        }
+
+        final List<int[]> years = Lists.array();
+        boolean fixed = true;
+        int previousOffset = offset(rules, yearStart(firstYear));
+
+        for (int year = firstYear; year <= lastYear; year++) {
+            final long start = yearStart(year);
+            final long end = yearStart(year + 1);
+
+            final List<ZoneOffsetTransition> transitions = Lists.array();
+            ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochSecond(start));
+            while (null != transition && transition.toEpochSecond() < end) {
+                transitions.add(transition);
+                transition = rules.nextTransition(transition.getInstant());
+            }
+
+            final int startOffset = offset(rules, start);
+            final int[] entry = new int[1 + transitions.size() * 2];
+            entry[0] = startOffset;
+
+            int i = 1;
+            for (final ZoneOffsetTransition t : transitions) {
+                entry[i++] = (int) (t.toEpochSecond() - start);
+                entry[i++] = t.getOffsetAfter().getTotalSeconds();
+            }
+            years.add(entry);
+
+            fixed = fixed && transitions.isEmpty() && startOffset == previousOffset;
+            previousOffset = startOffset;
+        }
+
+        return new TimeZoneProviderToolYearTable(
+                firstYear,
+                fixed ?
+                        Lists.empty() :
+                        years
+        );
+    }
+
+    private static int offset(final ZoneRules rules,
+                              final long epochSecond) {
+        return rules.getOffset(Instant.ofEpochSecond(epochSecond))
+                .getTotalSeconds();
+    }
+
+    /**
+     * Reads a table written by {@link #write(DataOutput)}.
+     */
+    static TimeZoneProviderToolYearTable read(final DataInput data) throws IOException {
+        final int firstYear = data.readInt();
+        final int yearCount = data.readInt();
+
+        final List<int[]> years = Lists.array();
+        for (int i = 0; i < yearCount; i++) {
+            final int startOffset = data.readInt();
+            final int[] entry = new int[1 + data.readInt() * 2];
+            entry[0] = startOffset;
+            for (int j = 1; j < entry.length; j++) {
+                entry[j] = data.readInt();
+            }
+            years.add(entry);
+        }
+
+        return new TimeZoneProviderToolYearTable(firstYear, years);
+    }
+
+    private TimeZoneProviderToolYearTable(final int firstYear,
+                                          final List<int[]> years) {
+        super();
+        this.firstYear = firstYear;
+        this.years = years;
+    }
+
+    void write(final DataOutput data) throws IOException {
+        data.writeInt(this.firstYear);
+        data.writeInt(this.years.size());
+
+        for (final int[] entry : this.years) {
+            data.writeInt(entry[0]);
+            data.writeInt(entry.length / 2);
+            for (int i = 1; i < entry.length; i++) {
+                data.writeInt(entry[i]);
+            }
+        }
+    }
+
+    /**
+     * Returns the offset in seconds at the given instant, or empty when the instant is outside the years and the rules
+     * must be used.
+     */
+    OptionalInt offset(final long epochSecond) {
+        final int index = LocalDateTime.ofEpochSecond(epochSecond, 0, ZoneOffset.UTC).getYear() - this.firstYear;
+
+        OptionalInt offset = OptionalInt.empty();
+        if (index >= 0 && index < this.years.size()) {
+            final int[] entry = this.years.get(index);
+            final long seconds = epochSecond - yearStart(this.firstYear + index);
+
+            int value = entry[0];
+            for (int i = 1; i < entry.length && entry[i] <= seconds; i += 2) {
+                value = entry[i + 1];
+            }
+            offset = OptionalInt.of(value);
+        }
+        return offset;
+    }
+
+    private static long yearStart(final int year) {
+        return LocalDate.of(year, 1, 1).toEpochDay() * 24 * 60 * 60;
+    }
+
+    /**
+     * The number of years in the table, zero when the offset never changes.
+     */
+    int size() {
+        return this.years.size();
+    }
+
+    private final int firstYear;
+    private final List<int[]> years;
+
+    // Object...........................................................................................................
+
+    @Override
+    public int hashCode() {
+        return this.firstYear ^ this.years.size();
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return this == other ||
+                other instanceof TimeZoneProviderToolYearTable && this.equals0((TimeZoneProviderToolYearTable) other);
+    }
+
+    private boolean equals0(final TimeZoneProviderToolYearTable other) {
+        return this.firstYear == other.firstYear &&
+                this.toString().equals(other.toString());
+    }
+
+    @Override
+    public String toString() {
+        return this.firstYear + " " +
+                this.years.stream()
+                        .map(Arrays::toString)
+                        .collect(Collectors.joining(","));
+    }
+}
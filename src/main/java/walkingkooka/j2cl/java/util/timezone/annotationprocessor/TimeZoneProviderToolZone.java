@@ -0,0 +1,124 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import walkingkooka.collect.map.Maps;
+import walkingkooka.j2cl.java.util.timezone.zonerulesreader.org.threeten.bp.zone.ZoneRules;
+import walkingkooka.j2cl.locale.TimeZoneCalendar;
+import walkingkooka.j2cl.locale.TimeZoneDisplay;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+
+/**
+ * Holds everything harvested for a single zone, before anything is written to the {@link java.io.DataOutput} or comments.
+ */
+final class TimeZoneProviderToolZone {
+
+    static TimeZoneProviderToolZone with(final String zoneId,
+                                         final TimeZone timeZone,
+                                         final ZoneRules rules,
+                                         final Map<TimeZoneCalendar, Set<Locale>> calendarToLocales,
+                                         final Map<TimeZoneDisplay, Set<Locale>> displayToLocales) {
+        return new TimeZoneProviderToolZone(zoneId,
+                timeZone,
+                rules,
+                calendarToLocales,
+                displayToLocales);
+    }
+
+    private TimeZoneProviderToolZone(final String zoneId,
+                                     final TimeZone timeZone,
+                                     final ZoneRules rules,
+                                     final Map<TimeZoneCalendar, Set<Locale>> calendarToLocales,
+                                     final Map<TimeZoneDisplay, Set<Locale>> displayToLocales) {
+        super();
+        this.zoneId = zoneId;
+        this.timeZone = timeZone;
+        this.rules = rules;
+        this.calendarToLocales = calendarToLocales;
+        this.displayToLocales = displayToLocales;
+    }
+
+    /**
+     * Returns a copy with its own maps, writing a zone removes the most popular calendar and display from its maps.
+     */
+    TimeZoneProviderToolZone copy() {
+        final Map<TimeZoneCalendar, Set<Locale>> calendarToLocales = Maps.ordered();
+        calendarToLocales.putAll(this.calendarToLocales);
+
+        final Map<TimeZoneDisplay, Set<Locale>> displayToLocales = Maps.ordered();
+        displayToLocales.putAll(this.displayToLocales);
+
+        return new TimeZoneProviderToolZone(
+                this.zoneId,
+                this.timeZone,
+                this.rules,
+                calendarToLocales,
+                displayToLocales
+        );
+    }
+
+    /**
+     * The serialized form of the {@link ZoneRules} within the window, used to compare rules between zones.
+     */
+    String serializedRules(final TimeZoneProviderToolRulesWindow window) throws IOException {
+        return window.serialize(this.rules);
+    }
+
+    /**
+     * The offsets of each year within the years of the window.
+     */
+    TimeZoneProviderToolYearTable yearTable(final TimeZoneProviderToolRulesWindow window) {
+        return TimeZoneProviderToolYearTable.with(
+                this.timeZone.toZoneId().getRules(),
+                window.firstYear(),
+                window.lastYear()
+        );
+    }
+
+    /**
+     * The number of calendars, displays and locales held, which dominate the heap retained by a remembered zone.
+     */
+    int weight() {
+        return weight(this.calendarToLocales) +
+                weight(this.displayToLocales);
+    }
+
+    private static int weight(final Map<?, Set<Locale>> valueToLocales) {
+        int weight = valueToLocales.size();
+        for (final Set<Locale> locales : valueToLocales.values()) {
+            weight += locales.size();
+        }
+        return weight;
+    }
+
+    final String zoneId;
+    final TimeZone timeZone;
+    final ZoneRules rules;
+    final Map<TimeZoneCalendar, Set<Locale>> calendarToLocales;
+    final Map<TimeZoneDisplay, Set<Locale>> displayToLocales;
+
+    @Override
+    public String toString() {
+        return this.zoneId;
+    }
+}
@@ -18,11 +18,29 @@
 package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
 
 import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.j2cl.locale.LocaleAware;
 import walkingkooka.reflect.ClassTesting;
 import walkingkooka.reflect.JavaVisibility;
 
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaCompiler.CompilationTask;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.stream.Stream;
+
 public final class TimeZoneProviderAnnotationProcessorTest implements ClassTesting<TimeZoneProviderAnnotationProcessor> {
 
+    private final static String OPTION = "walkingkooka.j2cl.java.util.TimeZone.";
+
     @Test
     public void testDefaultPublicConstructor() throws Exception {
         this.checkEquals(
@@ -31,6 +49,121 @@ public final class TimeZoneProviderAnnotationProcessorTest implements ClassTesti
         );
     }
 
+    @Test
+    public void testCompile() throws IOException {
+        this.compileAndCheck(
+                TimeZoneProviderToolTemplateFiler.CLASS_NAME
+        );
+    }
+
+    @Test
+    public void testCompileChunked() throws IOException {
+        this.compileAndCheck(
+                TimeZoneProviderToolChunkWriter.PACKAGE + "." + TimeZoneProviderToolChunkWriter.CLASS_NAME,
+                OPTION + "CHUNKED=true"
+        );
+    }
+
+    @Test
+    public void testCompileStreaming() throws IOException {
+        this.compileAndCheck(
+                TimeZoneProviderToolChunkWriter.PACKAGE + "." + TimeZoneProviderToolChunkWriter.CLASS_NAME,
+                OPTION + "STREAMING=true"
+        );
+    }
+
+    @Test
+    public void testCompileSharded() throws IOException {
+        this.compileAndCheck(
+                TimeZoneProviderToolChunkWriter.PACKAGE + "." + TimeZoneProviderToolRegions.CLASS_NAME,
+                OPTION + "SHARDED=true"
+        );
+    }
+
+    @Test
+    public void testCompileCacheTwice() throws IOException {
+        final Path cache = Files.createTempDirectory(this.getClass().getSimpleName());
+
+        // the first compile must generate rather than reuse data remembered by another test.
+        TimeZoneProviderTool.clearMemo();
+
+        for (int i = 0; i < 2; i++) {
+            this.compileAndCheck(
+                    TimeZoneProviderToolChunkWriter.PACKAGE + "." + TimeZoneProviderToolChunkWriter.CLASS_NAME,
+                    OPTION + "CACHE=" + cache
+            );
+        }
+
+        try (final Stream<Path> files = Files.list(cache)) {
+            this.checkEquals(
+                    1L,
+                    files.filter(f -> f.toString().endsWith(".cache")).count(),
+                    "cache files"
+            );
+        }
+    }
+
+    /**
+     * Compiles a class annotated with {@link LocaleAware} with a new processor and the given options, and checks the
+     * generated class was compiled.
+     */
+    private void compileAndCheck(final String generatedClassName,
+                                 final String... options) throws IOException {
+        final Path directory = Files.createTempDirectory(this.getClass().getSimpleName());
+        final Path source = directory.resolve("Sample.java");
+        Files.write(
+                source,
+                ("@" + LocaleAware.class.getName() + "\npublic class Sample {\n}\n").getBytes(StandardCharsets.UTF_8)
+        );
+        final Path classes = Files.createDirectory(directory.resolve("classes"));
+        final Path sources = Files.createDirectory(directory.resolve("sources"));
+
+        final List<String> arguments = Lists.array();
+        arguments.add("-classpath");
+        arguments.add(System.getProperty("java.class.path"));
+        arguments.add("-d");
+        arguments.add(classes.toString());
+        arguments.add("-s");
+        arguments.add(sources.toString());
+        arguments.add("-Awalkingkooka.j2cl.java.util.Locale=EN-AU");
+        arguments.add("-Awalkingkooka.j2cl.java.util.TimeZone=Australia/*");
+        arguments.add("-A" + OPTION + "DEFAULT=Australia/Sydney");
+        for (final String option : options) {
+            arguments.add("-A" + option);
+        }
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+
+        try (final StandardJavaFileManager files = compiler.getStandardFileManager(diagnostics, Locale.ENGLISH, StandardCharsets.UTF_8)) {
+            final CompilationTask task = compiler.getTask(
+                    null,
+                    files,
+                    diagnostics,
+                    arguments,
+                    null,
+                    files.getJavaFileObjects(source.toFile())
+            );
+            task.setProcessors(
+                    Lists.of(new TimeZoneProviderAnnotationProcessor())
+            );
+
+            this.checkEquals(
+                    true,
+                    task.call(),
+                    () -> "compile " + arguments + "\n" + diagnostics.getDiagnostics()
+            );
+        }
+
+        this.checkEquals(
+                true,
+                Files.exists(classes.resolve(generatedClassName.replace('.', '/') + ".class")),
+                () -> generatedClassName + " compiled " + arguments
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
     @Override
     public Class<TimeZoneProviderAnnotationProcessor> type() {
         return TimeZoneProviderAnnotationProcessor.class;
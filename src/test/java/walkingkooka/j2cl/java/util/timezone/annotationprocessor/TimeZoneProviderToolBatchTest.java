@@ -0,0 +1,145 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class TimeZoneProviderToolBatchTest implements ClassTesting<TimeZoneProviderToolBatch> {
+
+    @Test
+    public void testRead() throws IOException {
+        this.checkEquals(
+                "[au EN-AU Australia* [], en EN* * [ZONE_INDEX, COMPACT_RULES]]",
+                read("# name\tlocales\ttimezones\tfeatures\n" +
+                        "\n" +
+                        "au\tEN-AU\tAustralia*\n" +
+                        "en\tEN*\t*\tZONE_INDEX,COMPACT_RULES\n").toString()
+        );
+    }
+
+    @Test
+    public void testReadMissingColumnFails() {
+        this.readFails("au\tEN-AU\n");
+    }
+
+    @Test
+    public void testReadExtraColumnFails() {
+        this.readFails("au\tEN-AU\tAustralia*\tZONE_INDEX\textra\n");
+    }
+
+    @Test
+    public void testReadInvalidNameFails() {
+        this.readFails("../au\tEN-AU\tAustralia*\n");
+    }
+
+    @Test
+    public void testReadDuplicateNameFails() {
+        this.readFails("au\tEN-AU\tAustralia*\n" +
+                "au\tEN-NZ\tPacific*\n");
+    }
+
+    @Test
+    public void testReadUnknownFeatureFails() {
+        this.readFails("au\tEN-AU\tAustralia*\tUNKNOWN\n");
+    }
+
+    private void readFails(final String manifest) {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> read(manifest)
+        );
+    }
+
+    @Test
+    public void testGenerate() throws Exception {
+        final Path directory = Files.createTempDirectory(this.getClass().getSimpleName());
+        final TimeZoneProviderToolDisplayNames displayNames = TimeZoneProviderToolDisplayNames.create();
+        final TimeZoneProviderToolCalendars calendars = TimeZoneProviderToolCalendars.create();
+
+        final List<String> summaries = read("au\tEN-AU\tAustralia*\n" +
+                "nz\tEN-NZ\tPacific*\tGLOBAL_CALENDAR,ZONE_INDEX\n")
+                .stream()
+                .map(c -> {
+                    try {
+                        return c.generate(directory, displayNames, calendars);
+                    } catch (final Exception cause) {
+                        throw new IllegalStateException(cause);
+                    }
+                })
+                .collect(Collectors.toList());
+        this.checkEquals(2, summaries.size(), summaries::toString);
+        assertTrue(summaries.get(0).startsWith("au: "), summaries::toString);
+
+        this.checkEquals(
+                TimeZoneProviderToolVerifier.generate(
+                        WalkingkookaLanguageTag.locales("EN-AU"),
+                        TimeZoneProviderTool.timezoneIds("Australia*"),
+                        EnumSet.noneOf(TimeZoneProviderToolFeature.class),
+                        TimeZoneProviderToolRulesWindow.ALL
+                ),
+                readString(directory.resolve("au.txt"))
+        );
+        this.checkEquals(
+                TimeZoneProviderToolVerifier.generate(
+                        WalkingkookaLanguageTag.locales("EN-NZ"),
+                        TimeZoneProviderTool.timezoneIds("Pacific*"),
+                        EnumSet.of(TimeZoneProviderToolFeature.GLOBAL_CALENDAR, TimeZoneProviderToolFeature.ZONE_INDEX),
+                        TimeZoneProviderToolRulesWindow.ALL
+                ),
+                readString(directory.resolve("nz.txt"))
+        );
+
+        final String report = readString(directory.resolve("nz.json"));
+        assertTrue(report.contains("\"dataGzipBytes\""), report);
+    }
+
+    private static List<TimeZoneProviderToolBatch> read(final String manifest) throws IOException {
+        return TimeZoneProviderToolBatch.read(new StringReader(manifest));
+    }
+
+    private static String readString(final Path file) throws IOException {
+        return new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<TimeZoneProviderToolBatch> type() {
+        return TimeZoneProviderToolBatch.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
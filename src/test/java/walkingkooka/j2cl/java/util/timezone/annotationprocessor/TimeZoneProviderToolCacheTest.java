@@ -0,0 +1,236 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+public final class TimeZoneProviderToolCacheTest implements ClassTesting<TimeZoneProviderToolCache> {
+
+    @Test
+    public void testKeySame() {
+        this.checkEquals(
+                key("Australia/Sydney", TimeZoneProviderToolFeature.STRING_TABLE),
+                key("Australia/Sydney", TimeZoneProviderToolFeature.STRING_TABLE)
+        );
+    }
+
+    @Test
+    public void testKeyDifferentZoneIds() {
+        this.checkNotEquals(
+                key("Australia/Sydney", TimeZoneProviderToolFeature.STRING_TABLE),
+                key("Australia/Perth", TimeZoneProviderToolFeature.STRING_TABLE)
+        );
+    }
+
+    @Test
+    public void testKeyDifferentFeatures() {
+        this.checkNotEquals(
+                key("Australia/Sydney", TimeZoneProviderToolFeature.STRING_TABLE),
+                key("Australia/Sydney", TimeZoneProviderToolFeature.RULES_POOL)
+        );
+    }
+
+    @Test
+    public void testKeyDifferentDefaultTimeZone() {
+        this.checkNotEquals(
+                TimeZoneProviderToolCache.key(Sets.of(Locale.ENGLISH), Sets.of("UTC"), EnumSet.noneOf(TimeZoneProviderToolFeature.class), TimeZoneProviderToolRulesWindow.ALL, "UTC", "\n"),
+                TimeZoneProviderToolCache.key(Sets.of(Locale.ENGLISH), Sets.of("UTC"), EnumSet.noneOf(TimeZoneProviderToolFeature.class), TimeZoneProviderToolRulesWindow.ALL, "GMT", "\n")
+        );
+    }
+
+    @Test
+    public void testKeyDifferentLineEnding() {
+        this.checkNotEquals(
+                TimeZoneProviderToolCache.key(Sets.of(Locale.ENGLISH), Sets.of("UTC"), EnumSet.noneOf(TimeZoneProviderToolFeature.class), TimeZoneProviderToolRulesWindow.ALL, "UTC", "\n"),
+                TimeZoneProviderToolCache.key(Sets.of(Locale.ENGLISH), Sets.of("UTC"), EnumSet.noneOf(TimeZoneProviderToolFeature.class), TimeZoneProviderToolRulesWindow.ALL, "UTC", "\r\n")
+        );
+    }
+
+    @Test
+    public void testKeyDifferentRulesWindow() {
+        this.checkNotEquals(
+                TimeZoneProviderToolCache.key(Sets.of(Locale.ENGLISH), Sets.of("UTC"), EnumSet.noneOf(TimeZoneProviderToolFeature.class), TimeZoneProviderToolRulesWindow.ALL, "UTC", "\n"),
+                TimeZoneProviderToolCache.key(Sets.of(Locale.ENGLISH), Sets.of("UTC"), EnumSet.noneOf(TimeZoneProviderToolFeature.class), TimeZoneProviderToolRulesWindow.with(0, Long.MAX_VALUE), "UTC", "\n")
+        );
+    }
+
+    @Test
+    public void testKeyDifferentLocaleProviders() {
+        final String property = "java.locale.providers";
+        final String before = System.getProperty(property);
+        try {
+            System.setProperty(property, "CLDR");
+            final String cldr = key("Australia/Sydney", TimeZoneProviderToolFeature.STRING_TABLE);
+
+            System.setProperty(property, "COMPAT");
+            this.checkNotEquals(
+                    cldr,
+                    key("Australia/Sydney", TimeZoneProviderToolFeature.STRING_TABLE)
+            );
+        } finally {
+            if (null == before) {
+                System.clearProperty(property);
+            } else {
+                System.setProperty(property, before);
+            }
+        }
+    }
+
+    private static String key(final String zoneId,
+                              final TimeZoneProviderToolFeature feature) {
+        return TimeZoneProviderToolCache.key(
+                Sets.of(Locale.ENGLISH, Locale.FRENCH),
+                Sets.of(zoneId),
+                EnumSet.of(feature),
+                TimeZoneProviderToolRulesWindow.ALL,
+                zoneId,
+                "\n"
+        );
+    }
+
+    @Test
+    public void testProcessorVersionSame() {
+        this.checkEquals(
+                TimeZoneProviderToolCache.processorVersion(TimeZoneProviderToolCache.class),
+                TimeZoneProviderToolCache.processorVersion(TimeZoneProviderToolCache.class)
+        );
+    }
+
+    @Test
+    public void testProcessorVersionComputedOnce() {
+        assertSame(
+                TimeZoneProviderToolCache.processorVersion(),
+                TimeZoneProviderToolCache.processorVersion()
+        );
+    }
+
+    @Test
+    public void testProcessorVersionDifferentCode() {
+        this.checkNotEquals(
+                TimeZoneProviderToolCache.processorVersion(TimeZoneProviderToolCache.class),
+                TimeZoneProviderToolCache.processorVersion(Test.class)
+        );
+    }
+
+    @Test
+    public void testLoadMissing() throws IOException {
+        this.checkEquals(
+                Optional.empty(),
+                this.cache().load("missing")
+        );
+    }
+
+    @Test
+    public void testSaveLoad() throws IOException {
+        final TimeZoneProviderToolCache cache = this.cache();
+        final List<String> commentsAndData = Lists.of("comments\n  \u00e9\n", "1,Australia/Sydney,\u20ac");
+
+        cache.save("key", commentsAndData);
+
+        this.checkEquals(
+                Optional.of(commentsAndData),
+                cache.load("key")
+        );
+    }
+
+    @Test
+    public void testLoadUnreadable() throws IOException {
+        final Path directory = Files.createTempDirectory(this.getClass().getSimpleName());
+        Files.write(directory.resolve("key.cache"), new byte[]{1, 2});
+
+        this.checkEquals(
+                Optional.empty(),
+                TimeZoneProviderToolCache.with(directory).load("key")
+        );
+    }
+
+    @Test
+    public void testLoadNegativeLength() throws IOException {
+        this.loadAndCheckMiss(new byte[]{(byte) 0xff, (byte) 0xff, (byte) 0xff, (byte) 0xff});
+    }
+
+    @Test
+    public void testLoadLengthTooLarge() throws IOException {
+        this.loadAndCheckMiss(new byte[]{0x7f, (byte) 0xff, (byte) 0xff, (byte) 0xff, 1, 2});
+    }
+
+    private void loadAndCheckMiss(final byte[] content) throws IOException {
+        final Path directory = Files.createTempDirectory(this.getClass().getSimpleName());
+        Files.write(directory.resolve("key.cache"), content);
+
+        this.checkEquals(
+                Optional.empty(),
+                TimeZoneProviderToolCache.with(directory).load("key")
+        );
+    }
+
+    @Test
+    public void testComputeIfAbsentGeneratesOnce() throws Exception {
+        final TimeZoneProviderToolCache cache = this.cache();
+        final AtomicInteger generated = new AtomicInteger();
+        final List<String> commentsAndData = Lists.of("comments", "data");
+
+        for (int i = 0; i < 2; i++) {
+            this.checkEquals(
+                    commentsAndData,
+                    cache.computeIfAbsent(
+                            "key",
+                            () -> {
+                                generated.incrementAndGet();
+                                return commentsAndData;
+                            }
+                    )
+            );
+        }
+
+        this.checkEquals(1, generated.get(), "generated");
+    }
+
+    private TimeZoneProviderToolCache cache() throws IOException {
+        return TimeZoneProviderToolCache.with(
+                Files.createTempDirectory(this.getClass().getSimpleName())
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<TimeZoneProviderToolCache> type() {
+        return TimeZoneProviderToolCache.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.j2cl.locale.TimeZoneCalendar;
+import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.IOException;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TimeZoneProviderToolCalendarsTest implements ClassTesting<TimeZoneProviderToolCalendars> {
+
+    @Test
+    public void testCalendarAllLocalesTimeZoneIdAustralia() {
+        this.calendarAndCheck("*", "Australia/*");
+    }
+
+    @Test
+    public void testCalendarLocaleENWildcardTimeZoneIdAmerica() {
+        this.calendarAndCheck("EN*", "America/*");
+    }
+
+    @Test
+    public void testCalendarTwice() {
+        final TimeZoneProviderToolCalendars calendars = TimeZoneProviderToolCalendars.create();
+        final Locale locale = Locale.forLanguageTag("fr-FR");
+
+        this.checkEquals(
+                true,
+                calendars.calendar(locale) == calendars.calendar(locale)
+        );
+    }
+
+    @Test
+    public void testWriteSameAsGenerate() throws IOException {
+        final TimeZoneProviderToolCalendars calendars = TimeZoneProviderToolCalendars.create();
+
+        for (final Locale locale : WalkingkookaLanguageTag.locales("*")) {
+            final TimeZoneCalendar calendar = calendars.calendar(locale);
+
+            final StringBuilder generated = new StringBuilder();
+            calendar.generate(
+                    StringDataInputDataOutput.output(generated::append),
+                    "",
+                    TimeZoneProviderTool.NO_COMMENTS
+            );
+
+            final StringBuilder written = new StringBuilder();
+            calendars.write(
+                    calendar,
+                    StringDataInputDataOutput.output(written::append)
+            );
+
+            this.checkEquals(
+                    generated.toString(),
+                    written.toString(),
+                    () -> "locale: " + locale
+            );
+        }
+    }
+
+    @Test
+    public void testWriteUnknownCalendarFails() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> TimeZoneProviderToolCalendars.create()
+                        .write(
+                                TimeZoneCalendar.with(new GregorianCalendar()),
+                                StringDataInputDataOutput.output(text -> {
+                                })
+                        )
+        );
+    }
+
+    private void calendarAndCheck(final String localeFilter,
+                                  final String timeZoneIdFilter) {
+        final TimeZoneProviderToolCalendars calendars = TimeZoneProviderToolCalendars.create();
+
+        for (final Locale locale : WalkingkookaLanguageTag.locales(localeFilter)) {
+            for (final String zoneId : TimeZoneProviderTool.timezoneIds(timeZoneIdFilter)) {
+                this.checkEquals(
+                        TimeZoneCalendar.with(GregorianCalendar.getInstance(TimeZone.getTimeZone(zoneId), locale)),
+                        calendars.calendar(locale),
+                        () -> zoneId + " locale: " + locale
+                );
+            }
+        }
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<TimeZoneProviderToolCalendars> type() {
+        return TimeZoneProviderToolCalendars.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
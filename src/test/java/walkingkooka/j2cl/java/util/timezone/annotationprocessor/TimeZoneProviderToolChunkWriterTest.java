@@ -0,0 +1,190 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TimeZoneProviderToolChunkWriterTest implements ClassTesting<TimeZoneProviderToolChunkWriter> {
+
+    @Test
+    public void testWithInvalidMaxChunkBytesFails() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> TimeZoneProviderToolChunkWriter.with(new StringWriter(), TimeZoneProviderToolChunkWriter.CLASS_NAME, 5)
+        );
+    }
+
+    @Test
+    public void testWithMaxChunkBytesTooLargeFails() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> TimeZoneProviderToolChunkWriter.with(new StringWriter(), TimeZoneProviderToolChunkWriter.CLASS_NAME, TimeZoneProviderToolChunkWriter.MAX_CHUNK_BYTES + 1)
+        );
+    }
+
+    @Test
+    public void testEmpty() throws IOException {
+        this.writeAndCheck(
+                6,
+                "",
+                "  public final static String DATA = join();\n"
+        );
+    }
+
+    @Test
+    public void testSingleChunk() throws IOException {
+        this.writeAndCheck(
+                6,
+                "abc",
+                "  public final static String DATA = join(\n" +
+                        "    \"abc\");\n"
+        );
+    }
+
+    @Test
+    public void testSeveralChunks() throws IOException {
+        this.writeAndCheck(
+                6,
+                "abcdefghijklm",
+                "  public final static String DATA = join(\n" +
+                        "    \"abcdef\",\n" +
+                        "    \"ghijkl\",\n" +
+                        "    \"m\");\n"
+        );
+    }
+
+    @Test
+    public void testMultiByteCharacters() throws IOException {
+        // 2 bytes each for e-acute and 3 bytes for euro
+        this.writeAndCheck(
+                6,
+                "\u00e9\u00e9\u00e9\u20ac\u20ac",
+                "  public final static String DATA = join(\n" +
+                        "    \"\\u00e9\\u00e9\\u00e9\",\n" +
+                        "    \"\\u20ac\\u20ac\");\n"
+        );
+    }
+
+    @Test
+    public void testSurrogatePairNotSplit() throws IOException {
+        this.writeAndCheck(
+                6,
+                "abc\ud83d\ude00",
+                "  public final static String DATA = join(\n" +
+                        "    \"abc\",\n" +
+                        "    \"\\ud83d\\ude00\");\n"
+        );
+    }
+
+    @Test
+    public void testEscaped() throws IOException {
+        this.writeAndCheck(
+                TimeZoneProviderToolChunkWriter.MAX_CHUNK_BYTES,
+                "\"\\\b\f\n\r\t\u0000\u0001\u007f",
+                "  public final static String DATA = join(\n" +
+                        "    \"\\\"\\\\\\b\\f\\n\\r\\t\\000\\001\\177\");\n"
+        );
+    }
+
+    private void writeAndCheck(final int maxChunkBytes,
+                               final String text,
+                               final String expected) throws IOException {
+        final String source = write(maxChunkBytes, text);
+        final int start = source.indexOf("  public final static String DATA");
+        final int end = source.indexOf(";\n", start) + 2;
+
+        this.checkEquals(
+                expected,
+                source.substring(start, end),
+                () -> source
+        );
+    }
+
+    @Test
+    public void testCompileAndLoadMoreThan64k() throws Exception {
+        final StringBuilder b = new StringBuilder();
+        for (int i = 0; i < 50000; i++) {
+            b.append((char) ('a' + i % 26))
+                    .append("\"\n\u00e9\u20ac\u0000,");
+        }
+        final String text = b.toString();
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final Path dir = Files.createTempDirectory(this.getClass().getSimpleName());
+        final Path packageDir = dir.resolve(TimeZoneProviderToolChunkWriter.PACKAGE.replace('.', '/'));
+        Files.createDirectories(packageDir);
+
+        final Path file = packageDir.resolve(TimeZoneProviderToolChunkWriter.CLASS_NAME + ".java");
+        Files.write(
+                file,
+                write(TimeZoneProviderToolChunkWriter.MAX_CHUNK_BYTES, text).getBytes(StandardCharsets.US_ASCII)
+        );
+        this.checkEquals(
+                0,
+                compiler.run(null, null, null, "-d", dir.toString(), file.toString()),
+                "compile"
+        );
+
+        try (final URLClassLoader loader = new URLClassLoader(new URL[]{dir.toUri().toURL()}, null)) {
+            this.checkEquals(
+                    text,
+                    loader.loadClass(TimeZoneProviderToolChunkWriter.PACKAGE + "." + TimeZoneProviderToolChunkWriter.CLASS_NAME)
+                            .getField("DATA")
+                            .get(null)
+            );
+        }
+    }
+
+    private static String write(final int maxChunkBytes,
+                                final String text) throws IOException {
+        final StringWriter writer = new StringWriter();
+        try (final TimeZoneProviderToolChunkWriter chunks = TimeZoneProviderToolChunkWriter.with(writer, TimeZoneProviderToolChunkWriter.CLASS_NAME, maxChunkBytes)) {
+            // append in pieces, chunk boundaries should not depend on how text is appended.
+            final int half = text.length() / 2;
+            chunks.append(text.substring(0, half));
+            chunks.append(text.substring(half));
+        }
+        return writer.toString();
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<TimeZoneProviderToolChunkWriter> type() {
+        return TimeZoneProviderToolChunkWriter.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
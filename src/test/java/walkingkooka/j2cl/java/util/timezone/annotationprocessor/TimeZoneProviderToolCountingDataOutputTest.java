@@ -0,0 +1,93 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+public final class TimeZoneProviderToolCountingDataOutputTest implements ClassTesting<TimeZoneProviderToolCountingDataOutput> {
+
+    @Test
+    public void testCountSameAsStringDataInputDataOutput() throws IOException {
+        final StringBuilder text = new StringBuilder();
+        write(StringDataInputDataOutput.output(text::append));
+
+        final TimeZoneProviderToolCountingDataOutput counter = TimeZoneProviderToolCountingDataOutput.with(new DataOutputStream(new ByteArrayOutputStream()));
+        write(counter);
+
+        this.checkEquals((long) text.length(), counter.count());
+    }
+
+    @Test
+    public void testFollowingCountsAppendedText() throws IOException {
+        final StringBuilder earlier = new StringBuilder();
+        final DataOutput output = StringDataInputDataOutput.output(earlier::append);
+        output.writeInt(1);
+        final int earlierLength = earlier.length();
+
+        final TimeZoneProviderToolCountingDataOutput counter = TimeZoneProviderToolCountingDataOutput.following(new DataOutputStream(new ByteArrayOutputStream()));
+        write(output);
+        write(counter);
+
+        this.checkEquals((long) (earlier.length() - earlierLength), counter.count());
+    }
+
+    @Test
+    public void testForwards() throws IOException {
+        final StringBuilder expected = new StringBuilder();
+        write(StringDataInputDataOutput.output(expected::append));
+
+        final StringBuilder forwarded = new StringBuilder();
+        write(TimeZoneProviderToolCountingDataOutput.with(StringDataInputDataOutput.output(forwarded::append)));
+
+        this.checkEquals(expected.toString(), forwarded.toString());
+    }
+
+    private static void write(final DataOutput output) throws IOException {
+        output.writeBoolean(true);
+        output.writeByte(1);
+        output.writeShort(2);
+        output.writeChar('3');
+        output.writeInt(4);
+        output.writeLong(5);
+        output.writeFloat(6.5f);
+        output.writeDouble(7.5);
+        output.writeUTF("");
+        output.writeUTF("abc");
+        output.writeUTF("\u0000\u00e9\u20ac\ud83d\ude00");
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<TimeZoneProviderToolCountingDataOutput> type() {
+        return TimeZoneProviderToolCountingDataOutput.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
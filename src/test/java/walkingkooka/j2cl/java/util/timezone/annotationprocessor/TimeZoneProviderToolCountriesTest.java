@@ -0,0 +1,174 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.collect.set.SortedSets;
+import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.time.zone.ZoneRules;
+import java.time.zone.ZoneRulesProvider;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class TimeZoneProviderToolCountriesTest implements ClassTesting<TimeZoneProviderToolCountries> {
+
+    @Test
+    public void testReadInvalidLineFails() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> TimeZoneProviderToolCountries.read(new StringReader("AU\tAustralia/Sydney\nAU Australia/Perth\n"))
+        );
+    }
+
+    @Test
+    public void testRead() throws IOException {
+        final Map<String, Set<String>> countryToZoneIds = TimeZoneProviderToolCountries.read(
+                new StringReader("# comment\n\nNZ\tPacific/Auckland\nAU\tAustralia/Sydney\nAU\tAustralia/Perth\n")
+        );
+
+        this.checkEquals(
+                "{AU=[Australia/Perth, Australia/Sydney], NZ=[Pacific/Auckland]}",
+                countryToZoneIds.toString()
+        );
+    }
+
+    @Test
+    public void testZoneIdsCountry() {
+        final Set<String> zoneIds = TimeZoneProviderToolCountries.zoneIds(Sets.of(Locale.forLanguageTag("en-AU")));
+
+        assertTrue(zoneIds.contains("Australia/Sydney"), () -> zoneIds.toString());
+        assertTrue(zoneIds.contains("Australia/Perth"), () -> zoneIds.toString());
+        assertTrue(zoneIds.stream().noneMatch(z -> z.startsWith("Europe/")), () -> zoneIds.toString());
+    }
+
+    @Test
+    public void testZoneIdsSeveralCountries() {
+        final Set<String> zoneIds = TimeZoneProviderToolCountries.zoneIds(
+                Sets.of(
+                        Locale.forLanguageTag("en-NZ"),
+                        Locale.forLanguageTag("fr-FR")
+                )
+        );
+
+        this.checkEquals(
+                "[Europe/Paris, Pacific/Auckland, Pacific/Chatham]",
+                zoneIds.toString()
+        );
+    }
+
+    @Test
+    public void testZoneIdsLanguageOnlyEmpty() {
+        this.checkEquals(
+                Sets.empty(),
+                TimeZoneProviderToolCountries.zoneIds(Sets.of(Locale.ENGLISH))
+        );
+    }
+
+    @Test
+    public void testZoneIdsAllLocalesKnown() {
+        final Set<String> zoneIds = TimeZoneProviderToolCountries.zoneIds(WalkingkookaLanguageTag.locales("*"));
+
+        assertTrue(
+                TimeZoneProviderTool.timezoneIds("*").containsAll(zoneIds),
+                () -> zoneIds.toString()
+        );
+        assertTrue(zoneIds.size() > 100, () -> "only " + zoneIds.size() + " zones");
+    }
+
+    @Test
+    public void testFileTzdbVersion() throws IOException {
+        try (final InputStream input = TimeZoneProviderToolCountries.class.getResourceAsStream(TimeZoneProviderToolCountries.FILE_NAME)) {
+            final String text = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+
+            assertTrue(
+                    text.contains("tzdb " + TimeZoneProviderToolCountries.TZDB_VERSION + " "),
+                    () -> TimeZoneProviderToolCountries.FILE_NAME + " header not tzdb " + TimeZoneProviderToolCountries.TZDB_VERSION
+            );
+        }
+    }
+
+    /**
+     * Zones are compared by rules, the JDK lists links such as Australia/ACT which are not in the zone.tab. Only a JDK
+     * with the same or a later tzdb than the file can detect a stale file.
+     */
+    @Test
+    public void testFileHasEveryJdkZoneWithCountry() {
+        final String jdkTzdb = ZoneRulesProvider.getVersions("UTC").lastKey();
+        if (jdkTzdb.compareTo(TimeZoneProviderToolCountries.TZDB_VERSION) >= 0) {
+            final Set<String> jdkZoneIds = ZoneRulesProvider.getAvailableZoneIds();
+
+            final Set<String> fileZoneIds = SortedSets.tree();
+            TimeZoneProviderToolCountries.countryToZoneIds()
+                    .values()
+                    .forEach(fileZoneIds::addAll);
+
+            final Set<String> unknown = SortedSets.tree();
+            unknown.addAll(fileZoneIds);
+            unknown.removeAll(jdkZoneIds);
+            this.checkEquals(
+                    Sets.empty(),
+                    unknown,
+                    () -> TimeZoneProviderToolCountries.FILE_NAME + " zones unknown to JDK tzdb " + jdkTzdb
+            );
+
+            final Set<ZoneRules> fileRules = fileZoneIds.stream()
+                    .map(z -> ZoneRulesProvider.getRules(z, false))
+                    .collect(Collectors.toSet());
+
+            final Set<String> missing = SortedSets.tree();
+            for (final String zoneId : jdkZoneIds) {
+                if (zoneId.contains("/") &&
+                        false == zoneId.startsWith("Etc/") &&
+                        false == zoneId.startsWith("SystemV/") &&
+                        false == fileRules.contains(ZoneRulesProvider.getRules(zoneId, false))) {
+                    missing.add(zoneId);
+                }
+            }
+            this.checkEquals(
+                    Sets.empty(),
+                    missing,
+                    () -> "JDK tzdb " + jdkTzdb + " zones missing from " + TimeZoneProviderToolCountries.FILE_NAME + " tzdb " + TimeZoneProviderToolCountries.TZDB_VERSION
+            );
+        }
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<TimeZoneProviderToolCountries> type() {
+        return TimeZoneProviderToolCountries.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
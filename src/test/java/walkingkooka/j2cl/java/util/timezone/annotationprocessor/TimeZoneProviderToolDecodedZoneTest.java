@@ -0,0 +1,149 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.j2cl.locale.TimeZoneCalendar;
+import walkingkooka.j2cl.locale.TimeZoneDisplay;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneRules;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TimeZone;
+
+public final class TimeZoneProviderToolDecodedZoneTest implements ClassTesting<TimeZoneProviderToolDecodedZone> {
+
+    private final static String ZONE_ID = "Australia/Sydney";
+
+    private final static Locale EN_AU = Locale.forLanguageTag("en-AU");
+
+    private final static TimeZoneDisplay DEFAULT_DISPLAY = TimeZoneDisplay.with("S1", "SD1", "L1", "LD1");
+    private final static TimeZoneDisplay EN_AU_DISPLAY = TimeZoneDisplay.with("AEST", "AEDT", "Australian Eastern Standard Time", "Australian Eastern Daylight Time");
+
+    @Test
+    public void testGetOffsetRules() {
+        this.getOffsetAndCheck(null);
+    }
+
+    @Test
+    public void testGetOffsetYearTable() {
+        this.getOffsetAndCheck(
+                TimeZoneProviderToolYearTable.with(
+                        rules(),
+                        TimeZoneProviderToolYearTable.DEFAULT_FIRST_YEAR,
+                        TimeZoneProviderToolYearTable.DEFAULT_LAST_YEAR
+                )
+        );
+    }
+
+    private void getOffsetAndCheck(final TimeZoneProviderToolYearTable yearTable) {
+        final TimeZoneProviderToolDecodedZone zone = this.zone(yearTable);
+        final TimeZone timeZone = TimeZone.getTimeZone(ZONE_ID);
+
+        for (final String instant : new String[]{"1950-01-01T00:00:00Z", "2020-01-01T00:00:00Z", "2020-07-01T00:00:00Z", "2090-01-01T00:00:00Z"}) {
+            final long epochMillis = Instant.parse(instant).toEpochMilli();
+
+            this.checkEquals(
+                    timeZone.getOffset(epochMillis),
+                    zone.getOffset(epochMillis),
+                    () -> "getOffset " + instant
+            );
+        }
+    }
+
+    @Test
+    public void testInDaylightTime() {
+        final TimeZoneProviderToolDecodedZone zone = this.zone(null);
+
+        this.checkEquals(true, zone.inDaylightTime(Instant.parse("2020-01-01T00:00:00Z").toEpochMilli()), "January");
+        this.checkEquals(false, zone.inDaylightTime(Instant.parse("2020-07-01T00:00:00Z").toEpochMilli()), "July");
+    }
+
+    @Test
+    public void testGetDisplayName() {
+        final TimeZoneProviderToolDecodedZone zone = this.zone(null);
+
+        this.checkEquals("AEST", zone.getDisplayName(false, TimeZone.SHORT, EN_AU));
+        this.checkEquals("AEDT", zone.getDisplayName(true, TimeZone.SHORT, EN_AU));
+        this.checkEquals("Australian Eastern Standard Time", zone.getDisplayName(false, TimeZone.LONG, EN_AU));
+        this.checkEquals("Australian Eastern Daylight Time", zone.getDisplayName(true, TimeZone.LONG, EN_AU));
+    }
+
+    @Test
+    public void testGetDisplayNameDefault() {
+        this.checkEquals(
+                "LD1",
+                this.zone(null)
+                        .getDisplayName(true, TimeZone.LONG, Locale.FRANCE)
+        );
+    }
+
+    @Test
+    public void testToString() {
+        this.checkEquals(
+                ZONE_ID + ", Australia/NSW",
+                this.zone(null).toString()
+        );
+    }
+
+    private TimeZoneProviderToolDecodedZone zone(final TimeZoneProviderToolYearTable yearTable) {
+        final Map<Locale, TimeZoneDisplay> localeToDisplay = Maps.hash();
+        localeToDisplay.put(EN_AU, EN_AU_DISPLAY);
+
+        return TimeZoneProviderToolDecodedZone.with(
+                Lists.of(ZONE_ID, "Australia/NSW"),
+                TimeZone.getTimeZone(ZONE_ID).getRawOffset(),
+                rules(),
+                yearTable,
+                TimeZoneProviderToolLocaleValues.with(
+                        TimeZoneCalendar.with(new GregorianCalendar()),
+                        Maps.empty(),
+                        false
+                ),
+                TimeZoneProviderToolLocaleValues.with(
+                        DEFAULT_DISPLAY,
+                        localeToDisplay,
+                        false
+                )
+        );
+    }
+
+    private static ZoneRules rules() {
+        return ZoneId.of(ZONE_ID)
+                .getRules();
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<TimeZoneProviderToolDecodedZone> type() {
+        return TimeZoneProviderToolDecodedZone.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TimeZoneProviderToolDecoderTest implements ClassTesting<TimeZoneProviderToolDecoder> {
+
+    private final static String LOCALES = "EN-AU";
+
+    private final static String ZONE_IDS = "Australia*";
+
+    @Test
+    public void testFeaturesNone() throws Exception {
+        this.featuresAndCheck(EnumSet.noneOf(TimeZoneProviderToolFeature.class));
+    }
+
+    @Test
+    public void testFeaturesAll() throws Exception {
+        this.featuresAndCheck(EnumSet.allOf(TimeZoneProviderToolFeature.class));
+    }
+
+    private void featuresAndCheck(final Set<TimeZoneProviderToolFeature> features) throws Exception {
+        this.checkEquals(
+                features,
+                this.decoder(features).features()
+        );
+    }
+
+    @Test
+    public void testSeparator() {
+        final StringBuilder text = new StringBuilder();
+        final DataOutput output = StringDataInputDataOutput.output(text::append);
+        try {
+            output.writeInt(1);
+            output.writeInt(2);
+        } catch (final IOException cause) {
+            throw new AssertionError(cause);
+        }
+
+        this.checkEquals(
+                "1" + TimeZoneProviderToolDecoder.SEPARATOR + "2",
+                text.toString()
+        );
+    }
+
+    @Test
+    public void testRecordOnlyRecordText() throws IOException {
+        final String text = "9,1,2,3";
+        final List<Integer> recordOffsets = Lists.of(0, 2);
+
+        final DataInput first = TimeZoneProviderToolDecoder.record(text, 6, recordOffsets, 0);
+        this.checkEquals(1, first.readInt(), "first record");
+        assertThrows(
+                IOException.class,
+                first::readInt
+        );
+
+        final DataInput last = TimeZoneProviderToolDecoder.record(text, 6, recordOffsets, 1);
+        this.checkEquals(2, last.readInt(), "last record");
+        this.checkEquals(3, last.readInt(), "last record");
+    }
+
+    @Test
+    public void testUnknownFeatureBitsFails() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> TimeZoneProviderToolDecoder.read("-1,1073741824")
+        );
+    }
+
+    @Test
+    public void testZoneIdsWithoutIndex() throws Exception {
+        this.zoneIdsAndCheck(EnumSet.noneOf(TimeZoneProviderToolFeature.class));
+    }
+
+    @Test
+    public void testZoneIdsWithAliases() throws Exception {
+        this.zoneIdsAndCheck(EnumSet.of(TimeZoneProviderToolFeature.ZONE_ALIASES));
+    }
+
+    @Test
+    public void testZoneIdsWithIndex() throws Exception {
+        this.zoneIdsAndCheck(EnumSet.of(TimeZoneProviderToolFeature.ZONE_INDEX, TimeZoneProviderToolFeature.ZONE_ALIASES));
+    }
+
+    private void zoneIdsAndCheck(final Set<TimeZoneProviderToolFeature> features) throws Exception {
+        this.checkEquals(
+                TimeZoneProviderTool.timezoneIds(ZONE_IDS),
+                this.decoder(features).zoneIds()
+        );
+    }
+
+    @Test
+    public void testZoneUnknown() throws Exception {
+        this.checkEquals(
+                Optional.empty(),
+                this.decoder(EnumSet.noneOf(TimeZoneProviderToolFeature.class))
+                        .zone("Europe/Paris")
+        );
+    }
+
+    @Test
+    public void testZoneUnknownWithIndex() throws Exception {
+        this.checkEquals(
+                Optional.empty(),
+                this.decoder(EnumSet.of(TimeZoneProviderToolFeature.ZONE_INDEX))
+                        .zone("Europe/Paris")
+        );
+    }
+
+    @Test
+    public void testZoneWithoutIndex() throws Exception {
+        this.zoneAndCheck(EnumSet.noneOf(TimeZoneProviderToolFeature.class));
+    }
+
+    @Test
+    public void testZoneWithIndex() throws Exception {
+        this.zoneAndCheck(EnumSet.of(TimeZoneProviderToolFeature.ZONE_INDEX));
+    }
+
+    @Test
+    public void testZoneAllFeatures() throws Exception {
+        this.zoneAndCheck(EnumSet.allOf(TimeZoneProviderToolFeature.class));
+    }
+
+    private void zoneAndCheck(final Set<TimeZoneProviderToolFeature> features) throws Exception {
+        final String zoneId = "Australia/Sydney";
+        final TimeZone timeZone = TimeZone.getTimeZone(zoneId);
+        final Locale locale = Locale.forLanguageTag(LOCALES);
+
+        final TimeZoneProviderToolDecoder decoder = this.decoder(features);
+        final TimeZoneProviderToolDecodedZone zone = decoder.zone(zoneId)
+                .get();
+
+        this.checkEquals(timeZone.getRawOffset(), zone.rawOffset(), "rawOffset");
+
+        final long epochMillis = Instant.parse("2020-01-01T00:00:00Z").toEpochMilli();
+        this.checkEquals(timeZone.getOffset(epochMillis), zone.getOffset(epochMillis), "getOffset");
+
+        this.checkEquals(
+                timeZone.getDisplayName(true, TimeZone.LONG, locale),
+                zone.getDisplayName(true, TimeZone.LONG, locale),
+                "getDisplayName"
+        );
+
+        this.checkEquals(
+                true,
+                zone == decoder.zone(zoneId).get(),
+                "zone decoded once"
+        );
+    }
+
+    private TimeZoneProviderToolDecoder decoder(final Set<TimeZoneProviderToolFeature> features) throws Exception {
+        return TimeZoneProviderToolDecoder.read(
+                TimeZoneProviderToolVerifier.generate(
+                        WalkingkookaLanguageTag.locales(LOCALES),
+                        TimeZoneProviderTool.timezoneIds(ZONE_IDS),
+                        features,
+                        TimeZoneProviderToolRulesWindow.ALL
+                )
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<TimeZoneProviderToolDecoder> type() {
+        return TimeZoneProviderToolDecoder.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.j2cl.locale.TimeZoneDisplay;
+import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+import walkingkooka.text.CharSequences;
+
+import java.util.Locale;
+import java.util.Set;
+import java.util.TimeZone;
+
+public final class TimeZoneProviderToolDisplayNamesTest implements ClassTesting<TimeZoneProviderToolDisplayNames> {
+
+    @Test
+    public void testDisplayLocaleENAUTimeZoneIdAustralia() {
+        this.displayAndCheck("EN-AU", "Australia/*");
+    }
+
+    @Test
+    public void testDisplayLocaleENWildcardTimeZoneIdEurope() {
+        this.displayAndCheck("EN*", "Europe/*");
+    }
+
+    @Test
+    public void testDisplayLocaleWildcardTimeZoneIdAfricaA() {
+        this.displayAndCheck("*", "Africa/A*");
+    }
+
+    @Test
+    public void testDisplayTwice() {
+        final TimeZoneProviderToolDisplayNames displayNames = TimeZoneProviderToolDisplayNames.create();
+        final Locale locale = Locale.forLanguageTag("pt-BR");
+
+        this.displayAndCheck(displayNames, locale, "Africa/Abidjan");
+        this.displayAndCheck(displayNames, locale, "Africa/Abidjan");
+    }
+
+    @Test
+    public void testResolveThenDisplay() {
+        this.resolveAndCheck("EN*", "Australia/*", false);
+    }
+
+    @Test
+    public void testResolveParallelThenDisplay() {
+        this.resolveAndCheck("*", "Europe/*", true);
+    }
+
+    @Test
+    public void testResolveSameAsDisplayNameLocaleENAllZones() {
+        this.resolveAndCheck(Locale.forLanguageTag("en"), "*");
+    }
+
+    @Test
+    public void testResolveSameAsDisplayNameLocalePTBRAllZones() {
+        this.resolveAndCheck(Locale.forLanguageTag("pt-BR"), "*");
+    }
+
+    @Test
+    public void testResolveSameAsDisplayNameLocaleJAAllZones() {
+        this.resolveAndCheck(Locale.forLanguageTag("ja"), "*");
+    }
+
+    @Test
+    public void testResolveSameAsDisplayNameLocaleDEAllZones() {
+        this.resolveAndCheck(Locale.forLanguageTag("de"), "*");
+    }
+
+    @Test
+    public void testZoneStringsMissingZoneId() {
+        this.checkEquals(
+                null,
+                TimeZoneProviderToolDisplayNames.zoneStrings(Locale.ENGLISH)
+                        .get("Etc/GMT+1")
+        );
+    }
+
+    @Test
+    public void testResolveZoneIdMissingFromZoneStrings() {
+        final TimeZoneProviderToolDisplayNames displayNames = TimeZoneProviderToolDisplayNames.create();
+        final Set<Locale> locales = Sets.of(Locale.ENGLISH);
+        final String zoneId = "Etc/GMT+1";
+
+        displayNames.resolve(Sets.of(zoneId), locales, false);
+        this.displayAndCheck(displayNames, Locale.ENGLISH, zoneId);
+    }
+
+    private void resolveAndCheck(final Locale locale,
+                                 final String timeZoneIdFilter) {
+        this.resolveAndCheck(
+                Sets.of(locale),
+                timeZoneIdFilter,
+                false
+        );
+    }
+
+    private void resolveAndCheck(final String localeFilter,
+                                 final String timeZoneIdFilter,
+                                 final boolean parallel) {
+        this.resolveAndCheck(
+                WalkingkookaLanguageTag.locales(localeFilter),
+                timeZoneIdFilter,
+                parallel
+        );
+    }
+
+    private void resolveAndCheck(final Set<Locale> locales,
+                                 final String timeZoneIdFilter,
+                                 final boolean parallel) {
+        final TimeZoneProviderToolDisplayNames displayNames = TimeZoneProviderToolDisplayNames.create();
+        final Set<String> zoneIds = TimeZoneProviderTool.timezoneIds(timeZoneIdFilter);
+
+        displayNames.resolve(zoneIds, locales, parallel);
+
+        for (final Locale locale : locales) {
+            for (final String zoneId : zoneIds) {
+                this.displayAndCheck(displayNames, locale, zoneId);
+            }
+        }
+    }
+
+    @Test
+    public void testDisplayUnknownTimeZoneId() {
+        this.displayAndCheck(Locale.ENGLISH, "Unknown/Zone");
+    }
+
+    private void displayAndCheck(final String localeFilter,
+                                 final String timeZoneIdFilter) {
+        final TimeZoneProviderToolDisplayNames displayNames = TimeZoneProviderToolDisplayNames.create();
+
+        for (final Locale locale : WalkingkookaLanguageTag.locales(localeFilter)) {
+            for (final String zoneId : TimeZoneProviderTool.timezoneIds(timeZoneIdFilter)) {
+                this.displayAndCheck(displayNames, locale, zoneId);
+            }
+        }
+    }
+
+    private void displayAndCheck(final Locale locale,
+                                 final String zoneId) {
+        this.displayAndCheck(TimeZoneProviderToolDisplayNames.create(), locale, zoneId);
+    }
+
+    private void displayAndCheck(final TimeZoneProviderToolDisplayNames displayNames,
+                                 final Locale locale,
+                                 final String zoneId) {
+        final TimeZone timeZone = TimeZone.getTimeZone(zoneId);
+
+        this.checkEquals(
+                TimeZoneDisplay.with(timeZone.getDisplayName(false, TimeZone.SHORT, locale),
+                        timeZone.getDisplayName(true, TimeZone.SHORT, locale),
+                        timeZone.getDisplayName(false, TimeZone.LONG, locale),
+                        timeZone.getDisplayName(true, TimeZone.LONG, locale)),
+                displayNames.display(zoneId, locale),
+                () -> "TimeZone " + CharSequences.quoteAndEscape(zoneId) + " locale: " + locale
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<TimeZoneProviderToolDisplayNames> type() {
+        return TimeZoneProviderToolDisplayNames.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
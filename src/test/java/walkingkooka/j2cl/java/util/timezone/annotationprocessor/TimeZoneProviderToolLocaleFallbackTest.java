@@ -0,0 +1,138 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+public final class TimeZoneProviderToolLocaleFallbackTest implements ClassTesting<TimeZoneProviderToolLocaleFallback> {
+
+    private final static Locale EN = Locale.forLanguageTag("en");
+    private final static Locale EN_AU = Locale.forLanguageTag("en-AU");
+    private final static Locale EN_NZ = Locale.forLanguageTag("en-NZ");
+    private final static Locale FR = Locale.forLanguageTag("fr");
+    private final static Locale FR_CA = Locale.forLanguageTag("fr-CA");
+
+    @Test
+    public void testParentLanguage() {
+        this.parentAndCheck(EN, null);
+    }
+
+    @Test
+    public void testParentLanguageCountry() {
+        this.parentAndCheck(EN_AU, EN);
+    }
+
+    @Test
+    public void testParentLanguageScriptCountry() {
+        this.parentAndCheck(
+                Locale.forLanguageTag("sr-Latn-BA"),
+                Locale.forLanguageTag("sr-Latn")
+        );
+    }
+
+    private void parentAndCheck(final Locale locale,
+                                final Locale parent) {
+        this.checkEquals(
+                parent,
+                TimeZoneProviderToolLocaleFallback.parent(locale),
+                () -> "parent of " + locale
+        );
+    }
+
+    @Test
+    public void testPruneChildSameAsDefault() {
+        this.pruneAndCheck(
+                map("A", Sets.of(EN, EN_AU, FR), "B", Sets.of(FR_CA)),
+                "A",
+                map("B", Sets.of(FR_CA))
+        );
+    }
+
+    @Test
+    public void testPruneChildSameAsParent() {
+        this.pruneAndCheck(
+                map("A", Sets.of(FR), "B", Sets.of(EN, EN_AU, EN_NZ)),
+                "A",
+                map("B", Sets.of(EN))
+        );
+    }
+
+    @Test
+    public void testPruneChildDefaultParentDifferentKept() {
+        this.pruneAndCheck(
+                map("A", Sets.of(EN_AU, FR, FR_CA), "B", Sets.of(EN, EN_NZ)),
+                "A",
+                map("A", Sets.of(EN_AU), "B", Sets.of(EN))
+        );
+    }
+
+    @Test
+    public void testPruneParentNotSelected() {
+        this.pruneAndCheck(
+                map("A", Sets.of(FR), "B", Sets.of(EN_AU, EN_NZ)),
+                "A",
+                map("B", Sets.of(EN_AU, EN_NZ))
+        );
+    }
+
+    private void pruneAndCheck(final Map<String, Set<Locale>> valueToLocales,
+                               final String defaultValue,
+                               final Map<String, Set<Locale>> expected) {
+        this.checkEquals(
+                expected,
+                TimeZoneProviderToolLocaleFallback.prune(valueToLocales, defaultValue),
+                () -> "prune " + valueToLocales + " default " + defaultValue
+        );
+    }
+
+    private static Map<String, Set<Locale>> map(final String value,
+                                                final Set<Locale> locales) {
+        final Map<String, Set<Locale>> map = Maps.ordered();
+        map.put(value, locales);
+        return map;
+    }
+
+    private static Map<String, Set<Locale>> map(final String value,
+                                                final Set<Locale> locales,
+                                                final String value2,
+                                                final Set<Locale> locales2) {
+        final Map<String, Set<Locale>> map = map(value, locales);
+        map.put(value2, locales2);
+        return map;
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<TimeZoneProviderToolLocaleFallback> type() {
+        return TimeZoneProviderToolLocaleFallback.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.Locale;
+import java.util.Map;
+
+public final class TimeZoneProviderToolLocaleValuesTest implements ClassTesting<TimeZoneProviderToolLocaleValues<?>> {
+
+    private final static Locale EN = Locale.forLanguageTag("en");
+    private final static Locale EN_AU = Locale.forLanguageTag("en-AU");
+    private final static Locale FR = Locale.forLanguageTag("fr");
+
+    @Test
+    public void testGet() {
+        this.getAndCheck(false, EN, "B");
+    }
+
+    @Test
+    public void testGetDefault() {
+        this.getAndCheck(false, FR, "A");
+    }
+
+    @Test
+    public void testGetWithoutFallbackDefault() {
+        this.getAndCheck(false, EN_AU, "A");
+    }
+
+    @Test
+    public void testGetFallbackParent() {
+        this.getAndCheck(true, EN_AU, "B");
+    }
+
+    @Test
+    public void testGetFallbackDefault() {
+        this.getAndCheck(true, Locale.forLanguageTag("fr-CA"), "A");
+    }
+
+    @Test
+    public void testGetFallbackSelf() {
+        final Map<Locale, String> localeToValue = Maps.hash();
+        localeToValue.put(EN, "B");
+        localeToValue.put(EN_AU, "C");
+
+        this.checkEquals(
+                "C",
+                TimeZoneProviderToolLocaleValues.with("A", localeToValue, true)
+                        .get(EN_AU)
+        );
+    }
+
+    private void getAndCheck(final boolean fallback,
+                             final Locale locale,
+                             final String expected) {
+        final Map<Locale, String> localeToValue = Maps.hash();
+        localeToValue.put(EN, "B");
+
+        this.checkEquals(
+                expected,
+                TimeZoneProviderToolLocaleValues.with("A", localeToValue, fallback)
+                        .get(locale),
+                () -> locale + " fallback " + fallback
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<TimeZoneProviderToolLocaleValues<?>> type() {
+        return (Class) TimeZoneProviderToolLocaleValues.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
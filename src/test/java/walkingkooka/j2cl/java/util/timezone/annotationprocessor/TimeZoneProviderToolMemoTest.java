@@ -0,0 +1,151 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TimeZoneProviderToolMemoTest implements ClassTesting<TimeZoneProviderToolMemo<?, ?>> {
+
+    @Test
+    public void testWithInvalidCapacityFails() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> TimeZoneProviderToolMemo.with(0)
+        );
+    }
+
+    @Test
+    public void testWithNullWeigherFails() {
+        assertThrows(
+                NullPointerException.class,
+                () -> TimeZoneProviderToolMemo.with(1, null)
+        );
+    }
+
+    @Test
+    public void testGetMissing() {
+        this.checkEquals(
+                null,
+                TimeZoneProviderToolMemo.<String, String>with(1).get("missing")
+        );
+    }
+
+    @Test
+    public void testComputeIfAbsentComputesOnce() {
+        final TimeZoneProviderToolMemo<String, String> memo = TimeZoneProviderToolMemo.with(2);
+        final AtomicInteger computed = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            this.checkEquals(
+                    "A1",
+                    memo.computeIfAbsent("A", k -> {
+                        computed.incrementAndGet();
+                        return k + "1";
+                    })
+            );
+        }
+
+        this.checkEquals(1, computed.get(), "computed");
+    }
+
+    @Test
+    public void testLeastRecentlyUsedEvicted() {
+        final TimeZoneProviderToolMemo<String, String> memo = TimeZoneProviderToolMemo.with(2);
+        memo.put("A", "1");
+        memo.put("B", "2");
+
+        memo.get("A"); // B is now the least recently used
+        memo.put("C", "3");
+
+        this.checkEquals(2, memo.size(), "size");
+        this.checkEquals("1", memo.get("A"), "A");
+        this.checkEquals(null, memo.get("B"), "B");
+        this.checkEquals("3", memo.get("C"), "C");
+    }
+
+    @Test
+    public void testHeaviestEvictedUntilWithinCapacity() {
+        final TimeZoneProviderToolMemo<String, String> memo = TimeZoneProviderToolMemo.with(
+                5,
+                String::length
+        );
+        memo.put("A", "11");
+        memo.put("B", "22");
+        this.checkEquals(4L, memo.weight(), "weight");
+
+        memo.put("C", "3333"); // A and B must both go
+        this.checkEquals(1, memo.size(), "size");
+        this.checkEquals(4L, memo.weight(), "weight");
+        this.checkEquals(null, memo.get("A"), "A");
+        this.checkEquals(null, memo.get("B"), "B");
+        this.checkEquals("3333", memo.get("C"), "C");
+    }
+
+    @Test
+    public void testPutReplaceReweighs() {
+        final TimeZoneProviderToolMemo<String, String> memo = TimeZoneProviderToolMemo.with(
+                5,
+                String::length
+        );
+        memo.put("A", "1111");
+        memo.put("A", "1");
+        this.checkEquals(1L, memo.weight(), "weight");
+    }
+
+    @Test
+    public void testPutHeavierThanCapacityNotRemembered() {
+        final TimeZoneProviderToolMemo<String, String> memo = TimeZoneProviderToolMemo.with(
+                2,
+                String::length
+        );
+        memo.put("A", "111");
+
+        this.checkEquals(0, memo.size(), "size");
+        this.checkEquals(0L, memo.weight(), "weight");
+    }
+
+    @Test
+    public void testClearResetsWeight() {
+        final TimeZoneProviderToolMemo<String, String> memo = TimeZoneProviderToolMemo.with(
+                5,
+                String::length
+        );
+        memo.put("A", "11");
+        memo.clear();
+
+        this.checkEquals(0L, memo.weight(), "weight");
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<TimeZoneProviderToolMemo<?, ?>> type() {
+        return (Class) TimeZoneProviderToolMemo.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TimeZoneProviderToolPayloadSizeTest implements ClassTesting<TimeZoneProviderToolPayloadSize> {
+
+    @Test
+    public void testEmpty() throws IOException {
+        this.sizeAndCheck();
+    }
+
+    @Test
+    public void testAppend() throws IOException {
+        this.sizeAndCheck("abc");
+    }
+
+    @Test
+    public void testAppendSeveral() throws IOException {
+        this.sizeAndCheck("abc", "def\u00e9", "\ud83d", "\ude00", "abcabcabcabcabc");
+    }
+
+    private void sizeAndCheck(final String... texts) throws IOException {
+        final TimeZoneProviderToolPayloadSize size = TimeZoneProviderToolPayloadSize.empty();
+        final String text = String.join("", texts);
+
+        for (final String t : texts) {
+            size.append(t);
+        }
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (final GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+
+        this.checkEquals((long) text.length(), size.chars(), "chars");
+        this.checkEquals((long) bytes.size(), size.gzipBytes(), "gzipBytes");
+        this.checkEquals((long) bytes.size(), size.gzipBytes(), "gzipBytes again");
+    }
+
+    @Test
+    public void testAppendAfterGzipBytesFails() {
+        final TimeZoneProviderToolPayloadSize size = TimeZoneProviderToolPayloadSize.empty();
+        size.gzipBytes();
+
+        assertThrows(
+                IllegalStateException.class,
+                () -> size.append("abc")
+        );
+    }
+
+    @Test
+    public void testDisabledIgnores() {
+        final TimeZoneProviderToolPayloadSize size = TimeZoneProviderToolPayloadSize.disabled();
+        size.append("abc");
+
+        this.checkEquals(false, size.isEnabled(), "isEnabled");
+        this.checkEquals(0L, size.chars(), "chars");
+        this.checkEquals(0L, size.gzipBytes(), "gzipBytes");
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<TimeZoneProviderToolPayloadSize> type() {
+        return TimeZoneProviderToolPayloadSize.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+public final class TimeZoneProviderToolRecordingDataOutputTest implements ClassTesting<TimeZoneProviderToolRecordingDataOutput> {
+
+    @Test
+    public void testReplayEmpty() throws IOException {
+        final ByteArrayOutputStream replayed = new ByteArrayOutputStream();
+        TimeZoneProviderToolRecordingDataOutput.empty()
+                .replay(new DataOutputStream(replayed));
+
+        this.checkEquals(0, replayed.size());
+    }
+
+    @Test
+    public void testReplay() throws IOException {
+        final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        write(new DataOutputStream(expected));
+
+        final TimeZoneProviderToolRecordingDataOutput recording = TimeZoneProviderToolRecordingDataOutput.empty();
+        write(recording);
+
+        final ByteArrayOutputStream replayed = new ByteArrayOutputStream();
+        recording.replay(new DataOutputStream(replayed));
+        recording.replay(new DataOutputStream(replayed));
+
+        final ByteArrayOutputStream twice = new ByteArrayOutputStream();
+        twice.write(expected.toByteArray());
+        twice.write(expected.toByteArray());
+
+        this.checkEquals(
+                twice.toString("ISO-8859-1"),
+                replayed.toString("ISO-8859-1")
+        );
+    }
+
+    private static void write(final DataOutput output) throws IOException {
+        final byte[] bytes = new byte[]{1, 2, 3};
+
+        output.write(9);
+        output.write(bytes);
+        output.write(bytes, 1, 2);
+        bytes[1] = 99; // recorded bytes are copies
+        output.writeBoolean(true);
+        output.writeByte(1);
+        output.writeShort(2);
+        output.writeChar('3');
+        output.writeInt(4);
+        output.writeLong(5);
+        output.writeFloat(6.5f);
+        output.writeDouble(7.5);
+        output.writeBytes("ab");
+        output.writeChars("cd");
+        output.writeUTF("\u0000\u00e9\u20ac\ud83d\ude00");
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<TimeZoneProviderToolRecordingDataOutput> type() {
+        return TimeZoneProviderToolRecordingDataOutput.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.collect.set.SortedSets;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.Map;
+import java.util.Set;
+
+public final class TimeZoneProviderToolRegionsTest implements ClassTesting<TimeZoneProviderToolRegions> {
+
+    @Test
+    public void testRegions() {
+        final Map<String, Set<String>> expected = Maps.sorted();
+        expected.put("America", sorted("America/Argentina/Cordoba", "America/New_York"));
+        expected.put("Europe", sorted("Europe/Paris"));
+        expected.put(TimeZoneProviderToolRegions.OTHER, sorted("EST5EDT", "UTC"));
+
+        this.checkEquals(
+                expected,
+                TimeZoneProviderToolRegions.regions(
+                        Sets.of("UTC", "Europe/Paris", "America/New_York", "EST5EDT", "America/Argentina/Cordoba")
+                )
+        );
+    }
+
+    @Test
+    public void testClassName() {
+        this.checkEquals("TimeZoneProviderEurope", TimeZoneProviderToolRegions.className("Europe"));
+    }
+
+    @Test
+    public void testClassNameInvalidCharacters() {
+        this.checkEquals("TimeZoneProviderUSEastern", TimeZoneProviderToolRegions.className("US-Eastern"));
+    }
+
+    @Test
+    public void testMethodName() {
+        this.checkEquals("systemV", TimeZoneProviderToolRegions.methodName("SystemV"));
+    }
+
+    @Test
+    public void testWriteRegistry() throws IOException {
+        final StringWriter writer = new StringWriter();
+        TimeZoneProviderToolRegions.writeRegistry(
+                TimeZoneProviderToolRegions.regions(
+                        Sets.of("Australia/Sydney", "Australia/Perth", "UTC")
+                ),
+                writer
+        );
+
+        this.checkEquals(
+                "package walkingkooka.j2cl.java.util.timezone.generated;\n" +
+                        "\n" +
+                        "// generated by walkingkooka.j2cl.java.util.timezone.annotationprocessor.TimeZoneProviderAnnotationProcessor\n" +
+                        "public final class TimeZoneProviderRegions {\n" +
+                        "\n" +
+                        "  public final static String REGIONS = \"Australia,Other\";\n" +
+                        "\n" +
+                        "  // Australia/Perth, Australia/Sydney\n" +
+                        "  public static String australia() {\n" +
+                        "    return TimeZoneProviderAustralia.DATA;\n" +
+                        "  }\n" +
+                        "\n" +
+                        "  // UTC\n" +
+                        "  public static String other() {\n" +
+                        "    return TimeZoneProviderOther.DATA;\n" +
+                        "  }\n" +
+                        "}\n",
+                writer.toString()
+        );
+    }
+
+    private static Set<String> sorted(final String... zoneIds) {
+        final Set<String> sorted = SortedSets.tree();
+        sorted.addAll(Sets.of(zoneIds));
+        return sorted;
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<TimeZoneProviderToolRegions> type() {
+        return TimeZoneProviderToolRegions.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,180 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.util.concurrent.TimeUnit;
+
+public final class TimeZoneProviderToolReportTest implements ClassTesting<TimeZoneProviderToolReport> {
+
+    @Test
+    public void testToJsonEmpty() {
+        this.checkEquals(
+                "{\n" +
+                        "  \"properties\": {},\n" +
+                        "  \"phaseNanos\": {},\n" +
+                        "  \"sectionChars\": {},\n" +
+                        "  \"payloadChars\": {},\n" +
+                        "  \"zoneChars\": {},\n" +
+                        "  \"localeGroupChars\": {}\n" +
+                        "}\n",
+                TimeZoneProviderToolReport.empty()
+                        .toJson()
+        );
+    }
+
+    @Test
+    public void testToJson() {
+        this.checkEquals(
+                "{\n" +
+                        "  \"properties\": {\n" +
+                        "    \"locales\": 2,\n" +
+                        "    \"comments\": false,\n" +
+                        "    \"features\": \"[\\\"A\\\\B\\\"]\\u000a\\u00e9\"\n" +
+                        "  },\n" +
+                        "  \"phaseNanos\": {\n" +
+                        "    \"harvest\": 3000000,\n" +
+                        "    \"zones\": 1000000\n" +
+                        "  },\n" +
+                        "  \"sectionChars\": {\n" +
+                        "    \"zones\": 30\n" +
+                        "  },\n" +
+                        "  \"payloadChars\": {\n" +
+                        "    \"data\": 40\n" +
+                        "  },\n" +
+                        "  \"zoneChars\": {\n" +
+                        "    \"Australia/Perth\": 10,\n" +
+                        "    \"Australia/Sydney\": 20\n" +
+                        "  },\n" +
+                        "  \"localeGroupChars\": {\n" +
+                        "    \"default\": 15,\n" +
+                        "    \"en-AU, en-NZ\": 5\n" +
+                        "  }\n" +
+                        "}\n",
+                this.report()
+                        .toJson()
+        );
+    }
+
+    @Test
+    public void testSummary() {
+        this.checkEquals(
+                "TimeZoneProvider locales: 2, comments: false, features: [\"A\\B\"]\n\u00e9, data: 30 chars, harvest: 3ms, zones: 1ms, heaviest zone: Australia/Sydney 20 chars",
+                this.report()
+                        .summary()
+        );
+    }
+
+    @Test
+    public void testHeaviest() {
+        this.checkEquals(
+                "Heaviest zones:\n" +
+                        "  1. Australia/Sydney 20 chars\n" +
+                        "Heaviest locale groups:\n" +
+                        "  1. default 15 chars\n",
+                this.report()
+                        .heaviest(1)
+        );
+    }
+
+    @Test
+    public void testHeaviestAbbreviatesAndTies() {
+        final TimeZoneProviderToolReport report = TimeZoneProviderToolReport.empty();
+        report.zoneChars("B", 1);
+        report.zoneChars("A", 1);
+        report.zoneChars("C", 2);
+
+        final StringBuilder locales = new StringBuilder();
+        for (int i = 0; i < 30; i++) {
+            locales.append("en-").append(i).append(", ");
+        }
+        report.localeGroupChars(locales.toString(), 99);
+
+        this.checkEquals(
+                "Heaviest zones:\n" +
+                        "  1. C 2 chars\n" +
+                        "  2. A 1 chars\n" +
+                        "  3. B 1 chars\n" +
+                        "Heaviest locale groups:\n" +
+                        "  1. " + locales.substring(0, 77) + "... 99 chars\n",
+                report.heaviest(10)
+        );
+    }
+
+    @Test
+    public void testTimeAdds() {
+        final TimeZoneProviderToolReport report = TimeZoneProviderToolReport.empty();
+        report.time("harvest", TimeUnit.MILLISECONDS.toNanos(1));
+        report.time("harvest", TimeUnit.MILLISECONDS.toNanos(2));
+
+        this.checkEquals(
+                "TimeZoneProvider , data: 0 chars, harvest: 3ms",
+                report.summary()
+        );
+    }
+
+    @Test
+    public void testDisabledIgnores() {
+        final TimeZoneProviderToolReport report = TimeZoneProviderToolReport.disabled();
+        report.property("locales", 2);
+        report.time("harvest", 1);
+        report.sectionChars("zones", 10);
+        report.zoneChars("Australia/Sydney", 20);
+        report.localeGroupChars("default", 10);
+
+        this.checkEquals(false, report.isEnabled(), "isEnabled");
+        this.checkEquals(
+                TimeZoneProviderToolReport.empty()
+                        .toJson(),
+                report.toJson()
+        );
+    }
+
+    private TimeZoneProviderToolReport report() {
+        final TimeZoneProviderToolReport report = TimeZoneProviderToolReport.empty();
+        report.property("locales", 2);
+        report.property("comments", false);
+        report.property("features", "[\"A\\B\"]\n\u00e9");
+        report.time("harvest", TimeUnit.MILLISECONDS.toNanos(3));
+        report.time("zones", TimeUnit.MILLISECONDS.toNanos(1));
+        report.sectionChars("zones", 10);
+        report.sectionChars("zones", 20);
+        report.payloadChars("data", 40);
+        report.zoneChars("Australia/Sydney", 20);
+        report.zoneChars("Australia/Perth", 10);
+        report.localeGroupChars("default", 10);
+        report.localeGroupChars("en-AU, en-NZ", 5);
+        report.localeGroupChars("default", 5);
+        return report;
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<TimeZoneProviderToolReport> type() {
+        return TimeZoneProviderToolReport.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
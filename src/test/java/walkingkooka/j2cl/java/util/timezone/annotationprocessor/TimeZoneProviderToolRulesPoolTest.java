@@ -0,0 +1,85 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.j2cl.java.util.timezone.zonerulesreader.org.threeten.bp.zone.ZoneRules;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.TimeZone;
+import java.util.stream.Collectors;
+
+public final class TimeZoneProviderToolRulesPoolTest implements ClassTesting<TimeZoneProviderToolRulesPool> {
+
+    @Test
+    public void testAliasesShareRules() throws IOException {
+        final TimeZoneProviderToolRulesPool pool = this.pool("Asia/Calcutta", "Asia/Kolkata", "Europe/Paris");
+
+        this.checkEquals(2, pool.size(), "size");
+        this.checkEquals(0, pool.index("Asia/Calcutta"), "Asia/Calcutta");
+        this.checkEquals(0, pool.index("Asia/Kolkata"), "Asia/Kolkata");
+        this.checkEquals(1, pool.index("Europe/Paris"), "Europe/Paris");
+    }
+
+    @Test
+    public void testAllZonesFewerRules() throws IOException {
+        final String[] zoneIds = TimeZone.getAvailableIDs();
+        final TimeZoneProviderToolRulesPool pool = this.pool(zoneIds);
+
+        this.checkEquals(
+                true,
+                pool.size() < zoneIds.length,
+                () -> "pool size " + pool.size() + " should be less than zone count " + zoneIds.length
+        );
+    }
+
+    private TimeZoneProviderToolRulesPool pool(final String... zoneIds) throws IOException {
+        return TimeZoneProviderToolRulesPool.with(
+                Arrays.stream(zoneIds)
+                        .map(TimeZoneProviderToolRulesPoolTest::zone)
+                        .collect(Collectors.toList())
+        );
+    }
+
+    private static TimeZoneProviderToolZone zone(final String zoneId) {
+        final TimeZone timeZone = TimeZone.getTimeZone(zoneId);
+        return TimeZoneProviderToolZone.with(
+                zoneId,
+                timeZone,
+                ZoneRules.of(timeZone.toZoneId()),
+                Collections.emptyMap(),
+                Collections.emptyMap()
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<TimeZoneProviderToolRulesPool> type() {
+        return TimeZoneProviderToolRulesPool.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
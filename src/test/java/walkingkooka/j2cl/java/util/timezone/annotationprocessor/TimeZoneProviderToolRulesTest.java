@@ -0,0 +1,212 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.j2cl.java.util.timezone.zonerulesreader.org.threeten.bp.zone.StandardZoneRules;
+import walkingkooka.j2cl.java.util.timezone.zonerulesreader.org.threeten.bp.zone.ZoneRules;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class TimeZoneProviderToolRulesTest implements ClassTesting<TimeZoneProviderToolRules> {
+
+    @Test
+    public void testWriteExternalAllZones() throws IOException {
+        for (final String zoneId : TimeZone.getAvailableIDs()) {
+            final ZoneRules zoneRules = rules(zoneId);
+
+            final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            zoneRules.writeExternal(new DataOutputStream(expected));
+
+            this.checkEquals(
+                    Arrays.toString(expected.toByteArray()),
+                    Arrays.toString(writeExternal(TimeZoneProviderToolRules.from(zoneRules))),
+                    () -> zoneId
+            );
+        }
+    }
+
+    @Test
+    public void testReadCompactAllZones() throws IOException {
+        for (final String zoneId : TimeZone.getAvailableIDs()) {
+            final TimeZoneProviderToolRules rules = TimeZoneProviderToolRules.from(rules(zoneId));
+
+            this.checkEquals(
+                    rules,
+                    TimeZoneProviderToolRules.readCompact(input(writeCompact(rules))),
+                    () -> zoneId
+            );
+        }
+    }
+
+    @Test
+    public void testReadCompactPrunedAllZones() throws IOException {
+        final long min = Instant.parse("1970-01-01T00:00:00Z").getEpochSecond();
+        final long max = Instant.parse("2050-01-01T00:00:00Z").getEpochSecond();
+
+        for (final String zoneId : TimeZone.getAvailableIDs()) {
+            final TimeZoneProviderToolRules rules = TimeZoneProviderToolRules.from(rules(zoneId))
+                    .prune(min, max);
+
+            this.checkEquals(
+                    rules,
+                    TimeZoneProviderToolRules.readCompact(input(writeCompact(rules))),
+                    () -> zoneId
+            );
+            StandardZoneRules.readExternal(input(writeExternal(rules)));
+        }
+    }
+
+    @Test
+    public void testReadCompactUnknownPaletteIndexFails() {
+        assertThrows(
+                ArrayIndexOutOfBoundsException.class,
+                () -> TimeZoneProviderToolRules.readCompact(input(new byte[]{
+                        0, 0, 0, 1, // palette count
+                        0, 0, 0, 0, // offset 0
+                        0, 0, 0, 0, // standard transition count
+                        0, 0, 0, 1, // palette index 1
+                }))
+        );
+    }
+
+    @Test
+    public void testWriteCompactSmaller() throws IOException {
+        int external = 0;
+        int compact = 0;
+
+        for (final String zoneId : TimeZone.getAvailableIDs()) {
+            final TimeZoneProviderToolRules rules = TimeZoneProviderToolRules.from(rules(zoneId));
+            external += text(rules::writeExternal).length();
+            compact += text(rules::writeCompact).length();
+        }
+
+        final int e = external;
+        final int c = compact;
+        assertTrue(c < e, () -> "compact " + c + " should be smaller than external " + e);
+    }
+
+    @Test
+    public void testToZoneRulesAllZones() throws IOException {
+        for (final String zoneId : TimeZone.getAvailableIDs()) {
+            final TimeZone timeZone = TimeZone.getTimeZone(zoneId);
+
+            this.checkEquals(
+                    timeZone.toZoneId().getRules(),
+                    TimeZoneProviderToolRules.from(rules(zoneId)).toZoneRules(),
+                    () -> zoneId
+            );
+        }
+    }
+
+    @Test
+    public void testToZoneRulesPrunedOffsets() throws IOException {
+        final Instant min = Instant.parse("1970-01-01T00:00:00Z");
+        final Instant max = Instant.parse("2050-01-01T00:00:00Z");
+
+        for (final String zoneId : TimeZone.getAvailableIDs()) {
+            final java.time.zone.ZoneRules expected = TimeZone.getTimeZone(zoneId)
+                    .toZoneId()
+                    .getRules();
+            final java.time.zone.ZoneRules pruned = TimeZoneProviderToolRules.from(rules(zoneId))
+                    .prune(min.getEpochSecond(), max.getEpochSecond())
+                    .toZoneRules();
+
+            for (Instant instant = min; instant.isBefore(max); instant = instant.plusSeconds(86400 * 7)) {
+                final Instant i = instant;
+                this.checkEquals(
+                        expected.getOffset(instant),
+                        pruned.getOffset(instant),
+                        () -> zoneId + " " + i
+                );
+            }
+        }
+    }
+
+    @Test
+    public void testEqualsDifferent() throws IOException {
+        this.checkNotEquals(
+                TimeZoneProviderToolRules.from(rules("Australia/Sydney")),
+                TimeZoneProviderToolRules.from(rules("Europe/Paris"))
+        );
+    }
+
+    @Test
+    public void testToString() throws IOException {
+        this.checkEquals(
+                "0 standard transitions, 0 savings transitions, 0 last rules",
+                TimeZoneProviderToolRules.from(rules("UTC")).toString()
+        );
+    }
+
+    private static ZoneRules rules(final String zoneId) {
+        return ZoneRules.of(TimeZone.getTimeZone(zoneId).toZoneId());
+    }
+
+    private static byte[] writeExternal(final TimeZoneProviderToolRules rules) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        rules.writeExternal(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static byte[] writeCompact(final TimeZoneProviderToolRules rules) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        rules.writeCompact(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static String text(final RulesWriter writer) throws IOException {
+        final StringBuilder text = new StringBuilder();
+        writer.write(StringDataInputDataOutput.output(text::append));
+        return text.toString();
+    }
+
+    private interface RulesWriter {
+        void write(final DataOutput output) throws IOException;
+    }
+
+    private static DataInputStream input(final byte[] bytes) {
+        return new DataInputStream(new ByteArrayInputStream(bytes));
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<TimeZoneProviderToolRules> type() {
+        return TimeZoneProviderToolRules.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.j2cl.java.util.timezone.zonerulesreader.org.threeten.bp.zone.StandardZoneRules;
+import walkingkooka.j2cl.java.util.timezone.zonerulesreader.org.threeten.bp.zone.ZoneRules;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class TimeZoneProviderToolRulesWindowTest implements ClassTesting<TimeZoneProviderToolRulesWindow> {
+
+    private final static long MIN = Instant.parse("1970-01-01T00:00:00Z").getEpochSecond();
+
+    private final static long MAX = Instant.parse("2050-01-01T00:00:00Z").getEpochSecond();
+
+    @Test
+    public void testWithMinAfterMaxFails() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> TimeZoneProviderToolRulesWindow.with(MAX, MIN)
+        );
+    }
+
+    @Test
+    public void testWithUnboundedIsAll() {
+        assertSame(
+                TimeZoneProviderToolRulesWindow.ALL,
+                TimeZoneProviderToolRulesWindow.with(Long.MIN_VALUE, Long.MAX_VALUE)
+        );
+    }
+
+    @Test
+    public void testAllSerializeSameAsWriteExternal() throws IOException {
+        final ZoneRules rules = rules("Australia/Sydney");
+        final StringBuilder expected = new StringBuilder();
+        rules.writeExternal(StringDataInputDataOutput.output(expected::append));
+
+        this.checkEquals(
+                expected.toString(),
+                TimeZoneProviderToolRulesWindow.ALL.serialize(rules)
+        );
+    }
+
+    @Test
+    public void testUnprunedSameAsWriteExternalAllZones() throws IOException {
+        final TimeZoneProviderToolRulesWindow window = TimeZoneProviderToolRulesWindow.with(Long.MIN_VALUE + 1, Long.MAX_VALUE);
+
+        for (final String zoneId : TimeZone.getAvailableIDs()) {
+            final ZoneRules rules = rules(zoneId);
+            final StringBuilder expected = new StringBuilder();
+            rules.writeExternal(StringDataInputDataOutput.output(expected::append));
+
+            this.checkEquals(
+                    expected.toString(),
+                    window.serialize(rules),
+                    zoneId
+            );
+        }
+    }
+
+    @Test
+    public void testPrunedSmallerAndReadable() throws IOException {
+        final ZoneRules rules = rules("Europe/London");
+        final byte[] pruned = write(TimeZoneProviderToolRulesWindow.with(MIN, MAX), rules);
+
+        assertTrue(
+                pruned.length < write(TimeZoneProviderToolRulesWindow.ALL, rules).length,
+                "pruned should be smaller"
+        );
+
+        StandardZoneRules.readExternal(new DataInputStream(new ByteArrayInputStream(pruned)));
+    }
+
+    @Test
+    public void testPrunedTransitionsAllZones() throws IOException {
+        final TimeZoneProviderToolRulesWindow window = TimeZoneProviderToolRulesWindow.with(MIN, MAX);
+
+        for (final String zoneId : TimeZone.getAvailableIDs()) {
+            final ZoneRules rules = rules(zoneId);
+
+            final TimeZoneProviderToolRules all = TimeZoneProviderToolRules.readExternal(new DataInputStream(new ByteArrayInputStream(write(TimeZoneProviderToolRulesWindow.ALL, rules))));
+            final TimeZoneProviderToolRules pruned = TimeZoneProviderToolRules.readExternal(new DataInputStream(new ByteArrayInputStream(write(window, rules))));
+            final boolean hasLastRules = false == all.lastRules.isEmpty();
+
+            this.checkTransitions(zoneId + " standard", all.standardTransitions, all.standardOffsets, pruned.standardTransitions, pruned.standardOffsets, hasLastRules);
+            this.checkTransitions(zoneId + " savings", all.savingsTransitions, all.wallOffsets, pruned.savingsTransitions, pruned.wallOffsets, hasLastRules);
+
+            this.checkEquals(
+                    all.lastRules.size(),
+                    pruned.lastRules.size(),
+                    () -> zoneId + " last rules"
+            );
+            for (int i = 0; i < all.lastRules.size(); i++) {
+                this.checkEquals(
+                        Arrays.toString(all.lastRules.get(i)),
+                        Arrays.toString(pruned.lastRules.get(i)),
+                        zoneId + " last rule " + i
+                );
+            }
+        }
+    }
+
+    private void checkTransitions(final String label,
+                                  final long[] all,
+                                  final int[] allOffsets,
+                                  final long[] pruned,
+                                  final int[] prunedOffsets,
+                                  final boolean hasLastRules) {
+        for (final long transition : all) {
+            final boolean kept = Arrays.binarySearch(pruned, transition) >= 0;
+            if (transition > MIN && (hasLastRules || transition <= MAX)) {
+                assertTrue(kept, () -> label + " transition " + Instant.ofEpochSecond(transition) + " missing");
+            }
+        }
+
+        if (hasLastRules && all.length > 0) {
+            this.checkEquals(
+                    all[all.length - 1],
+                    pruned[pruned.length - 1],
+                    () -> label + " last transition"
+            );
+        }
+
+        // the offsets at every kept transition and at the window minimum must match
+        for (int i = 0; i < pruned.length; i++) {
+            this.checkEquals(
+                    offset(all, allOffsets, pruned[i]),
+                    prunedOffsets[i + 1],
+                    label + " offset after " + Instant.ofEpochSecond(pruned[i])
+            );
+        }
+        // the last transition may be kept even when before the minimum
+        this.checkEquals(
+                offset(all, allOffsets, pruned.length > 0 && pruned[0] <= MIN ? pruned[0] - 1 : MIN),
+                prunedOffsets[0],
+                () -> label + " offset at minimum"
+        );
+    }
+
+    private static int offset(final long[] transitions,
+                              final int[] offsets,
+                              final long epochSecond) {
+        int index = Arrays.binarySearch(transitions, epochSecond);
+        if (index < 0) {
+            index = -index - 2;
+        }
+        return offsets[index + 1];
+    }
+
+    private static ZoneRules rules(final String zoneId) {
+        return ZoneRules.of(TimeZone.getTimeZone(zoneId).toZoneId());
+    }
+
+    private static byte[] write(final TimeZoneProviderToolRulesWindow window,
+                                final ZoneRules rules) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        window.write(rules, new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    @Test
+    public void testYearsAll() {
+        this.yearsAndCheck(
+                TimeZoneProviderToolRulesWindow.ALL,
+                TimeZoneProviderToolYearTable.DEFAULT_FIRST_YEAR,
+                TimeZoneProviderToolYearTable.DEFAULT_LAST_YEAR
+        );
+    }
+
+    @Test
+    public void testYears() {
+        this.yearsAndCheck(
+                TimeZoneProviderToolRulesWindow.with(MIN, MAX),
+                1970,
+                2050
+        );
+    }
+
+    @Test
+    public void testYearsMinOnlyAfterDefaultLastYear() {
+        this.yearsAndCheck(
+                TimeZoneProviderToolRulesWindow.with(Instant.parse("2040-06-01T00:00:00Z").getEpochSecond(), Long.MAX_VALUE),
+                2040,
+                2040
+        );
+    }
+
+    @Test
+    public void testYearsMaxOnlyBeforeDefaultFirstYear() {
+        this.yearsAndCheck(
+                TimeZoneProviderToolRulesWindow.with(Long.MIN_VALUE, Instant.parse("1960-06-01T00:00:00Z").getEpochSecond()),
+                1960,
+                1960
+        );
+    }
+
+    private void yearsAndCheck(final TimeZoneProviderToolRulesWindow window,
+                               final int firstYear,
+                               final int lastYear) {
+        this.checkEquals(firstYear, window.firstYear(), () -> window + " firstYear");
+        this.checkEquals(lastYear, window.lastYear(), () -> window + " lastYear");
+    }
+
+    @Test
+    public void testToString() {
+        this.checkEquals(
+                "1970-01-01T00:00:00Z..2050-01-01T00:00:00Z",
+                TimeZoneProviderToolRulesWindow.with(MIN, MAX).toString()
+        );
+    }
+
+    @Test
+    public void testToStringMinOnly() {
+        this.checkEquals(
+                "1970-01-01T00:00:00Z..",
+                TimeZoneProviderToolRulesWindow.with(MIN, Long.MAX_VALUE).toString()
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<TimeZoneProviderToolRulesWindow> type() {
+        return TimeZoneProviderToolRulesWindow.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+public final class TimeZoneProviderToolTeeDataOutputTest implements ClassTesting<TimeZoneProviderToolTeeDataOutput> {
+
+    @Test
+    public void testWritesBoth() throws IOException {
+        final StringBuilder expectedText = new StringBuilder();
+        final ByteArrayOutputStream expectedBytes = new ByteArrayOutputStream();
+        write(StringDataInputDataOutput.output(expectedText::append));
+        write(new DataOutputStream(expectedBytes));
+
+        final StringBuilder text = new StringBuilder();
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        write(
+                TimeZoneProviderToolTeeDataOutput.with(
+                        StringDataInputDataOutput.output(text::append),
+                        new DataOutputStream(bytes)
+                )
+        );
+
+        this.checkEquals(expectedText.toString(), text.toString(), "first");
+        this.checkEquals(Arrays.toString(expectedBytes.toByteArray()), Arrays.toString(bytes.toByteArray()), "second");
+    }
+
+    private static void write(final DataOutput output) throws IOException {
+        output.writeBoolean(true);
+        output.writeByte(1);
+        output.writeShort(2);
+        output.writeChar('3');
+        output.writeInt(4);
+        output.writeLong(5);
+        output.writeFloat(6.5f);
+        output.writeDouble(7.5);
+        output.writeUTF("abc");
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<TimeZoneProviderToolTeeDataOutput> type() {
+        return TimeZoneProviderToolTeeDataOutput.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
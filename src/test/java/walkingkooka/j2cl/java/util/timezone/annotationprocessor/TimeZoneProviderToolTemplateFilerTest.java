@@ -0,0 +1,141 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.map.Maps;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import javax.annotation.processing.Filer;
+import javax.lang.model.element.Element;
+import javax.tools.FileObject;
+import javax.tools.JavaFileManager.Location;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.net.URI;
+import java.util.Map;
+
+public final class TimeZoneProviderToolTemplateFilerTest implements ClassTesting<TimeZoneProviderToolTemplateFiler> {
+
+    private final static String SOURCE = "String DATA = preventInlining(\"\")" + TimeZoneProviderToolTemplateFiler.PLACEHOLDER + ";";
+
+    @Test
+    public void testTemplateEmpty() throws IOException {
+        this.writeAndCheck(
+                TimeZoneProviderToolTemplateFiler.CLASS_NAME,
+                "",
+                "String DATA = preventInlining(\"\");"
+        );
+    }
+
+    @Test
+    public void testTemplateAppendData() throws IOException {
+        this.writeAndCheck(
+                TimeZoneProviderToolTemplateFiler.CLASS_NAME,
+                " + TimeZoneProviderData.DATA",
+                "String DATA = preventInlining(\"\") + TimeZoneProviderData.DATA;"
+        );
+    }
+
+    @Test
+    public void testOtherSourceUnchanged() throws IOException {
+        this.writeAndCheck(
+                TimeZoneProviderToolChunkWriter.PACKAGE + ".TimeZoneProviderData",
+                " + TimeZoneProviderData.DATA",
+                SOURCE
+        );
+    }
+
+    private void writeAndCheck(final String className,
+                               final String appendData,
+                               final String expected) throws IOException {
+        final Map<String, StringWriter> sources = Maps.sorted();
+        final Filer filer = TimeZoneProviderToolTemplateFiler.with(
+                new FakeFiler() {
+                    @Override
+                    public JavaFileObject createSourceFile(final CharSequence name,
+                                                           final Element... originatingElements) {
+                        return new SimpleJavaFileObject(URI.create("string:///" + name), JavaFileObject.Kind.SOURCE) {
+                            @Override
+                            public Writer openWriter() {
+                                final StringWriter writer = new StringWriter();
+                                sources.put(name.toString(), writer);
+                                return writer;
+                            }
+                        };
+                    }
+                },
+                () -> appendData
+        );
+
+        try (final Writer writer = filer.createSourceFile(className).openWriter()) {
+            writer.write(SOURCE);
+        }
+
+        this.checkEquals(
+                expected,
+                sources.get(className).toString()
+        );
+    }
+
+    private static class FakeFiler implements Filer {
+
+        @Override
+        public JavaFileObject createSourceFile(final CharSequence name,
+                                               final Element... originatingElements) throws IOException {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public JavaFileObject createClassFile(final CharSequence name,
+                                              final Element... originatingElements) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileObject createResource(final Location location,
+                                         final CharSequence moduleAndPkg,
+                                         final CharSequence relativeName,
+                                         final Element... originatingElements) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public FileObject getResource(final Location location,
+                                      final CharSequence moduleAndPkg,
+                                      final CharSequence relativeName) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<TimeZoneProviderToolTemplateFiler> type() {
+        return TimeZoneProviderToolTemplateFiler.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -18,7 +18,10 @@
 package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
 
 import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.map.Maps;
 import walkingkooka.collect.set.Sets;
+import walkingkooka.collect.set.SortedSets;
 import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
 import walkingkooka.j2cl.java.util.timezone.zonerulesreader.org.threeten.bp.zone.StandardZoneRules;
 import walkingkooka.j2cl.java.util.timezone.zonerulesreader.org.threeten.bp.zone.ZoneRules;
@@ -36,11 +39,18 @@ import walkingkooka.text.printer.Printers;
 import java.io.DataInput;
 import java.io.EOFException;
 import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
 import java.util.GregorianCalendar;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 import java.util.TimeZone;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -92,18 +102,132 @@ public final class TimeZoneProviderToolTest implements ClassTesting<TimeZoneProv
         );
     }
 
+    @Test
+    public void testENAUENNZAustraliaGlobalCalendar() throws Exception {
+        this.generateAndCheck(
+                "EN-AU,EN-NZ",
+                "Australia/*",
+                EnumSet.of(TimeZoneProviderToolFeature.GLOBAL_CALENDAR),
+                "// Timezone ids: 1, locales: 2\n" +
+                        "// Features: [GLOBAL_CALENDAR]\n" +
+                        "// Calendar\n" +
+                        "//   default firstDayOfWeek: 1\n" +
+                        "//   default minimalDaysInFirstWeek: 1\n" +
+                        "//   locales=en-NZ\n" +
+                        "//     firstDayOfWeek: 2\n" +
+                        "//     minimalDaysInFirstWeek: 1\n" +
+                        "// \n" +
+                        "// Australia/*\n" +
+                        "//   rawOffset: 0\n" +
+                        "//   en-AU, en-NZ=\"GMT\" \"GMT\" \"Greenwich Mean Time\" \"Greenwich Mean Time\"\n" +
+                        "//   default shortDisplayName: GMT\n" +
+                        "//   default shortDisplayNameDaylight: GMT\n" +
+                        "//   default longDisplayName: Greenwich Mean Time\n" +
+                        "//   default longDisplayNameDaylight Greenwich Mean Time\n" +
+                        "// \n" +
+                        "\n" +
+                        "\n" +
+                        "-1,1,1,1,1,1,en-NZ,2,1,1,Australia/*,0,0,0,0,0,0,GMT,GMT,Greenwich Mean Time,Greenwich Mean Time,0"
+        );
+    }
+
+    @Test
+    public void testENAUENGBFRAustraliaStringTable() throws Exception {
+        this.generateAndCheck(
+                "EN-AU,EN-GB,FR",
+                "Australia/*",
+                EnumSet.of(TimeZoneProviderToolFeature.STRING_TABLE),
+                "// Timezone ids: 1, locales: 3\n" +
+                        "// Features: [STRING_TABLE]\n" +
+                        "// Strings: 3\n" +
+                        "//   0=\"GMT\"\n" +
+                        "//   1=\"Greenwich Mean Time\"\n" +
+                        "//   2=\"heure moyenne de Greenwich\"\n" +
+                        "// \n" +
+                        "// Australia/*\n" +
+                        "//   rawOffset: 0\n" +
+                        "//   default firstDayOfWeek: 1\n" +
+                        "//   default minimalDaysInFirstWeek: 1\n" +
+                        "//   locales=en-GB\n" +
+                        "//     firstDayOfWeek: 2\n" +
+                        "//     minimalDaysInFirstWeek: 4\n" +
+                        "//   en-AU, en-GB=\"GMT\" \"GMT\" \"Greenwich Mean Time\" \"Greenwich Mean Time\"\n" +
+                        "//   fr=\"GMT\" \"GMT\" \"heure moyenne de Greenwich\" \"heure moyenne de Greenwich\"\n" +
+                        "//   default shortDisplayName: GMT\n" +
+                        "//   default shortDisplayNameDaylight: GMT\n" +
+                        "//   default longDisplayName: Greenwich Mean Time\n" +
+                        "//   default longDisplayNameDaylight Greenwich Mean Time\n" +
+                        "//   locales=fr\n" +
+                        "//     shortDisplayName: GMT\n" +
+                        "//     shortDisplayNameDaylight: GMT\n" +
+                        "//     longDisplayName: heure moyenne de Greenwich\n" +
+                        "//     longDisplayNameDaylight heure moyenne de Greenwich\n" +
+                        "// \n" +
+                        "\n" +
+                        "\n" +
+                        "-1,2,3,GMT,Greenwich Mean Time,heure moyenne de Greenwich,1,Australia/*,0,0,0,0,0,0,1,1,1,1,en-GB,2,4,0,0,1,1,1,1,fr,0,0,2,2"
+        );
+    }
+
+    @Test
+    public void testENAUENBEENGBENIEENUSAustraliaLocaleTable() throws Exception {
+        this.generateAndCheck(
+                "EN-AU,EN-BE,EN-GB,EN-IE,EN-US",
+                "Australia/*",
+                EnumSet.of(TimeZoneProviderToolFeature.LOCALE_TABLE),
+                "// Timezone ids: 1, locales: 5\n" +
+                        "// Features: [LOCALE_TABLE]\n" +
+                        "// Locales: 5\n" +
+                        "//   0=en-AU\n" +
+                        "//   1=en-BE\n" +
+                        "//   2=en-GB\n" +
+                        "//   3=en-IE\n" +
+                        "//   4=en-US\n" +
+                        "// \n" +
+                        "// Australia/*\n" +
+                        "//   rawOffset: 0\n" +
+                        "//   default firstDayOfWeek: 2\n" +
+                        "//   default minimalDaysInFirstWeek: 4\n" +
+                        "//   locales=en-AU, en-US\n" +
+                        "//     firstDayOfWeek: 1\n" +
+                        "//     minimalDaysInFirstWeek: 1\n" +
+                        "//   en-AU, en-BE, en-GB, en-IE, en-US=\"GMT\" \"GMT\" \"Greenwich Mean Time\" \"Greenwich Mean Time\"\n" +
+                        "//   default shortDisplayName: GMT\n" +
+                        "//   default shortDisplayNameDaylight: GMT\n" +
+                        "//   default longDisplayName: Greenwich Mean Time\n" +
+                        "//   default longDisplayNameDaylight Greenwich Mean Time\n" +
+                        "// \n" +
+                        "\n" +
+                        "\n" +
+                        "-1,4,5,en-AU,en-BE,en-GB,en-IE,en-US,1,Australia/*,0,0,0,0,0,0,2,4,1,2,0,1,4,1,1,1,GMT,GMT,Greenwich Mean Time,Greenwich Mean Time,0"
+        );
+    }
+
     private void generateAndCheck(final String filter,
                                   final String timeZoneIds,
                                   final String expected) throws Exception {
+        this.generateAndCheck(
+                filter,
+                timeZoneIds,
+                EnumSet.noneOf(TimeZoneProviderToolFeature.class),
+                expected
+        );
+    }
+
+    private void generateAndCheck(final String filter,
+                                  final String timeZoneIds,
+                                  final Set<TimeZoneProviderToolFeature> features,
+                                  final String expected) throws Exception {
         this.checkEquals(
                 expected,
-                generate(filter, timeZoneIds),
-                () -> "filter=" + CharSequences.quoteAndEscape(filter) + " timeZoneIds=" + CharSequences.quoteAndEscape(timeZoneIds)
+                generate(filter, timeZoneIds, features),
+                () -> "filter=" + CharSequences.quoteAndEscape(filter) + " timeZoneIds=" + CharSequences.quoteAndEscape(timeZoneIds) + " features=" + features
         );
     }
 
     private String generate(final String filter,
-                            final String timeZoneIds) throws Exception {
+                            final String timeZoneIds,
+                            final Set<TimeZoneProviderToolFeature> features) throws Exception {
         final StringBuilder comments = new StringBuilder();
         final StringBuilder data = new StringBuilder();
         final LineEnding eol = LineEnding.NL;
@@ -111,6 +235,8 @@ public final class TimeZoneProviderToolTest implements ClassTesting<TimeZoneProv
         try (final Printer printer = Printers.stringBuilder(comments, eol)) {
             TimeZoneProviderTool.generate(filter.isEmpty() ? Sets.empty() : WalkingkookaLanguageTag.locales(filter),
                     timeZoneIds.isEmpty() ? Sets.empty() : Sets.of(timeZoneIds),
+                    features,
+                    false,
                     StringDataInputDataOutput.output(data::append),
                     LocaleAwareAnnotationProcessor.comments(printer));
             printer.print(eol);
@@ -121,6 +247,280 @@ public final class TimeZoneProviderToolTest implements ClassTesting<TimeZoneProv
         }
     }
 
+    @Test
+    public void testParallelSameAsSequentialLocaleENWildcardTimeZoneIdAustralia() throws Exception {
+        this.parallelAndCheck("EN*", "Australia/*");
+    }
+
+    @Test
+    public void testParallelSameAsSequentialLocaleWildcardTimeZoneIdEurope() throws Exception {
+        this.parallelAndCheck("*", "Europe/*");
+    }
+
+    private void parallelAndCheck(final String localeFilter,
+                                  final String timeZoneIdFilter) throws Exception {
+        TimeZoneProviderTool.clearMemo();
+        final String sequential = this.generate(localeFilter, timeZoneIdFilter, false);
+
+        TimeZoneProviderTool.clearMemo();
+        this.checkEquals(
+                sequential,
+                this.generate(localeFilter, timeZoneIdFilter, true),
+                () -> "parallel localeFilter=" + CharSequences.quoteAndEscape(localeFilter) + " timeZoneIdFilter=" + CharSequences.quoteAndEscape(timeZoneIdFilter)
+        );
+    }
+
+    @Test
+    public void testNoCommentsSameDataLocaleENWildcardTimeZoneIdEurope() throws Exception {
+        this.noCommentsAndCheck("EN*", "Europe/*");
+    }
+
+    @Test
+    public void testNoCommentsSameDataAllFeaturesLocaleENWildcardTimeZoneIdEurope() throws Exception {
+        this.noCommentsAndCheck("EN*", "Europe/*", TimeZoneProviderToolFeature.values());
+    }
+
+    private void noCommentsAndCheck(final String localeFilter,
+                                    final String timeZoneIdFilter,
+                                    final TimeZoneProviderToolFeature... features) throws Exception {
+        final Set<TimeZoneProviderToolFeature> featuresSet = EnumSet.noneOf(TimeZoneProviderToolFeature.class);
+        featuresSet.addAll(Arrays.asList(features));
+
+        final StringBuilder data = new StringBuilder();
+        final StringBuilder comments = new StringBuilder();
+        TimeZoneProviderTool.generate(
+                WalkingkookaLanguageTag.locales(localeFilter),
+                TimeZoneProviderTool.timezoneIds(timeZoneIdFilter),
+                featuresSet,
+                false,
+                StringDataInputDataOutput.output(data::append),
+                LocaleAwareAnnotationProcessor.comments(Printers.stringBuilder(comments, LineEnding.NL))
+        );
+
+        final StringBuilder noCommentsData = new StringBuilder();
+        TimeZoneProviderTool.generate(
+                WalkingkookaLanguageTag.locales(localeFilter),
+                TimeZoneProviderTool.timezoneIds(timeZoneIdFilter),
+                featuresSet,
+                false,
+                StringDataInputDataOutput.output(noCommentsData::append),
+                TimeZoneProviderTool.NO_COMMENTS
+        );
+
+        this.checkNotEquals(0, comments.length(), "comments");
+        this.checkEquals(
+                data.toString(),
+                noCommentsData.toString(),
+                () -> "no comments localeFilter=" + CharSequences.quoteAndEscape(localeFilter) + " timeZoneIdFilter=" + CharSequences.quoteAndEscape(timeZoneIdFilter) + " features=" + featuresSet
+        );
+    }
+
+    @Test
+    public void testMemoSameAsHarvestLocaleENWildcardTimeZoneIdEurope() throws Exception {
+        TimeZoneProviderTool.clearMemo();
+        final String harvested = this.generate("EN*", "Europe/*", false);
+
+        this.checkEquals(
+                harvested,
+                this.generate("EN*", "Europe/*", false),
+                "second generate using memo"
+        );
+    }
+
+    @Test
+    public void testMemoWeightLocaleENWildcardTimeZoneIdEurope() throws Exception {
+        TimeZoneProviderTool.clearMemo();
+        this.generate("EN*", "Europe/*", false);
+
+        final long weight = TimeZoneProviderTool.zonesWeight();
+        final long localesAndZones = WalkingkookaLanguageTag.locales("EN*").size() *
+                (long) TimeZoneProviderTool.timezoneIds("Europe/*").size();
+        this.checkEquals(
+                true,
+                weight >= localesAndZones && weight <= TimeZoneProviderTool.ZONES_CAPACITY,
+                () -> "weight " + weight + " locales * zones " + localesAndZones
+        );
+    }
+
+    @Test
+    public void testZonesCapacityEveryZoneInEveryLocale() {
+        final long localesAndZones = Locale.getAvailableLocales().length *
+                (long) TimeZone.getAvailableIDs().length;
+        this.checkEquals(
+                true,
+                TimeZoneProviderTool.ZONES_CAPACITY >= localesAndZones,
+                () -> "capacity " + TimeZoneProviderTool.ZONES_CAPACITY + " locales * zones " + localesAndZones
+        );
+    }
+
+    @Test
+    public void testReportLocaleENWildcardTimeZoneIdEurope() throws Exception {
+        this.reportAndCheck("EN*", "Europe/*");
+    }
+
+    @Test
+    public void testReportAllFeaturesLocaleENWildcardTimeZoneIdEurope() throws Exception {
+        this.reportAndCheck("EN*", "Europe/*", TimeZoneProviderToolFeature.values());
+    }
+
+    private void reportAndCheck(final String localeFilter,
+                                final String timeZoneIdFilter,
+                                final TimeZoneProviderToolFeature... features) throws Exception {
+        final Set<TimeZoneProviderToolFeature> featuresSet = EnumSet.noneOf(TimeZoneProviderToolFeature.class);
+        featuresSet.addAll(Arrays.asList(features));
+
+        final Set<String> timeZoneIds = TimeZoneProviderTool.timezoneIds(timeZoneIdFilter);
+        final TimeZoneProviderToolReport report = TimeZoneProviderToolReport.empty();
+        final StringBuilder data = new StringBuilder();
+
+        TimeZoneProviderTool.generate(
+                WalkingkookaLanguageTag.locales(localeFilter),
+                timeZoneIds,
+                featuresSet,
+                true,
+                StringDataInputDataOutput.output(data::append),
+                TimeZoneProviderTool.NO_COMMENTS,
+                report
+        );
+
+        final Map<String, Long> sectionChars = report.sectionChars();
+        this.checkEquals(
+                (long) data.length(),
+                sectionChars.values()
+                        .stream()
+                        .mapToLong(Long::longValue)
+                        .sum(),
+                () -> "section chars " + sectionChars
+        );
+
+        final Map<String, Long> zoneChars = report.zoneChars();
+        this.checkEquals(
+                sectionChars.get("zones"),
+                zoneChars.values()
+                        .stream()
+                        .mapToLong(Long::longValue)
+                        .sum(),
+                "zone chars"
+        );
+        this.checkEquals(
+                timeZoneIds,
+                zoneChars.keySet()
+                        .stream()
+                        .flatMap(ids -> Arrays.stream(ids.split(", ")))
+                        .collect(Collectors.toCollection(SortedSets::tree)),
+                "zone ids"
+        );
+
+        this.checkNotEquals(
+                Collections.emptyMap(),
+                report.localeGroupChars(),
+                "locale groups"
+        );
+    }
+
+    @Test
+    public void testClusterZonesGzipSmallerLocaleENWildcardAllTimeZoneIds() throws Exception {
+        final long sorted = this.gzipBytes();
+        final long clustered = this.gzipBytes(TimeZoneProviderToolFeature.CLUSTER_ZONES);
+
+        assertTrue(clustered < sorted, () -> "clustered gzip " + clustered + " should be smaller than sorted " + sorted);
+    }
+
+    private long gzipBytes(final TimeZoneProviderToolFeature... features) throws Exception {
+        final Set<TimeZoneProviderToolFeature> featuresSet = EnumSet.noneOf(TimeZoneProviderToolFeature.class);
+        featuresSet.addAll(Arrays.asList(features));
+
+        final TimeZoneProviderToolPayloadSize size = TimeZoneProviderToolPayloadSize.empty();
+        TimeZoneProviderTool.generate(
+                WalkingkookaLanguageTag.locales("EN*"),
+                TimeZoneProviderTool.timezoneIds("*"),
+                featuresSet,
+                false,
+                StringDataInputDataOutput.output(size::append),
+                TimeZoneProviderTool.NO_COMMENTS
+        );
+        return size.gzipBytes();
+    }
+
+    @Test
+    public void testRulesWindowSmaller() throws Exception {
+        this.rulesWindowAndCheck();
+    }
+
+    @Test
+    public void testRulesWindowSmallerRulesPool() throws Exception {
+        this.rulesWindowAndCheck(TimeZoneProviderToolFeature.RULES_POOL);
+    }
+
+    private void rulesWindowAndCheck(final TimeZoneProviderToolFeature... features) throws Exception {
+        final Set<TimeZoneProviderToolFeature> featuresSet = EnumSet.noneOf(TimeZoneProviderToolFeature.class);
+        featuresSet.addAll(Arrays.asList(features));
+
+        final TimeZoneProviderToolReport all = TimeZoneProviderToolReport.empty();
+        TimeZoneProviderTool.generate(
+                WalkingkookaLanguageTag.locales("EN-AU"),
+                TimeZoneProviderTool.timezoneIds("*"),
+                featuresSet,
+                TimeZoneProviderToolRulesWindow.ALL,
+                false,
+                StringDataInputDataOutput.output(s -> {
+                }),
+                TimeZoneProviderTool.NO_COMMENTS,
+                all
+        );
+
+        final TimeZoneProviderToolReport pruned = TimeZoneProviderToolReport.empty();
+        TimeZoneProviderTool.generate(
+                WalkingkookaLanguageTag.locales("EN-AU"),
+                TimeZoneProviderTool.timezoneIds("*"),
+                featuresSet,
+                TimeZoneProviderToolRulesWindow.with(
+                        Instant.parse("1970-01-01T00:00:00Z").getEpochSecond(),
+                        Instant.parse("2050-01-01T00:00:00Z").getEpochSecond()
+                ),
+                false,
+                StringDataInputDataOutput.output(s -> {
+                }),
+                TimeZoneProviderTool.NO_COMMENTS,
+                pruned
+        );
+
+        final long allChars = all.sectionChars()
+                .values()
+                .stream()
+                .mapToLong(Long::longValue)
+                .sum();
+        final long prunedChars = pruned.sectionChars()
+                .values()
+                .stream()
+                .mapToLong(Long::longValue)
+                .sum();
+        assertTrue(
+                prunedChars < allChars,
+                () -> "pruned " + prunedChars + " should be less than " + allChars
+        );
+    }
+
+    private String generate(final String localeFilter,
+                            final String timeZoneIdFilter,
+                            final boolean parallel) throws Exception {
+        final StringBuilder comments = new StringBuilder();
+        final StringBuilder data = new StringBuilder();
+        final LineEnding eol = LineEnding.NL;
+
+        try (final Printer printer = Printers.stringBuilder(comments, eol)) {
+            TimeZoneProviderTool.generate(WalkingkookaLanguageTag.locales(localeFilter),
+                    TimeZoneProviderTool.timezoneIds(timeZoneIdFilter),
+                    EnumSet.noneOf(TimeZoneProviderToolFeature.class),
+                    parallel,
+                    StringDataInputDataOutput.output(data::append),
+                    LocaleAwareAnnotationProcessor.comments(printer));
+            printer.flush();
+
+            return "" + comments + eol + data;
+        }
+    }
+
     @Test
     public void testGenerateReadAndVerifyLocaleENAUTimeZoneIdAustralia() throws Exception {
         this.generateReadAndVerify("EN-AU", "Australia/*");
@@ -151,8 +551,109 @@ public final class TimeZoneProviderToolTest implements ClassTesting<TimeZoneProv
         this.generateReadAndVerify("*", "*");
     }
 
+    @Test
+    public void testGenerateReadAndVerifyGlobalCalendarLocaleENWildcardTimeZoneIdAustralia() throws Exception {
+        this.generateReadAndVerify("EN*", "Australia/*", TimeZoneProviderToolFeature.GLOBAL_CALENDAR);
+    }
+
+    @Test
+    public void testGenerateReadAndVerifyStringTableLocaleENWildcardTimeZoneIdAustralia() throws Exception {
+        this.generateReadAndVerify("EN*", "Australia/*", TimeZoneProviderToolFeature.STRING_TABLE);
+    }
+
+    @Test
+    public void testGenerateReadAndVerifyStringTableGlobalCalendarAllLocalesTimeZoneIdEurope() throws Exception {
+        this.generateReadAndVerify("*", "Europe/*", TimeZoneProviderToolFeature.GLOBAL_CALENDAR, TimeZoneProviderToolFeature.STRING_TABLE);
+    }
+
+    @Test
+    public void testGenerateReadAndVerifyLocaleTableLocaleENWildcardTimeZoneIdAustralia() throws Exception {
+        this.generateReadAndVerify("EN*", "Australia/*", TimeZoneProviderToolFeature.LOCALE_TABLE);
+    }
+
+    @Test
+    public void testGenerateReadAndVerifyLocaleTableStringTableGlobalCalendarAllLocalesTimeZoneIdAmerica() throws Exception {
+        this.generateReadAndVerify("*", "America/*", TimeZoneProviderToolFeature.GLOBAL_CALENDAR, TimeZoneProviderToolFeature.STRING_TABLE, TimeZoneProviderToolFeature.LOCALE_TABLE);
+    }
+
+    @Test
+    public void testGenerateReadAndVerifyRulesPoolLocaleENWildcardTimeZoneIdAsia() throws Exception {
+        this.generateReadAndVerify("EN*", "Asia/*", TimeZoneProviderToolFeature.RULES_POOL);
+    }
+
+    @Test
+    public void testGenerateReadAndVerifyZoneAliasesLocaleENWildcardAllTimeZoneIds() throws Exception {
+        this.generateReadAndVerify("EN*", "*", TimeZoneProviderToolFeature.ZONE_ALIASES);
+    }
+
+    @Test
+    public void testGenerateReadAndVerifyZoneAliasesRulesPoolLocaleENAUTimeZoneIdEtc() throws Exception {
+        this.generateReadAndVerify("EN-AU", "Etc/*", TimeZoneProviderToolFeature.ZONE_ALIASES, TimeZoneProviderToolFeature.RULES_POOL);
+    }
+
+    @Test
+    public void testGenerateReadAndVerifyAllFeaturesAllLocalesTimeZoneIdPacific() throws Exception {
+        this.generateReadAndVerify("*", "Pacific/*", TimeZoneProviderToolFeature.values());
+    }
+
+    @Test
+    public void testGenerateReadAndVerifyZoneIndexLocaleENWildcardTimeZoneIdAustralia() throws Exception {
+        this.generateReadAndVerify("EN*", "Australia/*", TimeZoneProviderToolFeature.ZONE_INDEX);
+    }
+
+    @Test
+    public void testGenerateReadAndVerifyZoneIndexZoneAliasesLocaleENWildcardAllTimeZoneIds() throws Exception {
+        this.generateReadAndVerify("EN*", "*", TimeZoneProviderToolFeature.ZONE_INDEX, TimeZoneProviderToolFeature.ZONE_ALIASES);
+    }
+
+    @Test
+    public void testGenerateReadAndVerifyCompactRulesLocaleENAUAllTimeZoneIds() throws Exception {
+        this.generateReadAndVerify("EN-AU", "*", TimeZoneProviderToolFeature.COMPACT_RULES);
+    }
+
+    @Test
+    public void testGenerateReadAndVerifyCompactRulesRulesPoolLocaleENAUTimeZoneIdEurope() throws Exception {
+        this.generateReadAndVerify("EN-AU", "Europe/*", TimeZoneProviderToolFeature.COMPACT_RULES, TimeZoneProviderToolFeature.RULES_POOL);
+    }
+
+    @Test
+    public void testGenerateReadAndVerifyYearTableLocaleENAUAllTimeZoneIds() throws Exception {
+        this.generateReadAndVerify("EN-AU", "*", TimeZoneProviderToolFeature.YEAR_TABLE);
+    }
+
+    @Test
+    public void testGenerateReadAndVerifyYearTableZoneAliasesLocaleENWildcardTimeZoneIdAmerica() throws Exception {
+        this.generateReadAndVerify("EN*", "America/*", TimeZoneProviderToolFeature.YEAR_TABLE, TimeZoneProviderToolFeature.ZONE_ALIASES);
+    }
+
+    @Test
+    public void testGenerateReadAndVerifyLocaleFallbackAllLocalesTimeZoneIdEurope() throws Exception {
+        this.generateReadAndVerify("*", "Europe/*", TimeZoneProviderToolFeature.LOCALE_FALLBACK);
+    }
+
+    @Test
+    public void testGenerateReadAndVerifyLocaleFallbackGlobalCalendarLocaleTableAllLocalesTimeZoneIdAmerica() throws Exception {
+        this.generateReadAndVerify("*", "America/*", TimeZoneProviderToolFeature.LOCALE_FALLBACK, TimeZoneProviderToolFeature.GLOBAL_CALENDAR, TimeZoneProviderToolFeature.LOCALE_TABLE);
+    }
+
+    @Test
+    public void testGenerateReadAndVerifyClusterZonesLocaleENAUAllTimeZoneIds() throws Exception {
+        this.generateReadAndVerify("EN-AU", "*", TimeZoneProviderToolFeature.CLUSTER_ZONES);
+    }
+
+    @Test
+    public void testGenerateReadAndVerifyClusterZonesZoneIndexZoneAliasesLocaleENWildcardAllTimeZoneIds() throws Exception {
+        this.generateReadAndVerify("EN*", "*", TimeZoneProviderToolFeature.CLUSTER_ZONES, TimeZoneProviderToolFeature.ZONE_INDEX, TimeZoneProviderToolFeature.ZONE_ALIASES);
+    }
+
+    @Test
+    public void testGenerateReadAndVerifyGlobalCalendarAllLocalesTimeZoneIdEurope() throws Exception {
+        this.generateReadAndVerify("*", "Europe/*", TimeZoneProviderToolFeature.GLOBAL_CALENDAR);
+    }
+
     private void generateReadAndVerify(final String localeFilter,
-                                       final String timeZoneIdFilter) throws Exception {
+                                       final String timeZoneIdFilter,
+                                       final TimeZoneProviderToolFeature... features) throws Exception {
         final Set<Locale> selectedLocales = WalkingkookaLanguageTag.locales(localeFilter);
         final Set<String> timeZoneIds = TimeZoneProviderTool.timezoneIds(timeZoneIdFilter);
 
@@ -161,67 +662,195 @@ public final class TimeZoneProviderToolTest implements ClassTesting<TimeZoneProv
 
         final StringBuilder dataText = new StringBuilder();
 
+        final Set<TimeZoneProviderToolFeature> featuresSet = EnumSet.noneOf(TimeZoneProviderToolFeature.class);
+        featuresSet.addAll(Arrays.asList(features));
+
         TimeZoneProviderTool.generate(
                 selectedLocales,
                 timeZoneIds,
+                featuresSet,
+                false,
                 StringDataInputDataOutput.output(dataText::append),
                 Printers.sink(LineEnding.NONE)
                         .indenting(Indentation.SPACES2)
         );
 
-        final DataInput data = StringDataInputDataOutput.input(dataText.toString());
+        final String text = dataText.toString();
+        final DataInput data = StringDataInputDataOutput.input(text);
+
+        // features.....................................................................................................
+        if (false == featuresSet.isEmpty()) {
+            this.checkEquals(TimeZoneProviderToolFeature.MARKER, data.readInt(), "features marker");
+            this.checkEquals(TimeZoneProviderToolFeature.bits(featuresSet), data.readInt(), "features bits");
+        }
+
+        final List<Locale> localeTable = featuresSet.contains(TimeZoneProviderToolFeature.LOCALE_TABLE) ?
+                this.readLocaleTable(data, selectedLocales) :
+                null;
+
+        final boolean localeFallback = featuresSet.contains(TimeZoneProviderToolFeature.LOCALE_FALLBACK);
+
+        final boolean globalCalendar = featuresSet.contains(TimeZoneProviderToolFeature.GLOBAL_CALENDAR);
+        if (globalCalendar) {
+            this.readAndCheckCalendarData(data,
+                    selectedLocales,
+                    localeTable,
+                    localeFallback,
+                    Lists.of(TimeZone.getTimeZone("UTC")));
+        }
+
+        final List<String> strings = featuresSet.contains(TimeZoneProviderToolFeature.STRING_TABLE) ?
+                this.readStrings(data) :
+                null;
+
+        final boolean compactRules = featuresSet.contains(TimeZoneProviderToolFeature.COMPACT_RULES);
+
+        final boolean rulesPooled = featuresSet.contains(TimeZoneProviderToolFeature.RULES_POOL);
+
+        final List<ZoneRules> rulesPool = rulesPooled && false == compactRules ?
+                this.readRulesPool(data) :
+                null;
+
+        final List<TimeZoneProviderToolRules> compactRulesPool = rulesPooled && compactRules ?
+                this.readCompactRulesPool(data) :
+                null;
+
+        final boolean zoneAliases = featuresSet.contains(TimeZoneProviderToolFeature.ZONE_ALIASES);
+
+        final List<List<String>> zoneIndex;
+        final List<Integer> recordOffsets = Lists.array();
+        final int recordsChars;
+        if (featuresSet.contains(TimeZoneProviderToolFeature.ZONE_INDEX)) {
+            zoneIndex = this.readZoneIndex(data);
+
+            final int recordCount = data.readInt();
+            this.checkEquals(zoneIndex.size(), recordCount, "zone index offsets count");
+            for (int i = 0; i < recordCount; i++) {
+                recordOffsets.add(data.readInt());
+            }
+            recordsChars = data.readInt();
+        } else {
+            zoneIndex = null;
+            recordsChars = 0;
+        }
+
         final int zoneIdCount = data.readInt();
-        this.checkEquals(
-                timeZoneIds.size(),
-                zoneIdCount,
-                "timeZone count timeZoneIdFilter: " + CharSequences.quoteAndEscape(timeZoneIdFilter));
+        if (false == zoneAliases) {
+            this.checkEquals(
+                    timeZoneIds.size(),
+                    zoneIdCount,
+                    "timeZone count timeZoneIdFilter: " + CharSequences.quoteAndEscape(timeZoneIdFilter));
+        }
+        if (null != zoneIndex) {
+            this.checkEquals(zoneIndex.size(), zoneIdCount, "zone index record count");
+        }
+
+        final Set<String> readTimeZoneIds = SortedSets.tree();
 
         for (int i = 0; i < zoneIdCount; i++) {
-            final String timeZoneId = data.readUTF();
-            this.checkNotEquals("", timeZoneId, "timeZoneId");
+            final List<String> recordTimeZoneIds;
+            final DataInput record;
 
-            final TimeZone timeZone = TimeZone.getTimeZone(timeZoneId);
-            this.checkNotEquals("",
-                    timeZone,
-                    () -> "timezoneId " + CharSequences.quoteAndEscape(timeZoneId) + " data: " + data.toString().substring(0, 50));
+            if (null != zoneIndex) {
+                // each record is read from its offset rather than after the previous record
+                recordTimeZoneIds = zoneIndex.get(i);
+                record = TimeZoneProviderToolDecoder.record(
+                        text,
+                        recordsChars,
+                        recordOffsets,
+                        i
+                );
+            } else {
+                recordTimeZoneIds = zoneAliases ?
+                        this.readTimeZoneIds(data) :
+                        Lists.of(data.readUTF());
+                record = data;
+            }
+            readTimeZoneIds.addAll(recordTimeZoneIds);
+
+            final String timeZoneId = String.join(", ", recordTimeZoneIds);
+            final List<TimeZone> timeZones = Lists.array();
+
+            for (final String recordTimeZoneId : recordTimeZoneIds) {
+                this.checkNotEquals("", recordTimeZoneId, "timeZoneId");
+
+                final TimeZone timeZone = TimeZone.getTimeZone(recordTimeZoneId);
+                this.checkNotEquals("",
+                        timeZone,
+                        () -> "timezoneId " + CharSequences.quoteAndEscape(recordTimeZoneId) + " data: " + record.toString().substring(0, 50));
+                timeZones.add(timeZone);
+            }
 
             // getRawOffset.............................................................................................
-            final int rawOffset = data.readInt();
-            this.checkEquals(
-                    timeZone.getRawOffset(),
-                    rawOffset,
-                    () -> "rawOffset for timeZoneId " + CharSequences.quoteAndEscape(timeZoneId) + " data: " + data.toString().substring(0, 50));
+            final int rawOffset = record.readInt();
+            for (final TimeZone timeZone : timeZones) {
+                this.checkEquals(
+                        timeZone.getRawOffset(),
+                        rawOffset,
+                        () -> "rawOffset for timeZoneId " + CharSequences.quoteAndEscape(timeZone.getID()) + " data: " + record.toString().substring(0, 50));
+            }
 
             // ZoneRules................................................................................................
-            final ZoneRules zoneRules = StandardZoneRules.readExternal(data);
-            this.checkNotEquals(null, zoneRules);
+            if (compactRules) {
+                final TimeZoneProviderToolRules zoneRules = null != compactRulesPool ?
+                        compactRulesPool.get(record.readInt()) :
+                        TimeZoneProviderToolRules.readCompact(record);
 
-            // firstDayOfWeek, minimalDaysInFirstWeek -> locales........................................................
-            final Set<Locale> localesWithDefault = Sets.ordered();
-            localesWithDefault.addAll(selectedLocales);
-
-            final int defaultFirstDayOfWeek = data.readInt();
-            final int defaultMinimalDaysInFirstWeek = data.readInt();
+                for (final TimeZone timeZone : timeZones) {
+                    this.checkEquals(
+                            TimeZoneProviderToolRules.from(ZoneRules.of(timeZone.toZoneId())),
+                            zoneRules,
+                            () -> "rules for timeZoneId " + CharSequences.quoteAndEscape(timeZone.getID())
+                    );
+                }
+            } else {
+                final ZoneRules zoneRules;
+                if (null != rulesPool) {
+                    zoneRules = rulesPool.get(record.readInt());
+                } else {
+                    zoneRules = StandardZoneRules.readExternal(record);
+                    this.checkNotEquals(null, zoneRules);
+                }
 
-            final int calendarToLocalesCount = data.readInt();
-            for (int j = 0; j < calendarToLocalesCount; j++) {
-                final Set<Locale> locales = readAndCheckLocales(data, (localeCount) -> "locale count " + localeCount + " < 0 for timeZoneId: " + CharSequences.quoteAndEscape(timeZoneId) + " data: " + data.toString().substring(0, 50));
+                if (null != rulesPool || zoneAliases) {
+                    for (final TimeZone timeZone : timeZones) {
+                        this.checkEquals(
+                                serialize(ZoneRules.of(timeZone.toZoneId())),
+                                serialize(zoneRules),
+                                () -> "rules for timeZoneId " + CharSequences.quoteAndEscape(timeZone.getID())
+                        );
+                    }
+                }
+            }
 
-                final int firstDayOfWeek = data.readInt();
-                final int minimalDaysInFirstWeek = data.readInt();
+            // YearTable................................................................................................
+            if (featuresSet.contains(TimeZoneProviderToolFeature.YEAR_TABLE)) {
+                final TimeZoneProviderToolYearTable yearTable = TimeZoneProviderToolYearTable.read(record);
 
-                for (final Locale locale : locales) {
-                    this.checkCalendarData(firstDayOfWeek, minimalDaysInFirstWeek, timeZone, locale);
-                    localesWithDefault.remove(locale);
+                for (final TimeZone timeZone : timeZones) {
+                    this.checkEquals(
+                            TimeZoneProviderToolYearTable.with(
+                                    timeZone.toZoneId().getRules(),
+                                    TimeZoneProviderToolYearTable.DEFAULT_FIRST_YEAR,
+                                    TimeZoneProviderToolYearTable.DEFAULT_LAST_YEAR
+                            ),
+                            yearTable,
+                            () -> "year table for timeZoneId " + CharSequences.quoteAndEscape(timeZone.getID())
+                    );
                 }
             }
 
-            for (final Locale locale : localesWithDefault) {
-                this.checkCalendarData(defaultFirstDayOfWeek, defaultMinimalDaysInFirstWeek, timeZone, locale);
+            // firstDayOfWeek, minimalDaysInFirstWeek -> locales........................................................
+            if (false == globalCalendar) {
+                this.readAndCheckCalendarData(record,
+                        selectedLocales,
+                        localeTable,
+                        localeFallback,
+                        timeZones);
             }
 
             // default TimeZoneDisplay..................................................................................
-            final TimeZoneDisplay most = TimeZoneDisplay.read(data);
+            final TimeZoneDisplay most = this.readDisplay(record, strings);
 
             this.checkNotEquals("",
                     most.shortDisplayName,
@@ -238,38 +867,198 @@ public final class TimeZoneProviderToolTest implements ClassTesting<TimeZoneProv
 
             // display to locales.......................................................................................
 
-            final int displayToLocalesCount = data.readInt();
+            final int displayToLocalesCount = record.readInt();
             assertTrue(displayToLocalesCount >= 0,
-                    () -> "locale displayToLocalesCount " + displayToLocalesCount + " < 0 for timeZoneId: " + CharSequences.quoteAndEscape(timeZoneId) + " data: " + data.toString().substring(0, 50));
+                    () -> "locale displayToLocalesCount " + displayToLocalesCount + " < 0 for timeZoneId: " + CharSequences.quoteAndEscape(timeZoneId) + " data: " + record.toString().substring(0, 50));
 
-            final Set<Locale> mostLocales = Sets.ordered();
-            mostLocales.addAll(selectedLocales);
+            final Map<Locale, TimeZoneDisplay> localeToDisplay = Maps.hash();
 
             for (int j = 0; j < displayToLocalesCount; j++) {
-                final Set<Locale> locales = readAndCheckLocales(data, (localeCount) -> "locale count " + localeCount + " < 0 for timeZoneId: " + CharSequences.quoteAndEscape(timeZoneId) + " data: " + data.toString().substring(0, 50));
+                final Set<Locale> locales = readAndCheckLocales(record, localeTable, (localeCount) -> "locale count " + localeCount + " < 0 for timeZoneId: " + CharSequences.quoteAndEscape(timeZoneId) + " data: " + record.toString().substring(0, 50));
 
-                final TimeZoneDisplay display = TimeZoneDisplay.read(data);
+                final TimeZoneDisplay display = this.readDisplay(record, strings);
 
                 for (final Locale locale : locales) {
+                    localeToDisplay.put(locale, display);
+                }
+            }
+
+            // check the display for every locale, locales not in any group use the default or their parents
+            for (final Locale locale : selectedLocales) {
+                final TimeZoneDisplay display = resolve(locale, localeToDisplay, most, localeFallback);
+
+                for (final TimeZone timeZone : timeZones) {
                     checkDisplayName(timeZone, false, TimeZone.SHORT, locale, display.shortDisplayName);
                     checkDisplayName(timeZone, true, TimeZone.SHORT, locale, display.shortDisplayNameDaylight);
                     checkDisplayName(timeZone, false, TimeZone.LONG, locale, display.longDisplayName);
                     checkDisplayName(timeZone, true, TimeZone.LONG, locale, display.longDisplayNameDaylight);
-
-                    mostLocales.remove(locale);
                 }
             }
 
-            // check the display for $mostLocales
-            for (final Locale locale : mostLocales) {
-                checkDisplayName(timeZone, false, TimeZone.SHORT, locale, most.shortDisplayName);
-                checkDisplayName(timeZone, true, TimeZone.SHORT, locale, most.shortDisplayNameDaylight);
-                checkDisplayName(timeZone, false, TimeZone.LONG, locale, most.longDisplayName);
-                checkDisplayName(timeZone, true, TimeZone.LONG, locale, most.longDisplayNameDaylight);
+            if (null != zoneIndex && i == zoneIdCount - 1) {
+                assertThrows(EOFException.class, record::readBoolean);
+            }
+        }
+
+        this.checkEquals(
+                timeZoneIds,
+                readTimeZoneIds,
+                "timeZoneIds timeZoneIdFilter: " + CharSequences.quoteAndEscape(timeZoneIdFilter)
+        );
+
+        if (null == zoneIndex) {
+            assertThrows(EOFException.class, () -> data.readBoolean());
+        }
+    }
+
+    /**
+     * Reads the sorted zone ids and their record index, returning the zone ids for each record.
+     */
+    private List<List<String>> readZoneIndex(final DataInput data) throws IOException {
+        final int count = data.readInt();
+        assertTrue(count > 0, () -> "zone index count " + count + " <= 0");
+
+        final List<List<String>> records = Lists.array();
+        String previous = null;
+
+        for (int i = 0; i < count; i++) {
+            final String timeZoneId = data.readUTF();
+            if (null != previous) {
+                final String p = previous;
+                assertTrue(p.compareTo(timeZoneId) < 0, () -> "zone index not sorted " + CharSequences.quoteAndEscape(p) + " " + CharSequences.quoteAndEscape(timeZoneId));
+            }
+            previous = timeZoneId;
+
+            final int record = data.readInt();
+            while (records.size() <= record) {
+                records.add(Lists.array());
             }
+            records.get(record).add(timeZoneId);
+        }
+
+        return records;
+    }
+
+    private List<String> readTimeZoneIds(final DataInput data) throws IOException {
+        final int count = data.readInt();
+        assertTrue(count > 0, () -> "timeZoneId count " + count + " <= 0");
+
+        final List<String> timeZoneIds = Lists.array();
+        for (int i = 0; i < count; i++) {
+            timeZoneIds.add(data.readUTF());
         }
+        return timeZoneIds;
+    }
 
-        assertThrows(EOFException.class, () -> data.readBoolean());
+    private static String serialize(final ZoneRules rules) throws IOException {
+        final StringBuilder serialized = new StringBuilder();
+        rules.writeExternal(StringDataInputDataOutput.output(serialized::append));
+        return serialized.toString();
+    }
+
+    private List<ZoneRules> readRulesPool(final DataInput data) throws IOException {
+        final int count = data.readInt();
+        assertTrue(count >= 0, () -> "rules count " + count + " < 0");
+
+        final List<ZoneRules> rules = Lists.array();
+        for (int i = 0; i < count; i++) {
+            rules.add(StandardZoneRules.readExternal(data));
+        }
+        return rules;
+    }
+
+    private List<TimeZoneProviderToolRules> readCompactRulesPool(final DataInput data) throws IOException {
+        final int count = data.readInt();
+        assertTrue(count >= 0, () -> "rules count " + count + " < 0");
+
+        final List<TimeZoneProviderToolRules> rules = Lists.array();
+        for (int i = 0; i < count; i++) {
+            rules.add(TimeZoneProviderToolRules.readCompact(data));
+        }
+        return rules;
+    }
+
+    private List<String> readStrings(final DataInput data) throws IOException {
+        final int count = data.readInt();
+        assertTrue(count >= 0, () -> "string count " + count + " < 0");
+
+        final List<String> strings = Lists.array();
+        for (int i = 0; i < count; i++) {
+            strings.add(data.readUTF());
+        }
+
+        this.checkEquals(
+                (long) count,
+                strings.stream().distinct().count(),
+                () -> "strings not unique " + strings
+        );
+        return strings;
+    }
+
+    private TimeZoneDisplay readDisplay(final DataInput data,
+                                        final List<String> strings) throws IOException {
+        return null != strings ?
+                TimeZoneDisplay.with(
+                        strings.get(data.readInt()),
+                        strings.get(data.readInt()),
+                        strings.get(data.readInt()),
+                        strings.get(data.readInt())
+                ) :
+                TimeZoneDisplay.read(data);
+    }
+
+    private void readAndCheckCalendarData(final DataInput data,
+                                          final Set<Locale> selectedLocales,
+                                          final List<Locale> localeTable,
+                                          final boolean localeFallback,
+                                          final List<TimeZone> timeZones) throws IOException {
+        final String timeZoneIds = timeZones.stream()
+                .map(TimeZone::getID)
+                .collect(Collectors.joining(", "));
+
+        final List<Integer> defaultCalendar = Lists.of(data.readInt(), data.readInt());
+        final Map<Locale, List<Integer>> localeToCalendar = Maps.hash();
+
+        final int calendarToLocalesCount = data.readInt();
+        for (int j = 0; j < calendarToLocalesCount; j++) {
+            final Set<Locale> locales = readAndCheckLocales(data, localeTable, (localeCount) -> "locale count " + localeCount + " < 0 for timeZoneId: " + CharSequences.quoteAndEscape(timeZoneIds) + " data: " + data.toString().substring(0, 50));
+
+            final List<Integer> calendar = Lists.of(data.readInt(), data.readInt());
+
+            for (final Locale locale : locales) {
+                localeToCalendar.put(locale, calendar);
+            }
+        }
+
+        for (final Locale locale : selectedLocales) {
+            final List<Integer> calendar = resolve(locale, localeToCalendar, defaultCalendar, localeFallback);
+
+            for (final TimeZone timeZone : timeZones) {
+                this.checkCalendarData(calendar.get(0), calendar.get(1), timeZone, locale);
+            }
+        }
+    }
+
+    /**
+     * Returns the value of the locale, with fallback trying the parents of the locale, finally the default.
+     */
+    private static <T> T resolve(final Locale locale,
+                                 final Map<Locale, T> localeToValue,
+                                 final T defaultValue,
+                                 final boolean fallback) {
+        Locale current = locale;
+        T value = null;
+
+        while (null == value && null != current) {
+            value = localeToValue.get(current);
+            current = fallback ?
+                    TimeZoneProviderToolLocaleFallback.parent(current) :
+                    null;
+        }
+
+        return null != value ?
+                value :
+                defaultValue;
     }
 
     private void checkCalendarData(final int firstDayOfWeek,
@@ -284,6 +1073,52 @@ public final class TimeZoneProviderToolTest implements ClassTesting<TimeZoneProv
                 () -> "minimalDaysInFirstWeek for timeZone: " + timeZone.getID() + " locale: " + locale);
     }
 
+    private List<Locale> readLocaleTable(final DataInput data,
+                                         final Set<Locale> selectedLocales) throws IOException {
+        final int count = data.readInt();
+        this.checkEquals(selectedLocales.size(), count, "locale table count");
+
+        final List<Locale> locales = Lists.array();
+        for (int i = 0; i < count; i++) {
+            locales.add(this.checkLocale(data.readUTF()));
+        }
+
+        final Set<Locale> all = Sets.ordered();
+        all.addAll(locales);
+        this.checkEquals(selectedLocales, all, "locale table");
+        return locales;
+    }
+
+    private Set<Locale> readAndCheckLocales(final DataInput data,
+                                            final List<Locale> localeTable,
+                                            final Function<Integer, String> badLocaleCount) throws IOException {
+        return null != localeTable ?
+                this.readAndCheckLocaleRuns(data, localeTable, badLocaleCount) :
+                this.readAndCheckLocales(data, badLocaleCount);
+    }
+
+    private Set<Locale> readAndCheckLocaleRuns(final DataInput data,
+                                               final List<Locale> localeTable,
+                                               final Function<Integer, String> badLocaleCount) throws IOException {
+        final int runCount = data.readInt();
+        assertTrue(runCount >= 0,
+                () -> badLocaleCount.apply(runCount));
+
+        final Set<Locale> locales = Sets.ordered();
+        for (int k = 0; k < runCount; k++) {
+            final int start = data.readInt();
+            final int count = data.readInt();
+            assertTrue(count > 0,
+                    () -> badLocaleCount.apply(count));
+
+            for (int l = 0; l < count; l++) {
+                locales.add(localeTable.get(start + l));
+            }
+        }
+
+        return locales;
+    }
+
     private Set<Locale> readAndCheckLocales(final DataInput data,
                                             final Function<Integer, String> badLocaleCount) throws IOException {
         final int count = data.readInt();
@@ -0,0 +1,164 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.collect.list.Lists;
+import walkingkooka.collect.set.Sets;
+import walkingkooka.j2cl.locale.WalkingkookaLanguageTag;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public final class TimeZoneProviderToolVerifierTest implements ClassTesting<TimeZoneProviderToolVerifier> {
+
+    private final static int INSTANT_COUNT = 20;
+
+    @Test
+    public void testVerifyNoFeatures() throws Exception {
+        this.verifyAndCheck(EnumSet.noneOf(TimeZoneProviderToolFeature.class));
+    }
+
+    @Test
+    public void testVerifyEachFeature() throws Exception {
+        for (final TimeZoneProviderToolFeature feature : TimeZoneProviderToolFeature.values()) {
+            this.verifyAndCheck(EnumSet.of(feature));
+        }
+    }
+
+    @Test
+    public void testVerifyAllFeatures() throws Exception {
+        this.verifyAndCheck(EnumSet.allOf(TimeZoneProviderToolFeature.class));
+    }
+
+    @Test
+    public void testVerifyAllFeaturesRulesWindow() throws Exception {
+        this.verifyAndCheck(
+                EnumSet.allOf(TimeZoneProviderToolFeature.class),
+                TimeZoneProviderToolRulesWindow.with(
+                        Instant.parse("1970-01-01T00:00:00Z").getEpochSecond(),
+                        Instant.parse("2050-01-01T00:00:00Z").getEpochSecond()
+                )
+        );
+    }
+
+    private void verifyAndCheck(final Set<TimeZoneProviderToolFeature> features) throws Exception {
+        this.verifyAndCheck(
+                features,
+                TimeZoneProviderToolRulesWindow.ALL
+        );
+    }
+
+    private void verifyAndCheck(final Set<TimeZoneProviderToolFeature> features,
+                                final TimeZoneProviderToolRulesWindow rulesWindow) throws Exception {
+        this.checkEquals(
+                Lists.empty(),
+                TimeZoneProviderToolVerifier.verify(
+                        WalkingkookaLanguageTag.locales("EN*"),
+                        TimeZoneProviderTool.timezoneIds("A*"),
+                        features,
+                        rulesWindow,
+                        INSTANT_COUNT,
+                        0
+                ),
+                () -> "features " + features + " rules window " + rulesWindow
+        );
+    }
+
+    @Test
+    public void testVerifyMissingZone() throws Exception {
+        final Set<Locale> locales = WalkingkookaLanguageTag.locales("EN-AU");
+
+        this.checkEquals(
+                Lists.of("Europe/Paris missing"),
+                TimeZoneProviderToolVerifier.verify(
+                        locales,
+                        Sets.of("Australia/Sydney", "Europe/Paris"),
+                        TimeZoneProviderToolVerifier.generate(
+                                locales,
+                                Sets.of("Australia/Sydney"),
+                                EnumSet.noneOf(TimeZoneProviderToolFeature.class),
+                                TimeZoneProviderToolRulesWindow.ALL
+                        ),
+                        TimeZoneProviderToolRulesWindow.ALL,
+                        INSTANT_COUNT,
+                        0
+                )
+        );
+    }
+
+    @Test
+    public void testVerifyUnselectedLocaleMismatches() throws Exception {
+        final Set<String> zoneIds = Sets.of("Europe/Paris");
+
+        final List<String> mismatches = TimeZoneProviderToolVerifier.verify(
+                WalkingkookaLanguageTag.locales("FR-FR"),
+                zoneIds,
+                TimeZoneProviderToolVerifier.generate(
+                        WalkingkookaLanguageTag.locales("EN-AU"),
+                        zoneIds,
+                        EnumSet.noneOf(TimeZoneProviderToolFeature.class),
+                        TimeZoneProviderToolRulesWindow.ALL
+                ),
+                TimeZoneProviderToolRulesWindow.ALL,
+                INSTANT_COUNT,
+                0
+        );
+        assertTrue(
+                mismatches.stream()
+                        .anyMatch(m -> m.startsWith("Europe/Paris getDisplayName false LONG fr-FR")),
+                () -> mismatches.toString()
+        );
+    }
+
+    @Test
+    public void testDecodeAll() throws Exception {
+        final Set<String> zoneIds = TimeZoneProviderTool.timezoneIds("Australia*");
+
+        this.checkEquals(
+                zoneIds.size(),
+                TimeZoneProviderToolVerifier.decodeAll(
+                        TimeZoneProviderToolVerifier.generate(
+                                WalkingkookaLanguageTag.locales("EN-AU"),
+                                zoneIds,
+                                EnumSet.of(TimeZoneProviderToolFeature.ZONE_ALIASES),
+                                TimeZoneProviderToolRulesWindow.ALL
+                        )
+                )
+        );
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<TimeZoneProviderToolVerifier> type() {
+        return TimeZoneProviderToolVerifier.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright 2019 Miroslav Pokorny (github.com/mP1)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package walkingkooka.j2cl.java.util.timezone.annotationprocessor;
+
+import org.junit.jupiter.api.Test;
+import walkingkooka.j2cl.java.io.string.StringDataInputDataOutput;
+import walkingkooka.reflect.ClassTesting;
+import walkingkooka.reflect.JavaVisibility;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.zone.ZoneRules;
+import java.util.OptionalInt;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public final class TimeZoneProviderToolYearTableTest implements ClassTesting<TimeZoneProviderToolYearTable> {
+
+    private final static int FIRST_YEAR = 1970;
+
+    private final static int LAST_YEAR = 2037;
+
+    @Test
+    public void testWithFirstYearAfterLastYearFails() {
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> TimeZoneProviderToolYearTable.with(rules("Australia/Sydney"), 2000, 1999)
+        );
+    }
+
+    @Test
+    public void testWithFixedOffsetEmpty() {
+        this.checkEquals(
+                0,
+                TimeZoneProviderToolYearTable.with(rules("UTC"), FIRST_YEAR, LAST_YEAR).size()
+        );
+    }
+
+    @Test
+    public void testWithDaylightSaving() {
+        this.checkEquals(
+                LAST_YEAR - FIRST_YEAR + 1,
+                TimeZoneProviderToolYearTable.with(rules("Australia/Sydney"), FIRST_YEAR, LAST_YEAR).size()
+        );
+    }
+
+    @Test
+    public void testOffsetOutsideYearsEmpty() {
+        final TimeZoneProviderToolYearTable table = TimeZoneProviderToolYearTable.with(rules("Australia/Sydney"), FIRST_YEAR, LAST_YEAR);
+
+        this.checkEquals(
+                OptionalInt.empty(),
+                table.offset(Instant.parse("1969-12-31T23:59:59Z").getEpochSecond())
+        );
+        this.checkEquals(
+                OptionalInt.empty(),
+                table.offset(Instant.parse("2038-01-01T00:00:00Z").getEpochSecond())
+        );
+    }
+
+    @Test
+    public void testOffsetAllZones() {
+        final long first = Instant.parse("1970-01-01T00:00:00Z").getEpochSecond();
+        final long last = Instant.parse("2037-12-31T23:59:59Z").getEpochSecond();
+        final long step = 7 * 24 * 60 * 60 + 3 * 60 * 60 + 17;
+
+        for (final String zoneId : TimeZone.getAvailableIDs()) {
+            final ZoneRules rules = rules(zoneId);
+            final TimeZoneProviderToolYearTable table = TimeZoneProviderToolYearTable.with(rules, FIRST_YEAR, LAST_YEAR);
+            if (0 == table.size()) {
+                continue;
+            }
+
+            for (long epochSecond = first; epochSecond <= last; epochSecond += step) {
+                this.offsetAndCheck(zoneId, rules, table, epochSecond);
+            }
+        }
+    }
+
+    @Test
+    public void testOffsetAroundTransitions() {
+        final ZoneRules rules = rules("Europe/London");
+        final TimeZoneProviderToolYearTable table = TimeZoneProviderToolYearTable.with(rules, FIRST_YEAR, LAST_YEAR);
+
+        for (final String transition : new String[]{"2020-03-29T01:00:00Z", "2020-10-25T01:00:00Z", "1971-10-31T02:00:00Z"}) {
+            final long epochSecond = Instant.parse(transition).getEpochSecond();
+            for (long i = epochSecond - 1; i <= epochSecond + 1; i++) {
+                this.offsetAndCheck("Europe/London", rules, table, i);
+            }
+        }
+    }
+
+    private void offsetAndCheck(final String zoneId,
+                                final ZoneRules rules,
+                                final TimeZoneProviderToolYearTable table,
+                                final long epochSecond) {
+        final Instant instant = Instant.ofEpochSecond(epochSecond);
+
+        this.checkEquals(
+                OptionalInt.of(rules.getOffset(instant).getTotalSeconds()),
+                table.offset(epochSecond),
+                () -> zoneId + " " + instant
+        );
+    }
+
+    @Test
+    public void testWriteReadAllZones() throws IOException {
+        for (final String zoneId : TimeZone.getAvailableIDs()) {
+            final TimeZoneProviderToolYearTable table = TimeZoneProviderToolYearTable.with(rules(zoneId), FIRST_YEAR, LAST_YEAR);
+
+            final StringBuilder text = new StringBuilder();
+            table.write(StringDataInputDataOutput.output(text::append));
+
+            this.checkEquals(
+                    table,
+                    TimeZoneProviderToolYearTable.read(StringDataInputDataOutput.input(text.toString())),
+                    () -> zoneId
+            );
+        }
+    }
+
+    private static ZoneRules rules(final String zoneId) {
+        return TimeZone.getTimeZone(zoneId)
+                .toZoneId()
+                .getRules();
+    }
+
+    // ClassTesting.....................................................................................................
+
+    @Override
+    public Class<TimeZoneProviderToolYearTable> type() {
+        return TimeZoneProviderToolYearTable.class;
+    }
+
+    @Override
+    public JavaVisibility typeVisibility() {
+        return JavaVisibility.PACKAGE_PRIVATE;
+    }
+}